@@ -0,0 +1,23 @@
+package com.gastromind.application.inventory;
+
+import com.gastromind.domain.entity.Product;
+import com.gastromind.domain.valueobject.Quantity;
+
+public record ConsumptionRequest(Product product, Quantity quantity) {
+
+    public ConsumptionRequest {
+        if (product == null) {
+            throw new IllegalArgumentException("Product cannot be null");
+        }
+        if (quantity == null) {
+            throw new IllegalArgumentException("Amount to consume cannot be null");
+        }
+        if (quantity.value() <= 0) {
+            throw new IllegalArgumentException("Amount to consume must be greater than zero");
+        }
+    }
+
+    public static ConsumptionRequest of(Product product, Quantity quantity) {
+        return new ConsumptionRequest(product, quantity);
+    }
+}
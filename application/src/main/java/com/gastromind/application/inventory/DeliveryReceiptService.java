@@ -0,0 +1,77 @@
+package com.gastromind.application.inventory;
+
+import com.gastromind.domain.entity.Batch;
+import com.gastromind.domain.service.FefoBatchIndex;
+import com.gastromind.domain.service.InventoryService;
+import com.gastromind.domain.service.TimeOrderedIdGenerator;
+import com.gastromind.domain.valueobject.DeliveryLine;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/*
+Recepción de un albarán completo. Se lee el reloj una vez, los ids salen del generador ordenado por tiempo
+y se crean (y validan) todos los lotes en una pasada. Si alguna línea es incorrecta no se da de alta nada
+y el error indica todas las líneas que fallan, no solo la primera.
+ */
+public class DeliveryReceiptService {
+
+    private final InventoryService inventoryService;
+    private final TimeOrderedIdGenerator idGenerator;
+    private final Clock clock;
+
+    public DeliveryReceiptService(InventoryService inventoryService) {
+        this(inventoryService, new TimeOrderedIdGenerator(), Clock.systemDefaultZone());
+    }
+
+    public DeliveryReceiptService(InventoryService inventoryService, TimeOrderedIdGenerator idGenerator, Clock clock) {
+        if (inventoryService == null) {
+            throw new IllegalArgumentException("Inventory service cannot be null");
+        }
+        if (idGenerator == null) {
+            throw new IllegalArgumentException("Id generator cannot be null");
+        }
+        if (clock == null) {
+            throw new IllegalArgumentException("Clock cannot be null");
+        }
+        this.inventoryService = inventoryService;
+        this.idGenerator = idGenerator;
+        this.clock = clock;
+    }
+
+    public List<Batch> receive(List<DeliveryLine> lines, Map<UUID, FefoBatchIndex> indexesByProduct) {
+        if (lines == null || lines.isEmpty()) {
+            throw new IllegalArgumentException("Delivery must have at least one line");
+        }
+        if (indexesByProduct == null) {
+            throw new IllegalArgumentException("Batch indexes cannot be null");
+        }
+        LocalDate today = LocalDate.now(clock);
+        List<Batch> batches = new ArrayList<>(lines.size());
+        List<String> errors = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            DeliveryLine line = lines.get(i);
+            try {
+                if (line == null) {
+                    throw new IllegalArgumentException("Line cannot be null");
+                }
+                if (line.product() != null && !indexesByProduct.containsKey(line.product().getId())) {
+                    throw new IllegalArgumentException("Product has no batch index");
+                }
+                batches.add(Batch.create(idGenerator.next(), today, today, line.product(), line.sku(), line.expirationDate(),
+                        line.purchasePrice(), line.quantity()));
+            } catch (IllegalArgumentException e) {
+                errors.add("line " + (i + 1) + ": " + e.getMessage());
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new IllegalArgumentException("Invalid delivery lines: " + String.join("; ", errors));
+        }
+        inventoryService.receiveBatches(batches, indexesByProduct);
+        return batches;
+    }
+}
@@ -0,0 +1,117 @@
+package com.gastromind.application.inventory;
+
+import com.gastromind.application.port.InventoryEventStore;
+import com.gastromind.domain.entity.Batch;
+import com.gastromind.domain.event.BatchConsumed;
+import com.gastromind.domain.event.BatchReceived;
+import com.gastromind.domain.event.InventoryEvent;
+import com.gastromind.domain.service.InventoryListener;
+import com.gastromind.domain.valueobject.Quantity;
+
+import java.lang.System.Logger.Level;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+Guarda cada entrada y cada consumo de lote como evento.
+Bajo el lock del producto solo se encola (no escribe ni lanza nada), así un consumo no espera al disco ni
+a otros productos, y un fallo del registro no deja una receta descontada a medias.
+Un único hilo escribe la cola cada pocos milisegundos y hace un solo sync por tanda.
+Los eventos de un mismo producto se encolan bajo su lock, así que llegan al registro en el orden real.
+Si la escritura falla, el evento se queda el primero de la cola y se reintenta en la siguiente tanda.
+Si el registro rechaza el evento (p.ej. un consumo de un lote que nunca entró por receiveBatch), reintentarlo no
+sirve y bloquearía todo lo de detrás: se aparta a rejectedEvents() y se sigue con el resto.
+ */
+public class EventRecordingListener implements InventoryListener, AutoCloseable {
+
+    private static final Duration DEFAULT_WINDOW = Duration.ofMillis(5);
+    private static final System.Logger LOGGER = System.getLogger(EventRecordingListener.class.getName());
+
+    private final InventoryEventStore eventStore;
+    private final ConcurrentLinkedQueue<InventoryEvent> queue = new ConcurrentLinkedQueue<>();
+    //Lo ya sacado de la cola y aún no escrito; solo se toca con flushLock
+    private final ArrayDeque<InventoryEvent> unwritten = new ArrayDeque<>();
+    private final List<InventoryEvent> rejected = new ArrayList<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final PeriodicTask writer;
+
+    public EventRecordingListener(InventoryEventStore eventStore) {
+        this(eventStore, DEFAULT_WINDOW);
+    }
+
+    public EventRecordingListener(InventoryEventStore eventStore, Duration window) {
+        if (eventStore == null) {
+            throw new IllegalArgumentException("Event store cannot be null");
+        }
+        if (window == null || window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("Window must be greater than zero");
+        }
+        this.eventStore = eventStore;
+        this.writer = PeriodicTask.start("inventory-event-writer", window, this::flush);
+    }
+
+    @Override
+    public void onBatchReceived(Batch batch) {
+        queue.add(BatchReceived.of(batch));
+    }
+
+    @Override
+    public void onBatchConsumed(Batch batch, Quantity consumed) {
+        queue.add(new BatchConsumed(batch.getId(), batch.getProduct().getId(), consumed.toMicros()));
+    }
+
+    //Escribe todo lo pendiente; el hilo escritor lo llama en cada ventana
+    public void flush() {
+        flushLock.lock();
+        try {
+            InventoryEvent event;
+            while ((event = queue.poll()) != null) {
+                unwritten.add(event);
+            }
+            if (unwritten.isEmpty()) {
+                return;
+            }
+            while (!unwritten.isEmpty()) {
+                InventoryEvent next = unwritten.peek();
+                try {
+                    eventStore.append(next);
+                } catch (IllegalArgumentException | IllegalStateException e) {
+                    LOGGER.log(Level.ERROR, "Event store rejected " + next + ", moved to rejected events", e);
+                    rejected.add(next);
+                }
+                unwritten.poll();
+            }
+            eventStore.sync();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    public int pendingEvents() {
+        flushLock.lock();
+        try {
+            return unwritten.size() + queue.size();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    public List<InventoryEvent> rejectedEvents() {
+        flushLock.lock();
+        try {
+            return List.copyOf(rejected);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        writer.close();
+        flush();
+    }
+}
@@ -0,0 +1,38 @@
+package com.gastromind.application.inventory;
+
+import com.gastromind.domain.service.MenuFeasibilityService;
+
+import java.time.Duration;
+
+//Recalcula cada poco los platos con stock cambiado, para que los avisos de agotado lleguen sin esperar a una consulta
+public class MenuAvailabilityRefresher implements AutoCloseable {
+
+    private static final Duration DEFAULT_INTERVAL = Duration.ofMillis(100);
+
+    private final MenuFeasibilityService feasibility;
+    private final PeriodicTask refresher;
+
+    public MenuAvailabilityRefresher(MenuFeasibilityService feasibility) {
+        this(feasibility, DEFAULT_INTERVAL);
+    }
+
+    public MenuAvailabilityRefresher(MenuFeasibilityService feasibility, Duration interval) {
+        if (feasibility == null) {
+            throw new IllegalArgumentException("Feasibility service cannot be null");
+        }
+        if (interval == null || interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Interval must be greater than zero");
+        }
+        this.feasibility = feasibility;
+        this.refresher = PeriodicTask.start("menu-availability-refresher", interval, this::refresh);
+    }
+
+    public void refresh() {
+        feasibility.refresh();
+    }
+
+    @Override
+    public void close() {
+        refresher.close();
+    }
+}
@@ -0,0 +1,53 @@
+package com.gastromind.application.inventory;
+
+import java.lang.System.Logger.Level;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/*
+Un hilo daemon que repite una tarea con una pausa fija entre ejecuciones.
+Una excepción en scheduleWithFixedDelay cancela las siguientes ejecuciones sin avisar: aquí se registra y se sigue.
+Al cerrar se espera a la ejecución en curso; la última pasada (vaciar colas) la hace quien cierra.
+ */
+final class PeriodicTask implements AutoCloseable {
+
+    private static final System.Logger LOGGER = System.getLogger(PeriodicTask.class.getName());
+
+    private final String name;
+    private final Runnable task;
+    private final ScheduledExecutorService scheduler;
+
+    private PeriodicTask(String name, Runnable task) {
+        this.name = name;
+        this.task = task;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name(name).daemon().factory());
+    }
+
+    static PeriodicTask start(String name, Duration interval, Runnable task) {
+        PeriodicTask periodicTask = new PeriodicTask(name, task);
+        long intervalNanos = interval.toNanos();
+        periodicTask.scheduler.scheduleWithFixedDelay(periodicTask::runGuarded, intervalNanos, intervalNanos,
+                TimeUnit.NANOSECONDS);
+        return periodicTask;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runGuarded() {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Periodic task " + name + " failed, retrying on the next run", e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.gastromind.application.inventory;
+
+import com.gastromind.domain.service.StockReservations;
+
+import java.time.Duration;
+
+//Libera cada cierto tiempo las reservas de comandas que no se han marchado ni anulado a tiempo
+public class ReservationSweeper implements AutoCloseable {
+
+    private static final Duration DEFAULT_INTERVAL = Duration.ofSeconds(30);
+
+    private final StockReservations reservations;
+    private final PeriodicTask sweeper;
+
+    public ReservationSweeper(StockReservations reservations) {
+        this(reservations, DEFAULT_INTERVAL);
+    }
+
+    public ReservationSweeper(StockReservations reservations, Duration interval) {
+        if (reservations == null) {
+            throw new IllegalArgumentException("Reservations cannot be null");
+        }
+        if (interval == null || interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Interval must be greater than zero");
+        }
+        this.reservations = reservations;
+        this.sweeper = PeriodicTask.start("reservation-sweeper", interval, this::sweep);
+    }
+
+    //Devuelve cuántas reservas se han liberado
+    public int sweep() {
+        return reservations.releaseExpired();
+    }
+
+    @Override
+    public void close() {
+        sweeper.close();
+    }
+}
@@ -0,0 +1,146 @@
+package com.gastromind.application.inventory;
+
+import com.gastromind.application.port.BatchRepository;
+import com.gastromind.domain.entity.Batch;
+import com.gastromind.domain.entity.Product;
+import com.gastromind.domain.exception.NotEnoughStockException;
+import com.gastromind.domain.service.InventoryService;
+import com.gastromind.domain.valueobject.Quantity;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+Agrupa las líneas de comanda que llegan del TPV durante una ventana de unos milisegundos.
+Por cada producto se suma la demanda y se hace una única pasada FEFO (un lock y un ordenado por producto y ventana).
+El resultado de cada línea se devuelve de forma asíncrona con un CompletableFuture.
+ */
+public class StockConsumptionPipeline implements AutoCloseable {
+
+    private static final Duration DEFAULT_WINDOW = Duration.ofMillis(5);
+
+    private final InventoryService inventoryService;
+    private final BatchRepository batchRepository;
+    private final ConcurrentLinkedQueue<PendingConsumption> queue = new ConcurrentLinkedQueue<>();
+    private final PeriodicTask flusher;
+    //ReentrantLock y no synchronized: un hilo virtual que espera aquí no bloquea su hilo portador
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private volatile boolean closed;
+
+    public StockConsumptionPipeline(InventoryService inventoryService, BatchRepository batchRepository) {
+        this(inventoryService, batchRepository, DEFAULT_WINDOW);
+    }
+
+    public StockConsumptionPipeline(InventoryService inventoryService, BatchRepository batchRepository, Duration window) {
+        if (inventoryService == null) {
+            throw new IllegalArgumentException("Inventory service cannot be null");
+        }
+        if (batchRepository == null) {
+            throw new IllegalArgumentException("Batch repository cannot be null");
+        }
+        if (window == null || window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("Window must be greater than zero");
+        }
+        this.inventoryService = inventoryService;
+        this.batchRepository = batchRepository;
+        this.flusher = PeriodicTask.start("stock-consumption-pipeline", window, this::flush);
+    }
+
+    public CompletableFuture<Void> submit(Product product, Quantity quantity) {
+        return submit(ConsumptionRequest.of(product, quantity));
+    }
+
+    public CompletableFuture<Void> submit(ConsumptionRequest request) {
+        if (request == null) {
+            throw new IllegalArgumentException("Request cannot be null");
+        }
+        if (closed) {
+            throw new IllegalStateException("Pipeline is closed");
+        }
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        queue.add(new PendingConsumption(request, result));
+        //Si close() ha hecho el último flush entre la comprobación y el add, nadie más vaciaría la cola: la vaciamos aquí
+        if (closed) {
+            flush();
+        }
+        return result;
+    }
+
+    //Procesa lo que haya en cola; el flusher lo llama en cada ventana
+    public void flush() {
+        flushLock.lock();
+        try {
+            Map<UUID, List<PendingConsumption>> byProduct = new LinkedHashMap<>();
+            PendingConsumption pending;
+            while ((pending = queue.poll()) != null) {
+                byProduct.computeIfAbsent(pending.request().product().getId(), id -> new ArrayList<>()).add(pending);
+            }
+            for (List<PendingConsumption> group : byProduct.values()) {
+                try {
+                    consumeGroup(group);
+                } catch (RuntimeException e) {
+                    group.forEach(p -> p.result().completeExceptionally(e));
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        flusher.close();
+        flush();
+    }
+
+    private void consumeGroup(List<PendingConsumption> group) {
+        Product product = group.get(0).request().product();
+        List<Batch> batches = batchRepository.findByProductId(product.getId());
+        long available = inventoryService.calculateCurrentStock(product, batches).toMicros();
+
+        //Repartimos el stock por orden de llegada; las líneas que no caben fallan sin afectar a las demás
+        //En micro-unidades: con double, 0,1 + 0,2 no cabría en 0,3
+        List<PendingConsumption> accepted = new ArrayList<>(group.size());
+        long netDemand = 0;
+        for (PendingConsumption pending : group) {
+            Quantity requested = pending.request().quantity();
+            if (netDemand + requested.toMicros() <= available) {
+                netDemand += requested.toMicros();
+                accepted.add(pending);
+            } else {
+                pending.result().completeExceptionally(
+                        new NotEnoughStockException(product, requested, Quantity.ofMicros(available - netDemand)));
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+        try {
+            inventoryService.consumeProduct(product, Quantity.ofMicros(netDemand), batches);
+            accepted.forEach(p -> p.result().complete(null));
+        } catch (NotEnoughStockException e) {
+            //Alguien ha consumido por fuera del pipeline entre la lectura y el descuento: vamos línea a línea
+            accepted.forEach(p -> consumeSingle(p, batches));
+        }
+    }
+
+    private void consumeSingle(PendingConsumption pending, List<Batch> batches) {
+        try {
+            inventoryService.consumeProduct(pending.request().product(), pending.request().quantity(), batches);
+            pending.result().complete(null);
+        } catch (RuntimeException e) {
+            pending.result().completeExceptionally(e);
+        }
+    }
+
+    private record PendingConsumption(ConsumptionRequest request, CompletableFuture<Void> result) {
+    }
+}
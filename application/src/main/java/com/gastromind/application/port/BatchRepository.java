@@ -0,0 +1,11 @@
+package com.gastromind.application.port;
+
+import com.gastromind.domain.entity.Batch;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface BatchRepository {
+
+    List<Batch> findByProductId(UUID productId);
+}
@@ -0,0 +1,17 @@
+package com.gastromind.application.port;
+
+import com.gastromind.domain.event.InventoryEvent;
+import com.gastromind.domain.event.InventoryState;
+
+public interface InventoryEventStore {
+
+    //Devuelve el número de secuencia asignado al evento.
+    //IllegalArgumentException o IllegalStateException si el evento no cuadra con el estado; UncheckedIOException si falla la escritura
+    long append(InventoryEvent event);
+
+    //Fuerza a disco lo escrito hasta ahora (una vez por tanda de eventos, no por evento)
+    default void sync() {
+    }
+
+    InventoryState recover();
+}
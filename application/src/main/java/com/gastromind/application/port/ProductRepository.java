@@ -0,0 +1,11 @@
+package com.gastromind.application.port;
+
+import com.gastromind.domain.entity.Product;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface ProductRepository {
+
+    Optional<Product> findById(UUID productId);
+}
@@ -0,0 +1,101 @@
+package com.gastromind.application.inventory;
+
+import com.gastromind.domain.entity.Batch;
+import com.gastromind.domain.entity.Product;
+import com.gastromind.domain.service.FefoBatchIndex;
+import com.gastromind.domain.service.InventoryListener;
+import com.gastromind.domain.service.InventoryService;
+import com.gastromind.domain.service.TimeOrderedIdGenerator;
+import com.gastromind.domain.valueobject.Category;
+import com.gastromind.domain.valueobject.DeliveryLine;
+import com.gastromind.domain.valueobject.Money;
+import com.gastromind.domain.valueobject.Quantity;
+import com.gastromind.domain.valueobject.UnitOfMeasure;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("DeliveryReceiptService debería")
+class DeliveryReceiptServiceTest {
+
+    private final List<Batch> received = new ArrayList<>();
+    private DeliveryReceiptService receiptService;
+    private Product flour;
+    private Product butter;
+    private Map<UUID, FefoBatchIndex> indexes;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(Instant.now(), ZoneOffset.UTC);
+        today = LocalDate.now(clock);
+        InventoryService inventoryService = new InventoryService();
+        inventoryService.addListener(new InventoryListener() {
+            @Override
+            public void onBatchReceived(Batch batch) {
+                received.add(batch);
+            }
+        });
+        receiptService = new DeliveryReceiptService(inventoryService, new TimeOrderedIdGenerator(clock), clock);
+        flour = Product.create("Harina", null, Category.GRAIN, UnitOfMeasure.KILOGRAM, Set.of());
+        butter = Product.create("Mantequilla", null, Category.DAIRY, UnitOfMeasure.KILOGRAM, Set.of());
+        indexes = Map.of(flour.getId(), new FefoBatchIndex(flour), butter.getId(), new FefoBatchIndex(butter));
+    }
+
+    @Test
+    @DisplayName("Dar de alta todas las líneas con la misma fecha de entrada e ids ordenados")
+    void shouldReceiveWholeDelivery() {
+        List<Batch> batches = receiptService.receive(List.of(
+                line(flour, "ALB-1-1", 25.0),
+                line(butter, "ALB-1-2", 5.0),
+                line(flour, "ALB-1-3", 10.0)), indexes);
+
+        assertThat(batches).hasSize(3);
+        assertThat(batches).allSatisfy(batch -> assertThat(batch.getEntryDate()).isEqualTo(today));
+        assertThat(batches).extracting(Batch::getId).isSorted();
+        assertThat(indexes.get(flour.getId()).available().value()).isEqualTo(35.0);
+        assertThat(indexes.get(butter.getId()).available().value()).isEqualTo(5.0);
+        assertThat(received).containsExactlyElementsOf(batches);
+    }
+
+    @Test
+    @DisplayName("No dar de alta nada si alguna línea es incorrecta e indicar todas las que fallan")
+    void shouldRejectWholeDeliveryWhenAnyLineIsInvalid() {
+        List<DeliveryLine> lines = List.of(
+                line(flour, "ALB-2-1", 25.0),
+                new DeliveryLine(butter, "", today.plusDays(10), Money.of(20.0), Quantity.of(5.0)),
+                new DeliveryLine(flour, "ALB-2-3", today.minusDays(1), Money.of(20.0), Quantity.of(5.0)));
+
+        assertThatThrownBy(() -> receiptService.receive(lines, indexes))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid delivery lines: line 2: SKU cannot be empty; line 3: Cannot accept expired products");
+
+        assertThat(received).isEmpty();
+        assertThat(indexes.get(flour.getId()).isEmpty()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Rechazar un albarán vacío")
+    void shouldRejectEmptyDelivery() {
+        assertThatThrownBy(() -> receiptService.receive(List.of(), indexes))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Delivery must have at least one line");
+    }
+
+    private DeliveryLine line(Product product, String sku, double quantity) {
+        return new DeliveryLine(product, sku, today.plusMonths(3), Money.of(quantity * 2), Quantity.of(quantity));
+    }
+}
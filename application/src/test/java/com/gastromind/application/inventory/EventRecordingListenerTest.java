@@ -0,0 +1,145 @@
+package com.gastromind.application.inventory;
+
+import com.gastromind.application.port.InventoryEventStore;
+import com.gastromind.domain.entity.Batch;
+import com.gastromind.domain.entity.Product;
+import com.gastromind.domain.entity.Recipe;
+import com.gastromind.domain.event.InventoryEvent;
+import com.gastromind.domain.event.InventoryState;
+import com.gastromind.domain.service.FefoBatchIndex;
+import com.gastromind.domain.service.InventoryService;
+import com.gastromind.domain.valueobject.Category;
+import com.gastromind.domain.valueobject.Difficulty;
+import com.gastromind.domain.valueobject.Money;
+import com.gastromind.domain.valueobject.Quantity;
+import com.gastromind.domain.valueobject.RecipeIngredient;
+import com.gastromind.domain.valueobject.UnitOfMeasure;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("EventRecordingListener debería")
+class EventRecordingListenerTest {
+
+    private final FakeEventStore eventStore = new FakeEventStore();
+    private final InventoryService inventoryService = new InventoryService();
+    private EventRecordingListener listener;
+    private Product rice;
+    private Product tomato;
+    private Batch riceBatch;
+    private Batch tomatoBatch;
+
+    @BeforeEach
+    void setUp() {
+        //Ventana larga: en los tests forzamos el flush a mano
+        listener = new EventRecordingListener(eventStore, Duration.ofHours(1));
+        inventoryService.addListener(listener);
+        rice = Product.create("Arroz", "Arroz bomba", Category.GRAIN, UnitOfMeasure.GRAM, Set.of());
+        tomato = Product.create("Tomate", "Tomate pera", Category.VEGETABLE, UnitOfMeasure.GRAM, Set.of());
+        riceBatch = Batch.create(rice, "LOT-RICE", LocalDate.now().plusMonths(6), Money.of(50.0), Quantity.of(1000.0));
+        tomatoBatch = Batch.create(tomato, "LOT-TOMATO", LocalDate.now().plusDays(5), Money.of(10.0), Quantity.of(500.0));
+        inventoryService.receiveBatch(riceBatch, new FefoBatchIndex(rice));
+        inventoryService.receiveBatch(tomatoBatch, new FefoBatchIndex(tomato));
+    }
+
+    @AfterEach
+    void tearDown() {
+        eventStore.failing = false;
+        listener.close();
+    }
+
+    @Test
+    @DisplayName("Encolar los eventos sin escribir en el registro bajo el lock del producto")
+    void shouldQueueEventsWithoutWritingThem() {
+        assertThat(eventStore.state.size()).isZero();
+        assertThat(listener.pendingEvents()).isEqualTo(2);
+
+        listener.flush();
+
+        assertThat(listener.pendingEvents()).isZero();
+        assertThat(eventStore.state.lastSequence()).isEqualTo(2);
+        assertThat(eventStore.syncs).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Descontar la receta entera aunque falle el registro y escribirla cuando se recupere")
+    void shouldKeepRecipeConsumptionWhenStoreFails() {
+        Recipe recipe = Recipe.create("Arroz con tomate", null, Duration.ofMinutes(30), Difficulty.EASY, 4);
+        recipe.addIngredient(RecipeIngredient.of(rice, Quantity.of(400.0)));
+        recipe.addIngredient(RecipeIngredient.of(tomato, Quantity.of(200.0)));
+        eventStore.failing = true;
+
+        inventoryService.consumeRecipe(recipe, 2, Map.of(
+                rice.getId(), List.of(riceBatch),
+                tomato.getId(), List.of(tomatoBatch)));
+
+        assertThat(riceBatch.getCurrentQuantity().value()).isEqualTo(800.0);
+        assertThat(tomatoBatch.getCurrentQuantity().value()).isEqualTo(400.0);
+        assertThatThrownBy(listener::flush).isInstanceOf(UncheckedIOException.class);
+        assertThat(listener.pendingEvents()).isEqualTo(4);
+
+        eventStore.failing = false;
+        listener.flush();
+
+        assertThat(listener.pendingEvents()).isZero();
+        assertThat(eventStore.state.lastSequence()).isEqualTo(4);
+        assertThat(eventStore.state.remainingMicros(riceBatch.getId())).isEqualTo(Quantity.of(800.0).toMicros());
+        assertThat(eventStore.state.remainingMicros(tomatoBatch.getId())).isEqualTo(Quantity.of(400.0).toMicros());
+    }
+
+    @Test
+    @DisplayName("Apartar un evento rechazado y seguir escribiendo los siguientes")
+    void shouldSetAsideRejectedEventAndWriteTheRest() {
+        //Consumo sin receiveBatch previo: el registro no conoce el lote
+        Batch unknownBatch = Batch.create(rice, "LOT-UNKNOWN", LocalDate.now().plusMonths(6), Money.of(5.0),
+                Quantity.of(100.0));
+        inventoryService.consumeProduct(rice, Quantity.of(50.0), List.of(unknownBatch));
+        inventoryService.consumeProduct(tomato, Quantity.of(100.0), List.of(tomatoBatch));
+
+        listener.flush();
+
+        assertThat(listener.pendingEvents()).isZero();
+        assertThat(listener.rejectedEvents()).hasSize(1);
+        assertThat(eventStore.state.lastSequence()).isEqualTo(3);
+        assertThat(eventStore.state.remainingMicros(tomatoBatch.getId())).isEqualTo(Quantity.of(400.0).toMicros());
+    }
+
+    private static class FakeEventStore implements InventoryEventStore {
+
+        private final InventoryState state = new InventoryState();
+        private volatile boolean failing;
+        private int syncs;
+
+        @Override
+        public long append(InventoryEvent event) {
+            if (failing) {
+                throw new UncheckedIOException(new IOException("Disk full"));
+            }
+            long sequence = state.lastSequence() + 1;
+            state.apply(sequence, event);
+            return sequence;
+        }
+
+        @Override
+        public void sync() {
+            syncs++;
+        }
+
+        @Override
+        public InventoryState recover() {
+            return state.copy();
+        }
+    }
+}
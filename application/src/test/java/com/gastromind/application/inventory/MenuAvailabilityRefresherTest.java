@@ -0,0 +1,64 @@
+package com.gastromind.application.inventory;
+
+import com.gastromind.domain.entity.Batch;
+import com.gastromind.domain.entity.Product;
+import com.gastromind.domain.entity.Recipe;
+import com.gastromind.domain.service.FefoBatchIndex;
+import com.gastromind.domain.service.InventoryService;
+import com.gastromind.domain.service.MenuFeasibilityService;
+import com.gastromind.domain.valueobject.Category;
+import com.gastromind.domain.valueobject.Difficulty;
+import com.gastromind.domain.valueobject.Money;
+import com.gastromind.domain.valueobject.Quantity;
+import com.gastromind.domain.valueobject.RecipeIngredient;
+import com.gastromind.domain.valueobject.UnitOfMeasure;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("MenuAvailabilityRefresher debería")
+class MenuAvailabilityRefresherTest {
+
+    @Test
+    @DisplayName("Avisar de un plato agotado sin que nadie haga una consulta")
+    void shouldNotifySoldOutWithoutQueries() throws InterruptedException {
+        InventoryService inventoryService = new InventoryService();
+        MenuFeasibilityService feasibility = new MenuFeasibilityService();
+        inventoryService.addListener(feasibility);
+        Product salmon = Product.create("Salmón", "Lomo de salmón", Category.FISH, UnitOfMeasure.KILOGRAM, Set.of());
+        FefoBatchIndex batches = new FefoBatchIndex(salmon);
+        inventoryService.receiveBatch(Batch.create(salmon, "LOT-001", LocalDate.now().plusDays(3), Money.of(60.0),
+                Quantity.of(1.0)), batches);
+        Recipe tartar = Recipe.create("Tartar de salmón", null, Duration.ofMinutes(15), Difficulty.EASY, 4);
+        tartar.addIngredient(RecipeIngredient.of(salmon, Quantity.of(0.8)));
+        feasibility.register(tartar);
+        CountDownLatch soldOut = new CountDownLatch(1);
+        feasibility.addListener((recipe, available) -> {
+            if (!available) {
+                soldOut.countDown();
+            }
+        });
+
+        try (MenuAvailabilityRefresher ignored = new MenuAvailabilityRefresher(feasibility, Duration.ofMillis(5))) {
+            inventoryService.consumeProductFromIndex(salmon, Quantity.of(1.0), batches);
+
+            assertThat(soldOut.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("Rechazar un intervalo no positivo")
+    void shouldRejectNonPositiveInterval() {
+        assertThatThrownBy(() -> new MenuAvailabilityRefresher(new MenuFeasibilityService(), Duration.ZERO))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Interval must be greater than zero");
+    }
+}
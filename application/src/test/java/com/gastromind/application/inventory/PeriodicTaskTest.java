@@ -0,0 +1,44 @@
+package com.gastromind.application.inventory;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("PeriodicTask debería")
+class PeriodicTaskTest {
+
+    @Test
+    @DisplayName("Seguir ejecutando la tarea después de una excepción")
+    void shouldKeepRunningAfterException() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch ranAgain = new CountDownLatch(1);
+
+        try (PeriodicTask ignored = PeriodicTask.start("periodic-task-test", Duration.ofMillis(1), () -> {
+            if (runs.incrementAndGet() == 1) {
+                throw new IllegalStateException("boom");
+            }
+            ranAgain.countDown();
+        })) {
+            assertThat(ranAgain.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("Dejar de ejecutar la tarea al cerrarse")
+    void shouldStopRunningOnClose() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger();
+        PeriodicTask task = PeriodicTask.start("periodic-task-test", Duration.ofMillis(1), runs::incrementAndGet);
+
+        task.close();
+        int runsAtClose = runs.get();
+        Thread.sleep(20);
+
+        assertThat(runs.get()).isEqualTo(runsAtClose);
+    }
+}
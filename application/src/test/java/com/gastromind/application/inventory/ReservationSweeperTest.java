@@ -0,0 +1,58 @@
+package com.gastromind.application.inventory;
+
+import com.gastromind.domain.entity.Batch;
+import com.gastromind.domain.entity.Product;
+import com.gastromind.domain.service.FefoBatchIndex;
+import com.gastromind.domain.service.InventoryService;
+import com.gastromind.domain.service.StockReservations;
+import com.gastromind.domain.testing.MovableClock;
+import com.gastromind.domain.valueobject.Category;
+import com.gastromind.domain.valueobject.Money;
+import com.gastromind.domain.valueobject.Quantity;
+import com.gastromind.domain.valueobject.UnitOfMeasure;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("ReservationSweeper debería")
+class ReservationSweeperTest {
+
+    @Test
+    @DisplayName("Liberar las reservas caducadas y devolver el stock")
+    void shouldReleaseExpiredReservations() {
+        MovableClock clock = new MovableClock();
+        InventoryService inventoryService = new InventoryService();
+        StockReservations reservations = StockReservations.create(inventoryService, clock);
+        Product salmon = Product.create("Salmón", "Lomo de salmón", Category.FISH, UnitOfMeasure.KILOGRAM, Set.of());
+        FefoBatchIndex batches = new FefoBatchIndex(salmon);
+        inventoryService.receiveBatch(Batch.create(salmon, "LOT-001", LocalDate.now().plusDays(3), Money.of(60.0),
+                Quantity.of(4.0)), batches);
+        reservations.hold(salmon, Quantity.of(1.0), batches, Duration.ofMinutes(5));
+        reservations.hold(salmon, Quantity.of(2.0), batches, Duration.ofMinutes(30));
+
+        //Intervalo largo: en el test barremos a mano
+        try (ReservationSweeper sweeper = new ReservationSweeper(reservations, Duration.ofHours(1))) {
+            clock.advance(Duration.ofMinutes(10));
+
+            assertThat(sweeper.sweep()).isEqualTo(1);
+            assertThat(reservations.activeReservations()).isEqualTo(1);
+            assertThat(reservations.available(salmon, batches)).isEqualTo(Quantity.of(2.0));
+        }
+    }
+
+    @Test
+    @DisplayName("Rechazar un intervalo no positivo")
+    void shouldRejectNonPositiveInterval() {
+        StockReservations reservations = StockReservations.create(new InventoryService());
+
+        assertThatThrownBy(() -> new ReservationSweeper(reservations, Duration.ZERO))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Interval must be greater than zero");
+    }
+}
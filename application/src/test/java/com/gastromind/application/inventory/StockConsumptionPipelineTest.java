@@ -0,0 +1,130 @@
+package com.gastromind.application.inventory;
+
+import com.gastromind.domain.entity.Batch;
+import com.gastromind.domain.entity.Product;
+import com.gastromind.domain.exception.NotEnoughStockException;
+import com.gastromind.domain.service.InventoryService;
+import com.gastromind.domain.valueobject.Category;
+import com.gastromind.domain.valueobject.Money;
+import com.gastromind.domain.valueobject.Quantity;
+import com.gastromind.domain.valueobject.UnitOfMeasure;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("StockConsumptionPipeline debería")
+class StockConsumptionPipelineTest {
+
+    private final Map<UUID, List<Batch>> batches = new HashMap<>();
+    private StockConsumptionPipeline pipeline;
+    private Product salmon;
+    private Batch expiringBatch;
+    private Batch freshBatch;
+
+    @BeforeEach
+    void setUp() {
+        salmon = Product.create("Salmón", "Lomo de salmón", Category.FISH, UnitOfMeasure.KILOGRAM, Set.of());
+        expiringBatch = Batch.create(salmon, "LOT-001", LocalDate.now().plusDays(2), Money.of(60.0), Quantity.of(4.0));
+        freshBatch = Batch.create(salmon, "LOT-002", LocalDate.now().plusDays(5), Money.of(60.0), Quantity.of(4.0));
+        batches.put(salmon.getId(), List.of(freshBatch, expiringBatch));
+        //Ventana larga: en los tests forzamos el flush a mano
+        pipeline = new StockConsumptionPipeline(new InventoryService(),
+                productId -> batches.getOrDefault(productId, List.of()), Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.close();
+    }
+
+    @Test
+    @DisplayName("Descontar la demanda agrupada de un producto en una sola pasada FEFO")
+    void shouldConsumeNettedDemandUsingFefo() {
+        CompletableFuture<Void> first = pipeline.submit(salmon, Quantity.of(3.0));
+        CompletableFuture<Void> second = pipeline.submit(salmon, Quantity.of(2.0));
+
+        pipeline.flush();
+
+        assertThat(first).isCompleted();
+        assertThat(second).isCompleted();
+        assertThat(expiringBatch.getCurrentQuantity().value()).isEqualTo(0.0);
+        assertThat(freshBatch.getCurrentQuantity().value()).isEqualTo(3.0);
+    }
+
+    @Test
+    @DisplayName("Fallar solo las líneas que no caben en el stock disponible")
+    void shouldFailOnlyRequestsThatDoNotFit() {
+        CompletableFuture<Void> first = pipeline.submit(salmon, Quantity.of(6.0));
+        CompletableFuture<Void> tooBig = pipeline.submit(salmon, Quantity.of(5.0));
+        CompletableFuture<Void> fits = pipeline.submit(salmon, Quantity.of(2.0));
+
+        pipeline.flush();
+
+        assertThat(first).isCompleted();
+        assertThat(fits).isCompleted();
+        assertThatThrownBy(tooBig::get)
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(NotEnoughStockException.class);
+        assertThat(expiringBatch.getCurrentQuantity().value()).isEqualTo(0.0);
+        assertThat(freshBatch.getCurrentQuantity().value()).isEqualTo(0.0);
+    }
+
+    @Test
+    @DisplayName("No dejar líneas pendientes al cerrarse")
+    void shouldFlushPendingRequestsOnClose() {
+        CompletableFuture<Void> pending = pipeline.submit(salmon, Quantity.of(1.0));
+
+        pipeline.close();
+
+        assertThat(pending).isCompleted();
+        assertThat(expiringBatch.getCurrentQuantity().value()).isEqualTo(3.0);
+    }
+
+    @Test
+    @DisplayName("Sumar la demanda sin errores de redondeo")
+    void shouldNetDemandWithoutRoundingErrors() {
+        Product saffron = Product.create("Azafrán", null, Category.SPICE, UnitOfMeasure.GRAM, Set.of());
+        Batch batch = Batch.create(saffron, "LOT-003", LocalDate.now().plusDays(30), Money.of(9.0), Quantity.of(0.3));
+        batches.put(saffron.getId(), List.of(batch));
+
+        CompletableFuture<Void> first = pipeline.submit(saffron, Quantity.of(0.1));
+        CompletableFuture<Void> second = pipeline.submit(saffron, Quantity.of(0.2));
+        pipeline.flush();
+
+        assertThat(first).isCompleted();
+        assertThat(second).isCompleted();
+        assertThat(batch.getCurrentMicros()).isZero();
+    }
+
+    @Test
+    @DisplayName("Rechazar líneas nuevas una vez cerrado")
+    void shouldRejectRequestsAfterClose() {
+        pipeline.close();
+
+        assertThatThrownBy(() -> pipeline.submit(salmon, Quantity.of(1.0)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Pipeline is closed");
+    }
+
+    @Test
+    @DisplayName("No aceptar cantidades cero o negativas")
+    void shouldThrowExceptionWhenQuantityIsNotPositive() {
+        assertThatThrownBy(() -> pipeline.submit(salmon, Quantity.of(0.0)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Amount to consume must be greater than zero");
+    }
+}
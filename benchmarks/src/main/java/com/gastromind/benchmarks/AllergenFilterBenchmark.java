@@ -0,0 +1,54 @@
+package com.gastromind.benchmarks;
+
+import com.gastromind.domain.entity.Product;
+import com.gastromind.domain.entity.Recipe;
+import com.gastromind.domain.service.AllergenMenuIndex;
+import com.gastromind.domain.valueobject.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+//Filtro de la carta del kiosko ("sin GLUTEN, sin NUTS") sobre miles de recetas
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AllergenFilterBenchmark {
+
+    @Param({"3000"})
+    public int recipes;
+
+    private AllergenMenuIndex index;
+    private AllergenSet excluded;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        Allergen[] allergens = Allergen.values();
+        index = new AllergenMenuIndex();
+        for (int r = 0; r < recipes; r++) {
+            Recipe recipe = Recipe.create("Receta " + r, null, Duration.ofMinutes(30), Difficulty.MEDIUM, 4);
+            for (int i = 0; i < 8; i++) {
+                Set<Allergen> productAllergens = random.nextInt(4) == 0
+                        ? EnumSet.of(allergens[random.nextInt(allergens.length)])
+                        : Set.of();
+                Product product = Product.create("Ingrediente " + r + "-" + i, null, Category.OTHER, UnitOfMeasure.GRAM, productAllergens);
+                recipe.addIngredient(RecipeIngredient.of(product, Quantity.of(100)));
+            }
+            index.register(recipe);
+        }
+        excluded = AllergenSet.of(Allergen.GLUTEN, Allergen.NUTS);
+    }
+
+    @Benchmark
+    public List<Recipe> freeOfGlutenAndNuts() {
+        return index.freeOf(excluded);
+    }
+}
@@ -0,0 +1,61 @@
+package com.gastromind.benchmarks;
+
+import com.gastromind.domain.entity.Batch;
+import com.gastromind.domain.entity.Product;
+import com.gastromind.domain.service.FefoBatchIndex;
+import com.gastromind.domain.service.InventoryService;
+import com.gastromind.domain.service.StockLedger;
+import com.gastromind.domain.valueobject.Category;
+import com.gastromind.domain.valueobject.Money;
+import com.gastromind.domain.valueobject.Quantity;
+import com.gastromind.domain.valueobject.UnitOfMeasure;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+//calculateCurrentStock (suma todos los lotes) frente a la lectura O(1) del StockLedger
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CurrentStockBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int batchesPerProduct;
+
+    private InventoryService inventoryService;
+    private StockLedger ledger;
+    private Product product;
+    private List<Batch> batches;
+
+    @Setup
+    public void setUp() {
+        inventoryService = new InventoryService();
+        ledger = new StockLedger();
+        inventoryService.addListener(ledger);
+        product = Product.create("Harina", null, Category.GRAIN, UnitOfMeasure.KILOGRAM, Set.of());
+        FefoBatchIndex index = new FefoBatchIndex(product);
+        batches = new ArrayList<>(batchesPerProduct);
+        for (int b = 0; b < batchesPerProduct; b++) {
+            Batch batch = Batch.create(product, "LOT-" + b, LocalDate.now().plusDays(30), Money.of(20.0), Quantity.of(25.0));
+            batches.add(batch);
+            inventoryService.receiveBatch(batch, index);
+        }
+    }
+
+    @Benchmark
+    public Quantity calculateCurrentStock() {
+        return inventoryService.calculateCurrentStock(product, batches);
+    }
+
+    @Benchmark
+    public Quantity ledgerCurrentStock() {
+        return ledger.currentStock(product);
+    }
+}
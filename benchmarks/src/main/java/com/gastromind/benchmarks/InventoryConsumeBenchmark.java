@@ -0,0 +1,121 @@
+package com.gastromind.benchmarks;
+
+import com.gastromind.domain.entity.Batch;
+import com.gastromind.domain.entity.Product;
+import com.gastromind.domain.service.FefoBatchIndex;
+import com.gastromind.domain.service.InventoryService;
+import com.gastromind.domain.valueobject.Category;
+import com.gastromind.domain.valueobject.Money;
+import com.gastromind.domain.valueobject.Quantity;
+import com.gastromind.domain.valueobject.UnitOfMeasure;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//consumeProduct (lista, filtra y ordena en cada llamada) frente al índice FEFO, con 1, 8 y 64 hilos.
+//Cada hilo consume de su propio producto: mide el coste por llamada y cómo escala, no la contención de un producto
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InventoryConsumeBenchmark {
+
+    private static final int PRODUCTS = 64;
+    private static final Quantity ONE = Quantity.of(1.0);
+    //Stock de sobra para toda la medición y, repartido entre los lotes, lejos del máximo en micro-unidades (~9,2e12)
+    private static final double STOCK_PER_PRODUCT = 1e12;
+
+    @Param({"10", "1000", "10000"})
+    public int batchesPerProduct;
+
+    InventoryService inventoryService;
+    Product[] products;
+    List<List<Batch>> batchLists;
+    List<FefoBatchIndex> batchIndexes;
+
+    private final AtomicInteger threadCounter = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        inventoryService = new InventoryService();
+        products = new Product[PRODUCTS];
+        batchLists = new ArrayList<>(PRODUCTS);
+        batchIndexes = new ArrayList<>(PRODUCTS);
+        LocalDate today = LocalDate.now();
+        Quantity perBatch = Quantity.of(STOCK_PER_PRODUCT / batchesPerProduct);
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = Product.create("Producto " + i, null, Category.OTHER, UnitOfMeasure.UNIT, Set.of());
+            products[i] = product;
+            List<Batch> listBatches = new ArrayList<>(batchesPerProduct);
+            FefoBatchIndex index = new FefoBatchIndex(product);
+            for (int b = 0; b < batchesPerProduct; b++) {
+                LocalDate expiration = today.plusDays(1 + (b * 7L) % 365);
+                listBatches.add(Batch.create(product, "LOT-" + b, expiration, Money.of(100.0), perBatch));
+                index.add(Batch.create(product, "IDX-" + b, expiration, Money.of(100.0), perBatch));
+            }
+            batchLists.add(listBatches);
+            batchIndexes.add(index);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadSlot {
+        int index;
+
+        @Setup(Level.Trial)
+        public void setUp(InventoryConsumeBenchmark benchmark) {
+            index = benchmark.threadCounter.getAndIncrement() % PRODUCTS;
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void consumeList1Thread(ThreadSlot slot) {
+        consumeList(slot);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void consumeList8Threads(ThreadSlot slot) {
+        consumeList(slot);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void consumeList64Threads(ThreadSlot slot) {
+        consumeList(slot);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void consumeIndex1Thread(ThreadSlot slot) {
+        consumeIndex(slot);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void consumeIndex8Threads(ThreadSlot slot) {
+        consumeIndex(slot);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void consumeIndex64Threads(ThreadSlot slot) {
+        consumeIndex(slot);
+    }
+
+    private void consumeList(ThreadSlot slot) {
+        inventoryService.consumeProduct(products[slot.index], ONE, batchLists.get(slot.index));
+    }
+
+    private void consumeIndex(ThreadSlot slot) {
+        inventoryService.consumeProductFromIndex(products[slot.index], ONE, batchIndexes.get(slot.index));
+    }
+}
@@ -0,0 +1,76 @@
+package com.gastromind.benchmarks;
+
+import com.gastromind.domain.entity.Batch;
+import com.gastromind.domain.entity.Product;
+import com.gastromind.domain.service.InventoryService;
+import com.gastromind.domain.service.ProductLockRegistry;
+import com.gastromind.domain.valueobject.Category;
+import com.gastromind.domain.valueobject.Money;
+import com.gastromind.domain.valueobject.Quantity;
+import com.gastromind.domain.valueobject.UnitOfMeasure;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//Escalado de consumeProduct con los cores: stripes=1 equivale al antiguo monitor global.
+//Ejecutar con distintos hilos: java -jar benchmarks.jar InventoryContentionBenchmark -t 1,2,4,8
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InventoryContentionBenchmark {
+
+    private static final int PRODUCTS = 256;
+    private static final Quantity ONE = Quantity.of(1.0);
+
+    @Param({"1", "64"})
+    public int stripes;
+
+    @Param({"false", "true"})
+    public boolean sameProduct;
+
+    InventoryService inventoryService;
+    Product[] products;
+    List<List<Batch>> batchesByProduct;
+
+    private final AtomicInteger threadCounter = new AtomicInteger();
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        inventoryService = new InventoryService(new ProductLockRegistry(stripes));
+        products = new Product[PRODUCTS];
+        batchesByProduct = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            products[i] = Product.create("Producto " + i, null, Category.OTHER, UnitOfMeasure.UNIT, Set.of());
+            List<Batch> batches = new ArrayList<>();
+            for (int b = 0; b < 4; b++) {
+                batches.add(Batch.create(products[i], "LOT-" + i + "-" + b,
+                        LocalDate.now().plusDays(10 + b), Money.of(100.0), Quantity.of(1e12)));
+            }
+            batchesByProduct.add(batches);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadSlot {
+        int index;
+
+        @Setup(Level.Trial)
+        public void setUp(InventoryContentionBenchmark benchmark) {
+            index = benchmark.threadCounter.getAndIncrement() % PRODUCTS;
+        }
+    }
+
+    @Benchmark
+    public void consumeProduct(ThreadSlot slot) {
+        int index = sameProduct ? 0 : slot.index;
+        inventoryService.consumeProduct(products[index], ONE, batchesByProduct.get(index));
+    }
+}
@@ -0,0 +1,69 @@
+package com.gastromind.benchmarks;
+
+import com.gastromind.domain.entity.Batch;
+import com.gastromind.domain.entity.Product;
+import com.gastromind.domain.service.InventoryValuationService;
+import com.gastromind.domain.valueobject.Category;
+import com.gastromind.domain.valueobject.InventoryValuation;
+import com.gastromind.domain.valueobject.Money;
+import com.gastromind.domain.valueobject.Quantity;
+import com.gastromind.domain.valueobject.UnitOfMeasure;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+//Valoración de 1M de lotes con 1, 2, 4 y 8 hilos: debería escalar casi lineal con los núcleos
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InventoryValuationBenchmark {
+
+    private static final int BATCHES = 1_000_000;
+    private static final int PRODUCTS = 5_000;
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    private ForkJoinPool pool;
+    private InventoryValuationService service;
+    private List<Batch> batches;
+    private LocalDate today;
+
+    @Setup
+    public void setUp() {
+        pool = new ForkJoinPool(parallelism);
+        service = new InventoryValuationService(pool);
+        today = LocalDate.now();
+        Category[] categories = Category.values();
+        List<Product> products = new ArrayList<>(PRODUCTS);
+        for (int p = 0; p < PRODUCTS; p++) {
+            products.add(Product.create("Producto " + p, null, categories[p % categories.length],
+                    UnitOfMeasure.KILOGRAM, Set.of()));
+        }
+        batches = new ArrayList<>(BATCHES);
+        for (int b = 0; b < BATCHES; b++) {
+            Batch batch = Batch.create(products.get(b % PRODUCTS), "LOT-" + b, today.plusDays(b % 60),
+                    Money.of(10.0 + b % 90), Quantity.of(5.0));
+            batch.consume(Quantity.of(1 + b % 4));
+            batches.add(batch);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public InventoryValuation value() {
+        return service.value(batches, today);
+    }
+}
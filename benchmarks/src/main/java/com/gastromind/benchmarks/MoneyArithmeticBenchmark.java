@@ -0,0 +1,94 @@
+package com.gastromind.benchmarks;
+
+import com.gastromind.domain.entity.Batch;
+import com.gastromind.domain.entity.Product;
+import com.gastromind.domain.valueobject.Category;
+import com.gastromind.domain.valueobject.Money;
+import com.gastromind.domain.valueobject.MoneyAccumulator;
+import com.gastromind.domain.valueobject.Quantity;
+import com.gastromind.domain.valueobject.UnitOfMeasure;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+//Money (BigDecimal + setScale por operación) frente a MoneyAccumulator (céntimos en long), y el coste unitario de un lote
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoneyArithmeticBenchmark {
+
+    @Param({"1000"})
+    public int lines;
+
+    private Money[] prices;
+    private long[] pricesMinor;
+    private long[] quantitiesMicros;
+    private Batch batch;
+
+    @Setup
+    public void setUp() {
+        prices = new Money[lines];
+        pricesMinor = new long[lines];
+        quantitiesMicros = new long[lines];
+        for (int i = 0; i < lines; i++) {
+            prices[i] = Money.of(new BigDecimal((i % 50) + "." + (i % 100)));
+            pricesMinor[i] = prices[i].toMinor();
+            quantitiesMicros[i] = 250_000L + i * 1_000L;
+        }
+        Product product = Product.create("Azafrán", null, Category.SPICE, UnitOfMeasure.GRAM, Set.of());
+        batch = Batch.create(product, "LOT-001", LocalDate.now().plusMonths(6), Money.of(87.5), Quantity.of(30.0));
+    }
+
+    @Benchmark
+    public Money bigDecimalSum() {
+        Money total = Money.of(0);
+        for (Money price : prices) {
+            total = total.add(price);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long accumulatorSum() {
+        MoneyAccumulator total = new MoneyAccumulator();
+        for (long price : pricesMinor) {
+            total.addMinor(price);
+        }
+        return total.minorUnits();
+    }
+
+    @Benchmark
+    public Money bigDecimalValuation() {
+        Money total = Money.of(0);
+        for (int i = 0; i < lines; i++) {
+            BigDecimal quantity = BigDecimal.valueOf(quantitiesMicros[i], 6);
+            total = total.add(new Money(prices[i].amount().multiply(quantity), prices[i].currency()));
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long accumulatorValuation() {
+        MoneyAccumulator total = new MoneyAccumulator();
+        for (int i = 0; i < lines; i++) {
+            total.addLine(pricesMinor[i], quantitiesMicros[i]);
+        }
+        return total.minorUnits();
+    }
+
+    @Benchmark
+    public Money batchUnitCost() {
+        return batch.getUnitCost();
+    }
+
+    @Benchmark
+    public Money moneyOf() {
+        return Money.of(12.5);
+    }
+}
@@ -0,0 +1,176 @@
+package com.gastromind.benchmarks;
+
+import com.gastromind.domain.entity.Batch;
+import com.gastromind.domain.entity.Product;
+import com.gastromind.domain.service.FefoBatchIndex;
+import com.gastromind.domain.service.InventoryService;
+import com.gastromind.domain.valueobject.Category;
+import com.gastromind.domain.valueobject.Money;
+import com.gastromind.domain.valueobject.Quantity;
+import com.gastromind.domain.valueobject.UnitOfMeasure;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+Prueba de carga del TPV: muchas conexiones concurrentes mandando consumos a un servidor HTTP
+que descuenta stock con InventoryService y simula la E/S de persistencia con una espera.
+Se ejecuta dos veces, con el pool de hilos de plataforma (200, como Tomcat por defecto) y con hilos virtuales,
+y compara latencias p50/p99.
+Ojo: el servidor es el HttpServer del JDK, no la aplicación Spring Boot con Tomcat. Compara los dos modelos de hilos
+sobre el mismo código de dominio; no mide Tomcat, ni los filtros de Spring, ni spring.threads.virtual.enabled.
+
+  java -cp benchmarks/target/benchmarks.jar com.gastromind.benchmarks.PosLoadTest \
+       --connections=5000 --requests=20 --io-millis=10
+
+Puede hacer falta subir el límite de ficheros abiertos (ulimit -n) para 5000 conexiones.
+ */
+public class PosLoadTest {
+
+    private static final int PLATFORM_THREADS = 200;
+    private static final int PRODUCTS = 500;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int connections = Integer.parseInt(options.getOrDefault("connections", "5000"));
+        int requests = Integer.parseInt(options.getOrDefault("requests", "20"));
+        long ioMillis = Long.parseLong(options.getOrDefault("io-millis", "10"));
+
+        System.out.printf("%d conexiones x %d peticiones, E/S simulada %d ms%n", connections, requests, ioMillis);
+        Result platform = run("platform", Executors.newFixedThreadPool(PLATFORM_THREADS), connections, requests, ioMillis);
+        Result virtual = run("virtual", Executors.newVirtualThreadPerTaskExecutor(), connections, requests, ioMillis);
+        System.out.println(platform);
+        System.out.println(virtual);
+        System.out.printf("p99 virtual / platform: %.2f%n", (double) virtual.p99Micros() / platform.p99Micros());
+    }
+
+    private static Result run(String mode, ExecutorService serverExecutor, int connections, int requests,
+                              long ioMillis) throws Exception {
+        InventoryService inventoryService = new InventoryService();
+        List<Product> products = new ArrayList<>(PRODUCTS);
+        List<FefoBatchIndex> indexes = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = Product.create("Producto " + i, null, Category.OTHER, UnitOfMeasure.UNIT, Set.of());
+            FefoBatchIndex index = new FefoBatchIndex(product);
+            inventoryService.receiveBatch(Batch.create(product, "LOT-" + i, LocalDate.now().plusMonths(1),
+                    Money.of(1_000.0), Quantity.of(1_000_000.0)), index);
+            products.add(product);
+            indexes.add(index);
+        }
+
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), connections);
+        server.setExecutor(serverExecutor);
+        server.createContext("/consume", exchange -> handle(exchange, inventoryService, products, indexes, ioMillis));
+        server.start();
+        URI base = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/consume?product=");
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(clients)
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+            //Calentamiento: JIT y conexiones
+            send(client, base, 0);
+
+            long start = System.nanoTime();
+            List<Future<long[]>> futures = new ArrayList<>(connections);
+            for (int c = 0; c < connections; c++) {
+                futures.add(clients.submit(() -> {
+                    long[] latencies = new long[requests];
+                    for (int r = 0; r < requests; r++) {
+                        long sent = System.nanoTime();
+                        send(client, base, ThreadLocalRandom.current().nextInt(PRODUCTS));
+                        latencies[r] = (System.nanoTime() - sent) / 1_000;
+                    }
+                    return latencies;
+                }));
+            }
+            long[] all = new long[connections * requests];
+            int position = 0;
+            for (Future<long[]> future : futures) {
+                long[] latencies = future.get();
+                System.arraycopy(latencies, 0, all, position, latencies.length);
+                position += latencies.length;
+            }
+            long elapsedNanos = System.nanoTime() - start;
+            Arrays.sort(all);
+            return new Result(mode, all.length, all.length * 1_000_000_000.0 / elapsedNanos,
+                    percentile(all, 0.50), percentile(all, 0.99), all[all.length - 1]);
+        } finally {
+            server.stop(0);
+            serverExecutor.shutdownNow();
+        }
+    }
+
+    private static void handle(HttpExchange exchange, InventoryService inventoryService, List<Product> products,
+                               List<FefoBatchIndex> indexes, long ioMillis) throws IOException {
+        try (exchange) {
+            int product = Integer.parseInt(exchange.getRequestURI().getQuery().substring("product=".length()));
+            inventoryService.consumeProductFromIndex(products.get(product), Quantity.of(0.001), indexes.get(product));
+            //Escritura en el almacén/registro de eventos, fuera del lock del producto
+            Thread.sleep(ioMillis);
+            byte[] body = "ok".getBytes();
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void send(HttpClient client, URI base, int product) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(base.toString() + product))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode());
+        }
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        return sorted[(int) Math.ceil(percentile * sorted.length) - 1];
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+
+    private record Result(String mode, int requests, double throughput, long p50Micros, long p99Micros, long maxMicros) {
+
+        @Override
+        public String toString() {
+            return String.format("%-8s %8d peticiones  %10.0f req/s  p50 %7.2f ms  p99 %7.2f ms  max %7.2f ms",
+                    mode, requests, throughput, p50Micros / 1000.0, p99Micros / 1000.0, maxMicros / 1000.0);
+        }
+    }
+}
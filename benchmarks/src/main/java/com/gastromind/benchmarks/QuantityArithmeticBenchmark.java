@@ -0,0 +1,68 @@
+package com.gastromind.benchmarks;
+
+import com.gastromind.domain.valueobject.Quantity;
+import com.gastromind.domain.valueobject.QuantityAccumulator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+//Quantity (record con double, un objeto por operación) frente a QuantityAccumulator (long, sin asignaciones).
+//Con -prof gc se ve la diferencia en bytes asignados por operación
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class QuantityArithmeticBenchmark {
+
+    @Param({"1000"})
+    public int deductions;
+
+    private Quantity stock;
+    private Quantity gram;
+    private long gramMicros;
+
+    @Setup
+    public void setUp() {
+        stock = Quantity.of(deductions);
+        gram = Quantity.of(0.001);
+        gramMicros = gram.toMicros();
+    }
+
+    @Benchmark
+    public Quantity recordSubtract() {
+        Quantity remaining = stock;
+        for (int i = 0; i < deductions; i++) {
+            remaining = remaining.subtract(gram);
+        }
+        return remaining;
+    }
+
+    @Benchmark
+    public long accumulatorSubtract() {
+        QuantityAccumulator remaining = new QuantityAccumulator(stock);
+        for (int i = 0; i < deductions; i++) {
+            remaining.subtract(gramMicros);
+        }
+        return remaining.micros();
+    }
+
+    @Benchmark
+    public Quantity recordAdd() {
+        Quantity total = Quantity.of(0);
+        for (int i = 0; i < deductions; i++) {
+            total = total.add(gram);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long accumulatorAdd() {
+        QuantityAccumulator total = new QuantityAccumulator();
+        for (int i = 0; i < deductions; i++) {
+            total.add(gramMicros);
+        }
+        return total.micros();
+    }
+}
@@ -0,0 +1,47 @@
+package com.gastromind.benchmarks;
+
+import com.gastromind.domain.entity.Product;
+import com.gastromind.domain.entity.Recipe;
+import com.gastromind.domain.valueobject.Category;
+import com.gastromind.domain.valueobject.Difficulty;
+import com.gastromind.domain.valueobject.Quantity;
+import com.gastromind.domain.valueobject.RecipeIngredient;
+import com.gastromind.domain.valueobject.UnitOfMeasure;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+//Construir una receta con N ingredientes (importación de menús de banquete y sub-recetas grandes)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RecipeBuildBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int ingredients;
+
+    private RecipeIngredient[] lines;
+
+    @Setup
+    public void setUp() {
+        lines = new RecipeIngredient[ingredients];
+        for (int i = 0; i < ingredients; i++) {
+            Product product = Product.create("Ingrediente " + i, null, Category.OTHER, UnitOfMeasure.GRAM, Set.of());
+            lines[i] = RecipeIngredient.of(product, Quantity.of(10.0));
+        }
+    }
+
+    @Benchmark
+    public Recipe addIngredient() {
+        Recipe recipe = Recipe.create("Menú banquete", null, Duration.ofHours(2), Difficulty.HARD, 100);
+        for (RecipeIngredient line : lines) {
+            recipe.addIngredient(line);
+        }
+        return recipe;
+    }
+}
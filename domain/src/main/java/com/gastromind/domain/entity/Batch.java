@@ -1,5 +1,6 @@
 package com.gastromind.domain.entity;
 
+import com.gastromind.domain.valueobject.MinorMoney;
 import com.gastromind.domain.valueobject.Money;
 import com.gastromind.domain.valueobject.Quantity;
 
@@ -7,6 +8,7 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class Batch {
 
@@ -17,9 +19,14 @@ public class Batch {
     private final LocalDate expirationDate;
     private final Money purchasePrice;
     private final Quantity initialQuantity;
-    private  Quantity currentQuantity;
-
-    private Batch(UUID id, Product product, String sku, LocalDate entryDate, LocalDate expirationDate, Money purchasePrice, Quantity initialQuantity) {
+    //Cantidad restante en micro-unidades: se consume con CAS, sin necesidad de locks externos
+    private final AtomicLong currentMicros;
+    //Precio y cantidad inicial no cambian: el coste unitario se calcula una vez y se reutiliza
+    private Money unitCost;
+    private volatile long unitCostMicroMinor = -1;
+
+    private Batch(UUID id, Product product, String sku, LocalDate entryDate, LocalDate expirationDate, Money purchasePrice,
+                  Quantity initialQuantity, Long currentMicros) {
         validateInvariants(id, product, sku, expirationDate, purchasePrice, initialQuantity);
         this.id = id;
         this.product = product;
@@ -28,31 +35,110 @@ public class Batch {
         this.expirationDate = expirationDate;
         this.purchasePrice = purchasePrice;
         this.initialQuantity = initialQuantity;
-        this.currentQuantity = initialQuantity;
+        this.currentMicros = new AtomicLong(currentMicros != null ? currentMicros : initialQuantity.toMicros());
     }
 
     public static Batch create(Product product, String sku, LocalDate expirationDate, Money purchasePrice, Quantity initialQuantity) {
+        LocalDate today = LocalDate.now();
+        return create(UUID.randomUUID(), today, today, product, sku, expirationDate, purchasePrice, initialQuantity);
+    }
+
+    /*
+    Para altas en bloque: el id, la fecha de entrada y el día de hoy los pone quien llama (una sola lectura del reloj por albarán).
+    La caducidad se comprueba también contra hoy: una fecha de entrada atrasada no cuela producto caducado.
+     */
+    public static Batch create(UUID id, LocalDate entryDate, LocalDate today, Product product, String sku, LocalDate expirationDate,
+                               Money purchasePrice, Quantity initialQuantity) {
+        if (entryDate == null) throw new IllegalArgumentException("Entry date cannot be null");
+        if (today == null) throw new IllegalArgumentException("Date cannot be null");
+        if (expirationDate != null && (expirationDate.isBefore(entryDate) || expirationDate.isBefore(today))) {
+            throw new IllegalArgumentException("Cannot accept expired products");
+        }
         return new Batch(
-                UUID.randomUUID(),
+                id,
                 product,
                 sku,
-                LocalDate.now(),
+                entryDate,
                 expirationDate,
                 purchasePrice,
-                initialQuantity
+                initialQuantity,
+                null
         );
     }
 
+    //Reconstruye un lote ya existente (p.ej. al reproducir el registro de eventos): puede estar caducado o consumido en parte
+    public static Batch restore(UUID id, Product product, String sku, LocalDate entryDate, LocalDate expirationDate,
+                                Money purchasePrice, Quantity initialQuantity, long currentMicros) {
+        if (entryDate == null) throw new IllegalArgumentException("Entry date cannot be null");
+        if (initialQuantity != null && (currentMicros < 0 || currentMicros > initialQuantity.toMicros())) {
+            throw new IllegalArgumentException("Current quantity must be between zero and the initial quantity");
+        }
+        return new Batch(id, product, sku, entryDate, expirationDate, purchasePrice, initialQuantity, currentMicros);
+    }
+
+    //Sin sincronizar a propósito: si dos hilos lo calculan a la vez obtienen el mismo valor inmutable
     public Money getUnitCost() {
-        BigDecimal totalCost = purchasePrice.amount();
-        BigDecimal originalQuantity = BigDecimal.valueOf(initialQuantity.value());
-        BigDecimal unitCost = totalCost.divide(originalQuantity, 2, RoundingMode.HALF_EVEN);
-        return new Money(unitCost, purchasePrice.currency());
+        Money cached = unitCost;
+        if (cached == null) {
+            BigDecimal totalCost = purchasePrice.amount();
+            BigDecimal originalQuantity = BigDecimal.valueOf(initialQuantity.value());
+            cached = new Money(totalCost.divide(originalQuantity, 2, RoundingMode.HALF_EVEN), purchasePrice.currency());
+            unitCost = cached;
+        }
+        return cached;
+    }
+
+    /*
+    Coste de una unidad en millonésimas de céntimo. Redondeado al céntimo, un lote de 1000 g a 5€ costaría 0€ el gramo;
+    así se guarda 0,5 céntimos y los importes se redondean una sola vez, al total.
+     */
+    public long getUnitCostMicroMinor() {
+        long cached = unitCostMicroMinor;
+        if (cached < 0) {
+            cached = BigDecimal.valueOf(purchasePrice.toMinor())
+                    .multiply(BigDecimal.valueOf(MinorMoney.MICRO_MINOR_PER_MINOR * Quantity.MICROS_PER_UNIT))
+                    .divide(BigDecimal.valueOf(initialQuantity.toMicros()), 0, RoundingMode.HALF_EVEN)
+                    .longValueExact();
+            unitCostMicroMinor = cached;
+        }
+        return cached;
+    }
+
+    //Coste en céntimos de una cantidad del lote (en micro-unidades)
+    public long costMinorOf(long micros) {
+        return MinorMoney.roundMicroMinor(MinorMoney.multiplyMicros(getUnitCostMicroMinor(), micros));
     }
 
     public void consume(Quantity amountToConsume) {
+        if (!tryConsume(amountToConsume)) {
+            throw new IllegalArgumentException("Not enough quantity available");
+        }
+    }
+
+    public boolean tryConsume(Quantity amountToConsume) {
         if (amountToConsume.value() <= 0) throw new IllegalArgumentException("Quantity cannot be zero or less");
-        this.currentQuantity = this.currentQuantity.subtract(amountToConsume);
+        return tryConsumeMicros(amountToConsume.toMicros());
+    }
+
+    public void consumeMicros(long microsToConsume) {
+        if (!tryConsumeMicros(microsToConsume)) {
+            throw new IllegalArgumentException("Not enough quantity available");
+        }
+    }
+
+    //Si otro hilo ha cambiado la cantidad entre la lectura y la escritura, el CAS falla y reintentamos
+    public boolean tryConsumeMicros(long toConsume) {
+        if (toConsume <= 0) throw new IllegalArgumentException("Quantity cannot be zero or less");
+        while (true) {
+            long current = currentMicros.get();
+            long remaining = current - toConsume;
+            if (remaining < 0) {
+                return false;
+            }
+            if (currentMicros.compareAndSet(current, remaining)) {
+                return true;
+            }
+        }
     }
 
     private static void validateInvariants(UUID id, Product product, String sku, LocalDate expirationDate, Money purchasePrice, Quantity initialQuantity) {
@@ -62,9 +148,6 @@ public class Batch {
         if (purchasePrice == null) throw new IllegalArgumentException("Price cannot be null");
         if (initialQuantity == null) throw new IllegalArgumentException("Initial quantity cannot be null");
         if (expirationDate == null) throw new IllegalArgumentException("Expiration date cannot be null");
-        if (expirationDate.isBefore(LocalDate.now())) {
-            throw new IllegalArgumentException("Cannot accept expired products");
-        }
     }
 
     public UUID getId() {
@@ -96,6 +179,10 @@ public class Batch {
     }
 
     public Quantity getCurrentQuantity() {
-        return currentQuantity;
+        return Quantity.ofMicros(currentMicros.get());
+    }
+
+    public long getCurrentMicros() {
+        return currentMicros.get();
     }
 }
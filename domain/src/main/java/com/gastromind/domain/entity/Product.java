@@ -1,6 +1,7 @@
 package com.gastromind.domain.entity;
 
 import com.gastromind.domain.valueobject.Allergen;
+import com.gastromind.domain.valueobject.AllergenSet;
 import com.gastromind.domain.valueobject.Category;
 import com.gastromind.domain.valueobject.UnitOfMeasure;
 
@@ -16,6 +17,7 @@ public class Product {
     private final UnitOfMeasure unit;
     //Set no tiene duplicidades, mejor que List para manejar la unicidad
     private final Set<Allergen> allergens;
+    private final AllergenSet allergenSet;
 
     public Product(UUID id, String name, String description, Category category,
                    UnitOfMeasure unit, Set<Allergen> allergens) {
@@ -31,6 +33,7 @@ public class Product {
         this.unit = unit;
         //Hago una copia y aseguro la inmutabilidad al crearse
         this.allergens = allergens != null ? Set.copyOf(allergens) : Collections.emptySet();
+        this.allergenSet = AllergenSet.of(this.allergens);
     }
 
     public static Product create(String name, String description, Category category,
@@ -63,4 +66,7 @@ public class Product {
     public Set<Allergen> getAllergens() {
         return allergens;
     }
+    public AllergenSet getAllergenSet() {
+        return allergenSet;
+    }
 }
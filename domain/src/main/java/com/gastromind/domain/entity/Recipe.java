@@ -1,13 +1,26 @@
 package com.gastromind.domain.entity;
 
+import com.gastromind.domain.valueobject.AllergenSet;
 import com.gastromind.domain.valueobject.Difficulty;
 import com.gastromind.domain.valueobject.RecipeIngredient;
 import com.gastromind.domain.valueobject.RecipeStep;
+import com.gastromind.domain.valueobject.SubRecipeIngredient;
 
 import java.time.Duration;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 public class Recipe {
 
@@ -18,6 +31,14 @@ public class Recipe {
     private final Difficulty difficult;
     private final int portions;
     private final List<RecipeIngredient> ingredients;
+    //Índice por id de producto: detectar duplicados y buscar un ingrediente es O(1)
+    private final Map<UUID, RecipeIngredient> ingredientsByProduct;
+    //Alérgenos de los productos y de las sub-recetas, mantenidos al añadir ingredientes o sub-recetas
+    private AllergenSet allergens;
+    private final List<SubRecipeIngredient> subRecipes;
+    //Recetas que usan esta como sub-receta: a ellas se propagan sus alérgenos nuevos
+    private final List<Recipe> parents;
+    private final List<Consumer<Recipe>> allergenListeners;
     private final List<RecipeStep> steps;
 
     private Recipe(UUID id, String name, String description, Duration cookingTime, Difficulty difficult, int portions) {
@@ -29,6 +50,11 @@ public class Recipe {
         this.difficult = difficult;
         this.portions = portions;
         this.ingredients = new ArrayList<>();
+        this.ingredientsByProduct = new HashMap<>();
+        this.allergens = AllergenSet.none();
+        this.subRecipes = new ArrayList<>();
+        this.parents = new ArrayList<>();
+        this.allergenListeners = new CopyOnWriteArrayList<>();
         this.steps = new ArrayList<>();
     }
 
@@ -47,10 +73,109 @@ public class Recipe {
         if (ingredient == null) {
             throw new IllegalArgumentException("Ingredient cannot be null");
         }
-        if (isAnyMatch(ingredient)) {
+        if (containsProduct(ingredient.product().getId())) {
             throw new IllegalArgumentException("Product already exists in recipe");
         }
         ingredients.add(ingredient);
+        ingredientsByProduct.put(ingredient.product().getId(), ingredient);
+        addAllergens(ingredient.product().getAllergenSet());
+    }
+
+    //Validamos todo el lote en una pasada antes de añadir nada: o entran todos o ninguno
+    public void addIngredients(Collection<RecipeIngredient> newIngredients) {
+        if (newIngredients == null) {
+            throw new IllegalArgumentException("Ingredients cannot be null");
+        }
+        Set<UUID> incoming = new HashSet<>(newIngredients.size() * 2);
+        for (RecipeIngredient ingredient : newIngredients) {
+            if (ingredient == null) {
+                throw new IllegalArgumentException("Ingredient cannot be null");
+            }
+            UUID productId = ingredient.product().getId();
+            if (containsProduct(productId) || !incoming.add(productId)) {
+                throw new IllegalArgumentException("Product already exists in recipe");
+            }
+        }
+        AllergenSet added = AllergenSet.none();
+        for (RecipeIngredient ingredient : newIngredients) {
+            ingredients.add(ingredient);
+            ingredientsByProduct.put(ingredient.product().getId(), ingredient);
+            added = added.union(ingredient.product().getAllergenSet());
+        }
+        addAllergens(added);
+    }
+
+    //Las sub-recetas forman un grafo dirigido sin ciclos: una receta no puede contenerse a sí misma
+    public void addSubRecipe(SubRecipeIngredient subRecipe) {
+        if (subRecipe == null) {
+            throw new IllegalArgumentException("Sub-recipe cannot be null");
+        }
+        Recipe child = subRecipe.recipe();
+        if (child.getId().equals(id) || child.dependsOn(id)) {
+            throw new IllegalArgumentException("Sub-recipe would create a cycle");
+        }
+        if (containsSubRecipe(child.getId())) {
+            throw new IllegalArgumentException("Sub-recipe already exists in recipe");
+        }
+        subRecipes.add(subRecipe);
+        child.parents.add(this);
+        addAllergens(child.allergens);
+    }
+
+    //Se avisa cada vez que cambian los alérgenos de la receta, también si el cambio viene de una sub-receta
+    public void addAllergenListener(Consumer<Recipe> listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null");
+        }
+        allergenListeners.add(listener);
+    }
+
+    /*
+    Los ingredientes y sub-recetas solo se añaden, así que los alérgenos solo crecen: basta con subir la unión
+    por las recetas que nos usan y parar en las que ya los tenían (una sub-receta compartida se recorre una vez).
+     */
+    private void addAllergens(AllergenSet added) {
+        Deque<Recipe> pending = new ArrayDeque<>();
+        pending.push(this);
+        while (!pending.isEmpty()) {
+            Recipe recipe = pending.pop();
+            AllergenSet updated = recipe.allergens.union(added);
+            if (updated.equals(recipe.allergens)) {
+                continue;
+            }
+            recipe.allergens = updated;
+            recipe.allergenListeners.forEach(listener -> listener.accept(recipe));
+            recipe.parents.forEach(pending::push);
+        }
+    }
+
+    public boolean containsSubRecipe(UUID recipeId) {
+        for (SubRecipeIngredient subRecipe : subRecipes) {
+            if (subRecipe.recipe().getId().equals(recipeId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //¿Usa esta receta, directa o indirectamente, la receta indicada?
+    public boolean dependsOn(UUID recipeId) {
+        Set<UUID> visited = new HashSet<>();
+        Deque<Recipe> pending = new ArrayDeque<>();
+        pending.push(this);
+        while (!pending.isEmpty()) {
+            for (SubRecipeIngredient subRecipe : pending.pop().subRecipes) {
+                Recipe child = subRecipe.recipe();
+                if (child.getId().equals(recipeId)) {
+                    return true;
+                }
+                //Visitamos cada sub-receta compartida una sola vez
+                if (visited.add(child.getId())) {
+                    pending.push(child);
+                }
+            }
+        }
+        return false;
     }
 
     public void addStep(RecipeStep step) {
@@ -60,8 +185,24 @@ public class Recipe {
         steps.add(step);
     }
 
-    private boolean isAnyMatch(RecipeIngredient ingredient) {
-        return ingredients.stream().anyMatch(i -> i.product().equals(ingredient.product()));
+    public void addSteps(Collection<RecipeStep> newSteps) {
+        if (newSteps == null) {
+            throw new IllegalArgumentException("Steps cannot be null");
+        }
+        for (RecipeStep step : newSteps) {
+            if (step == null) {
+                throw new IllegalArgumentException("Step cannot be null");
+            }
+        }
+        steps.addAll(newSteps);
+    }
+
+    public boolean containsProduct(UUID productId) {
+        return ingredientsByProduct.containsKey(productId);
+    }
+
+    public Optional<RecipeIngredient> findIngredient(UUID productId) {
+        return Optional.ofNullable(ingredientsByProduct.get(productId));
     }
 
     private static void validateInvariants(String name, Duration cookingTime, Difficulty difficult, int portions) {
@@ -103,11 +244,21 @@ public class Recipe {
         return portions;
     }
 
+    //Solo lectura: cualquier cambio tiene que pasar por addIngredient para mantener el índice
     public List<RecipeIngredient> getIngredients() {
-        return ingredients;
+        return Collections.unmodifiableList(ingredients);
+    }
+
+    //Alérgenos de los productos más los de las sub-recetas
+    public AllergenSet getAllergens() {
+        return allergens;
+    }
+
+    public List<SubRecipeIngredient> getSubRecipes() {
+        return Collections.unmodifiableList(subRecipes);
     }
 
     public List<RecipeStep> getSteps() {
-        return steps;
+        return Collections.unmodifiableList(steps);
     }
 }
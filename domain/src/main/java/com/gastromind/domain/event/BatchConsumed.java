@@ -0,0 +1,15 @@
+package com.gastromind.domain.event;
+
+import java.util.UUID;
+
+public record BatchConsumed(UUID batchId, UUID productId, long micros) implements InventoryEvent {
+
+    public BatchConsumed {
+        if (batchId == null || productId == null) {
+            throw new IllegalArgumentException("Ids cannot be null");
+        }
+        if (micros <= 0) {
+            throw new IllegalArgumentException("Quantity cannot be zero or less");
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.gastromind.domain.event;
+
+import com.gastromind.domain.entity.Batch;
+import com.gastromind.domain.entity.Product;
+import com.gastromind.domain.valueobject.Money;
+import com.gastromind.domain.valueobject.Quantity;
+
+import java.time.LocalDate;
+import java.util.Currency;
+import java.util.UUID;
+
+//Precio en céntimos y cantidad en micro-unidades: se reproducen sin pérdidas
+public record BatchReceived(UUID batchId, UUID productId, String sku, LocalDate entryDate, LocalDate expirationDate,
+                            long priceMinor, Currency currency, long initialMicros) implements InventoryEvent {
+
+    public BatchReceived {
+        if (batchId == null || productId == null) {
+            throw new IllegalArgumentException("Ids cannot be null");
+        }
+        if (sku == null || entryDate == null || expirationDate == null || currency == null) {
+            throw new IllegalArgumentException("Batch data cannot be null");
+        }
+        if (priceMinor < 0 || initialMicros <= 0) {
+            throw new IllegalArgumentException("Price and quantity must be positive");
+        }
+    }
+
+    public static BatchReceived of(Batch batch) {
+        return new BatchReceived(batch.getId(), batch.getProduct().getId(), batch.getSku(), batch.getEntryDate(),
+                batch.getExpirationDate(), batch.getPurchasePrice().toMinor(), batch.getPurchasePrice().currency(),
+                batch.getInitialQuantity().toMicros());
+    }
+
+    public Batch toBatch(Product product, long currentMicros) {
+        if (!product.getId().equals(productId)) {
+            throw new IllegalArgumentException("Batch belongs to another product");
+        }
+        return Batch.restore(batchId, product, sku, entryDate, expirationDate, Money.ofMinor(priceMinor, currency),
+                Quantity.ofMicros(initialMicros), currentMicros);
+    }
+}
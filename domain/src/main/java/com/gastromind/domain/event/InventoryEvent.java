@@ -0,0 +1,11 @@
+package com.gastromind.domain.event;
+
+import java.util.UUID;
+
+//Movimientos de inventario tal y como se guardan en el registro: solo se añaden, nunca se modifican
+public sealed interface InventoryEvent permits BatchReceived, BatchConsumed {
+
+    UUID batchId();
+
+    UUID productId();
+}
@@ -0,0 +1,125 @@
+package com.gastromind.domain.event;
+
+import com.gastromind.domain.entity.Batch;
+import com.gastromind.domain.entity.Product;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/*
+Estado del inventario obtenido al aplicar los eventos en orden: los lotes vivos y lo que queda de cada uno.
+Es lo que se guarda en las instantáneas, para que al arrancar solo haya que reproducir los eventos posteriores.
+Los lotes agotados se descartan: ningún evento posterior puede volver a tocarlos.
+No es thread-safe: lo protege quien lo usa.
+ */
+public class InventoryState {
+
+    private final Map<UUID, BatchReceived> batches = new LinkedHashMap<>();
+    private final Map<UUID, long[]> remaining = new LinkedHashMap<>();
+    private long lastSequence;
+
+    public void apply(long sequence, InventoryEvent event) {
+        check(sequence, event);
+        switch (event) {
+            case BatchReceived received -> restore(received, received.initialMicros());
+            case BatchConsumed consumed -> consume(consumed);
+        }
+        lastSequence = sequence;
+    }
+
+    //Comprueba que el evento se puede aplicar, sin cambiar nada (para validarlo antes de escribirlo)
+    public void check(long sequence, InventoryEvent event) {
+        if (event == null) {
+            throw new IllegalArgumentException("Event cannot be null");
+        }
+        if (sequence <= lastSequence) {
+            throw new IllegalArgumentException("Events must be applied in sequence order");
+        }
+        switch (event) {
+            case BatchReceived received -> {
+                if (received.initialMicros() < 0) {
+                    throw new IllegalArgumentException("Current quantity must be between zero and the initial quantity");
+                }
+            }
+            case BatchConsumed consumed -> {
+                if (remainingMicros(consumed.batchId()) < consumed.micros()) {
+                    throw new IllegalStateException("Consumed more than the batch had");
+                }
+            }
+        }
+    }
+
+    //Para cargar una instantánea
+    public void restore(BatchReceived batch, long currentMicros) {
+        if (currentMicros < 0 || currentMicros > batch.initialMicros()) {
+            throw new IllegalArgumentException("Current quantity must be between zero and the initial quantity");
+        }
+        if (currentMicros == 0) {
+            return;
+        }
+        batches.put(batch.batchId(), batch);
+        remaining.put(batch.batchId(), new long[]{currentMicros});
+    }
+
+    public void restoreSequence(long sequence) {
+        if (sequence < lastSequence) {
+            throw new IllegalArgumentException("Sequence cannot go backwards");
+        }
+        lastSequence = sequence;
+    }
+
+    public long remainingMicros(UUID batchId) {
+        long[] current = remaining.get(batchId);
+        return current == null ? 0 : current[0];
+    }
+
+    public Collection<BatchReceived> batches() {
+        return List.copyOf(batches.values());
+    }
+
+    public int size() {
+        return batches.size();
+    }
+
+    public long lastSequence() {
+        return lastSequence;
+    }
+
+    public InventoryState copy() {
+        InventoryState copy = new InventoryState();
+        for (BatchReceived batch : batches.values()) {
+            copy.restore(batch, remainingMicros(batch.batchId()));
+        }
+        copy.lastSequence = lastSequence;
+        return copy;
+    }
+
+    //Vuelve a crear los lotes del dominio. Los de productos que ya no existen se ignoran
+    public List<Batch> toBatches(Function<UUID, Product> products) {
+        List<Batch> result = new ArrayList<>(batches.size());
+        for (BatchReceived batch : batches.values()) {
+            Product product = products.apply(batch.productId());
+            if (product != null) {
+                result.add(batch.toBatch(product, remainingMicros(batch.batchId())));
+            }
+        }
+        return result;
+    }
+
+    private void consume(BatchConsumed consumed) {
+        long[] current = remaining.get(consumed.batchId());
+        if (current == null || current[0] < consumed.micros()) {
+            throw new IllegalStateException("Consumed more than the batch had");
+        }
+        current[0] -= consumed.micros();
+        if (current[0] == 0) {
+            remaining.remove(consumed.batchId());
+            batches.remove(consumed.batchId());
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.gastromind.domain.service;
+
+import com.gastromind.domain.entity.Recipe;
+import com.gastromind.domain.valueobject.Allergen;
+import com.gastromind.domain.valueobject.AllergenSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+Máscaras de alérgenos precalculadas de todas las recetas de la carta, en arrays paralelos.
+Filtrar "sin GLUTEN y sin NUTS" es un AND por receta, sin tocar ingredientes ni conjuntos.
+Las lecturas no bloquean: trabajan sobre una instantánea inmutable que se sustituye al registrar.
+Cada receta registrada avisa al índice cuando cambian sus alérgenos (también por una sub-receta) y se actualiza su máscara.
+ */
+public class AllergenMenuIndex {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<UUID, Integer> positions = new HashMap<>();
+    private volatile Snapshot snapshot = new Snapshot(new Recipe[0], new int[0]);
+
+    public void register(Recipe recipe) {
+        if (recipe == null) {
+            throw new IllegalArgumentException("Recipe cannot be null");
+        }
+        register(recipe, recipe.getAllergens());
+    }
+
+    //Para usar los alérgenos ya propagados por RecipeDependencyGraph; los cambios posteriores de la receta se recogen igual
+    public void register(Recipe recipe, AllergenSet allergens) {
+        if (recipe == null) {
+            throw new IllegalArgumentException("Recipe cannot be null");
+        }
+        if (allergens == null) {
+            throw new IllegalArgumentException("Allergens cannot be null");
+        }
+        lock.lock();
+        try {
+            Snapshot current = snapshot;
+            Integer position = positions.get(recipe.getId());
+            Recipe[] recipes;
+            int[] masks;
+            if (position == null) {
+                position = current.recipes.length;
+                positions.put(recipe.getId(), position);
+                recipe.addAllergenListener(changed -> register(changed, changed.getAllergens()));
+                recipes = Arrays.copyOf(current.recipes, position + 1);
+                masks = Arrays.copyOf(current.masks, position + 1);
+            } else {
+                recipes = current.recipes.clone();
+                masks = current.masks.clone();
+            }
+            recipes[position] = recipe;
+            masks[position] = allergens.mask();
+            snapshot = new Snapshot(recipes, masks);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<Recipe> freeOf(Allergen... excluded) {
+        return freeOf(AllergenSet.of(excluded));
+    }
+
+    public List<Recipe> freeOf(AllergenSet excluded) {
+        if (excluded == null) {
+            throw new IllegalArgumentException("Allergens cannot be null");
+        }
+        Snapshot current = snapshot;
+        int excludedMask = excluded.mask();
+        List<Recipe> result = new ArrayList<>();
+        int[] masks = current.masks;
+        for (int i = 0; i < masks.length; i++) {
+            if ((masks[i] & excludedMask) == 0) {
+                result.add(current.recipes[i]);
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return snapshot.recipes.length;
+    }
+
+    private record Snapshot(Recipe[] recipes, int[] masks) {
+    }
+}
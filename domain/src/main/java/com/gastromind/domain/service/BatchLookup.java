@@ -0,0 +1,13 @@
+package com.gastromind.domain.service;
+
+import com.gastromind.domain.entity.Batch;
+
+import java.util.List;
+import java.util.UUID;
+
+//Lotes actuales de un producto, ordenados FEFO (p.ej. FefoBatchIndex::batches)
+@FunctionalInterface
+public interface BatchLookup {
+
+    List<Batch> batchesOf(UUID productId);
+}
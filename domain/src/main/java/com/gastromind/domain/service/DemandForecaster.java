@@ -0,0 +1,191 @@
+package com.gastromind.domain.service;
+
+import com.gastromind.domain.entity.Batch;
+import com.gastromind.domain.entity.Product;
+import com.gastromind.domain.valueobject.DemandForecast;
+import com.gastromind.domain.valueobject.Quantity;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+Previsión de demanda por producto a partir de los consumos, sin guardar histórico.
+Los consumos se suman por día; al cerrar cada día su total actualiza una media y una varianza
+con suavizado exponencial (los días sin consumo cuentan como cero). Por producto son unos pocos campos.
+Con eso:
+  punto de pedido = demanda diaria x plazo de entrega + factor de servicio x desviación x raíz(plazo)
+  nivel objetivo  = punto de pedido + demanda diaria x días entre pedidos,
+                    recortado a demanda diaria x vida útil de los lotes que entran (lo demás acabaría caducando)
+La vida útil se aprende de los lotes recibidos (caducidad - entrada), también con suavizado.
+ */
+public class DemandForecaster implements InventoryListener {
+
+    public static final double DEFAULT_SMOOTHING = 0.2;
+    public static final int DEFAULT_LEAD_TIME_DAYS = 2;
+    public static final int DEFAULT_REVIEW_DAYS = 7;
+    //~95% de nivel de servicio con demanda normal
+    public static final double DEFAULT_SERVICE_FACTOR = 1.65;
+    //Pasado un año sin consumos la media ya es cero a efectos prácticos: no seguimos decayendo día a día
+    private static final int MAX_IDLE_DAYS = 366;
+
+    private final Clock clock;
+    private final double smoothing;
+    private final int leadTimeDays;
+    private final int reviewDays;
+    private final double serviceFactor;
+    private final ConcurrentHashMap<UUID, DemandStats> stats = new ConcurrentHashMap<>();
+
+    public DemandForecaster() {
+        this(Clock.systemDefaultZone());
+    }
+
+    public DemandForecaster(Clock clock) {
+        this(clock, DEFAULT_SMOOTHING, DEFAULT_LEAD_TIME_DAYS, DEFAULT_REVIEW_DAYS, DEFAULT_SERVICE_FACTOR);
+    }
+
+    public DemandForecaster(Clock clock, double smoothing, int leadTimeDays, int reviewDays, double serviceFactor) {
+        if (clock == null) {
+            throw new IllegalArgumentException("Clock cannot be null");
+        }
+        if (!(smoothing > 0 && smoothing <= 1)) {
+            throw new IllegalArgumentException("Smoothing must be between zero and one");
+        }
+        if (leadTimeDays < 0 || reviewDays < 0) {
+            throw new IllegalArgumentException("Days cannot be negative");
+        }
+        if (serviceFactor < 0) {
+            throw new IllegalArgumentException("Service factor cannot be negative");
+        }
+        this.clock = clock;
+        this.smoothing = smoothing;
+        this.leadTimeDays = leadTimeDays;
+        this.reviewDays = reviewDays;
+        this.serviceFactor = serviceFactor;
+    }
+
+    @Override
+    public void onBatchReceived(Batch batch) {
+        if (batch.getExpirationDate() != null) {
+            long shelfLife = batch.getExpirationDate().toEpochDay() - batch.getEntryDate().toEpochDay();
+            statsOf(batch.getProduct().getId()).recordShelfLife(shelfLife);
+        }
+    }
+
+    @Override
+    public void onBatchConsumed(Batch batch, Quantity consumed) {
+        statsOf(batch.getProduct().getId()).recordConsumption(today(), consumed.toMicros());
+    }
+
+    //Solo cuentan los días cerrados: lo consumido hoy entra en la previsión mañana
+    public DemandForecast forecast(Product product) {
+        if (product == null) {
+            throw new IllegalArgumentException("Product cannot be null");
+        }
+        DemandStats productStats = stats.get(product.getId());
+        double mean = 0;
+        double variance = 0;
+        double shelfLife = -1;
+        if (productStats != null) {
+            productStats.lock.lock();
+            try {
+                productStats.roll(today());
+                mean = productStats.mean;
+                variance = productStats.variance;
+                shelfLife = productStats.shelfLife;
+            } finally {
+                productStats.lock.unlock();
+            }
+        }
+        double deviation = Math.sqrt(variance);
+        double reorderPoint = mean * leadTimeDays + serviceFactor * deviation * Math.sqrt(leadTimeDays);
+        double orderUpTo = reorderPoint + mean * reviewDays;
+        boolean limited = shelfLife >= 0 && mean * shelfLife < orderUpTo;
+        if (limited) {
+            orderUpTo = mean * shelfLife;
+        }
+        return new DemandForecast(product.getId(), units(mean), units(deviation), units(reorderPoint),
+                units(orderUpTo), limited);
+    }
+
+    public int trackedProducts() {
+        return stats.size();
+    }
+
+    private DemandStats statsOf(UUID productId) {
+        return stats.computeIfAbsent(productId, id -> new DemandStats());
+    }
+
+    private long today() {
+        return LocalDate.now(clock).toEpochDay();
+    }
+
+    private static Quantity units(double value) {
+        return Quantity.ofMicros(Math.round(value * Quantity.MICROS_PER_UNIT));
+    }
+
+    //Estado de un producto. Los avisos llegan bajo el lock del producto, las previsiones desde cualquier hilo
+    private final class DemandStats {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        //Día abierto (epoch day) y lo consumido en él
+        private long day = Long.MIN_VALUE;
+        private long dayMicros;
+        private boolean seeded;
+        private double mean;
+        private double variance;
+        private double shelfLife = -1;
+
+        void recordConsumption(long today, long micros) {
+            lock.lock();
+            try {
+                roll(today);
+                dayMicros += micros;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void recordShelfLife(long days) {
+            lock.lock();
+            try {
+                shelfLife = shelfLife < 0 ? days : shelfLife + smoothing * (days - shelfLife);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        //Cierra el día abierto y los días sin consumo que haya hasta hoy. Si el reloj va hacia atrás, no cierra nada
+        void roll(long today) {
+            if (day == Long.MIN_VALUE) {
+                day = today;
+                return;
+            }
+            if (today <= day) {
+                return;
+            }
+            observe((double) dayMicros / Quantity.MICROS_PER_UNIT);
+            long idleDays = Math.min(today - day - 1, MAX_IDLE_DAYS);
+            for (long i = 0; i < idleDays; i++) {
+                observe(0);
+            }
+            day = today;
+            dayMicros = 0;
+        }
+
+        //Media y varianza con suavizado exponencial, actualizadas con cada día
+        private void observe(double demand) {
+            if (!seeded) {
+                mean = demand;
+                seeded = true;
+                return;
+            }
+            double difference = demand - mean;
+            double increment = smoothing * difference;
+            mean += increment;
+            variance = (1 - smoothing) * (variance + difference * increment);
+        }
+    }
+}
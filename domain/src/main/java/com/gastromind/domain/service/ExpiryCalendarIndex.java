@@ -0,0 +1,241 @@
+package com.gastromind.domain.service;
+
+import com.gastromind.domain.entity.Batch;
+import com.gastromind.domain.valueobject.ExpiryAlert;
+import com.gastromind.domain.valueobject.MinorMoney;
+import com.gastromind.domain.valueobject.Quantity;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+Lotes agrupados por día de caducidad en una rueda de calendario: una casilla por día desde hoy hasta el horizonte.
+Lo que caduca más tarde espera en un mapa ordenado y entra en la rueda al avanzar los días;
+lo que ya ha caducado pasa a otro mapa hasta que se retira o se agota.
+"Qué caduca en los próximos N días" recorre N casillas y devuelve sus lotes, sin mirar el resto del inventario.
+Se mantiene al día como InventoryListener: los lotes que entran se añaden y los agotados se quitan.
+ */
+public class ExpiryCalendarIndex implements InventoryListener {
+
+    public static final int DEFAULT_HORIZON_DAYS = 32;
+
+    private final Clock clock;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final List<Map<UUID, Batch>> wheel;
+    private final NavigableMap<Long, Map<UUID, Batch>> later = new TreeMap<>();
+    private final NavigableMap<Long, Map<UUID, Batch>> expired = new TreeMap<>();
+    private final Map<UUID, Long> dayByBatch = new HashMap<>();
+    //Día (epoch day) de la primera casilla de la rueda
+    private long today;
+
+    public ExpiryCalendarIndex() {
+        this(Clock.systemDefaultZone());
+    }
+
+    public ExpiryCalendarIndex(Clock clock) {
+        this(clock, DEFAULT_HORIZON_DAYS);
+    }
+
+    public ExpiryCalendarIndex(Clock clock, int horizonDays) {
+        if (clock == null) {
+            throw new IllegalArgumentException("Clock cannot be null");
+        }
+        if (horizonDays <= 0) {
+            throw new IllegalArgumentException("Horizon must be greater than zero");
+        }
+        this.clock = clock;
+        this.wheel = new ArrayList<>(horizonDays);
+        for (int i = 0; i < horizonDays; i++) {
+            wheel.add(new LinkedHashMap<>());
+        }
+        this.today = LocalDate.now(clock).toEpochDay();
+    }
+
+    public void add(Batch batch) {
+        if (batch == null) {
+            throw new IllegalArgumentException("Batch cannot be null");
+        }
+        lock.lock();
+        try {
+            advance();
+            if (batch.getCurrentMicros() == 0 || dayByBatch.containsKey(batch.getId())) {
+                return;
+            }
+            long day = batch.getExpirationDate().toEpochDay();
+            dayByBatch.put(batch.getId(), day);
+            bucketFor(day).put(batch.getId(), batch);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void remove(Batch batch) {
+        if (batch == null) {
+            throw new IllegalArgumentException("Batch cannot be null");
+        }
+        lock.lock();
+        try {
+            advance();
+            Long day = dayByBatch.remove(batch.getId());
+            if (day != null) {
+                Map<UUID, Batch> bucket = bucketFor(day);
+                bucket.remove(batch.getId());
+                if (bucket.isEmpty() && (day < today || day >= today + wheel.size())) {
+                    (day < today ? expired : later).remove(day);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void onBatchReceived(Batch batch) {
+        add(batch);
+    }
+
+    @Override
+    public void onBatchConsumed(Batch batch, Quantity consumed) {
+        if (batch.getCurrentMicros() == 0) {
+            remove(batch);
+        }
+    }
+
+    //Lotes con stock que caducan entre hoy y hoy + days (ambos incluidos), por fecha de caducidad
+    public List<Batch> expiringWithin(int days) {
+        if (days < 0) {
+            throw new IllegalArgumentException("Days cannot be negative");
+        }
+        lock.lock();
+        try {
+            advance();
+            List<Batch> result = new ArrayList<>();
+            long last = today + days;
+            long wheelEnd = Math.min(last, today + wheel.size() - 1);
+            for (long day = today; day <= wheelEnd; day++) {
+                collect(slot(day), result);
+            }
+            if (last >= today + wheel.size()) {
+                for (Map<UUID, Batch> bucket : later.headMap(last, true).values()) {
+                    collect(bucket, result);
+                }
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //Lotes ya caducados que todavía tienen stock: merma segura si no se retiran
+    public List<Batch> expired() {
+        lock.lock();
+        try {
+            advance();
+            List<Batch> result = new ArrayList<>();
+            Iterator<Map<UUID, Batch>> buckets = expired.values().iterator();
+            while (buckets.hasNext()) {
+                Map<UUID, Batch> bucket = buckets.next();
+                collect(bucket, result);
+                if (bucket.isEmpty()) {
+                    buckets.remove();
+                }
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //Avisos del día: primero lo caducado y después lo que caduca en los próximos days días
+    public List<ExpiryAlert> wasteRiskAlerts(int days) {
+        List<Batch> atRisk = expired();
+        atRisk.addAll(expiringWithin(days));
+        LocalDate now = LocalDate.now(clock);
+        List<ExpiryAlert> alerts = new ArrayList<>(atRisk.size());
+        for (Batch batch : atRisk) {
+            long remaining = batch.getCurrentMicros();
+            MinorMoney value = new MinorMoney(batch.costMinorOf(remaining), batch.getPurchasePrice().currency());
+            alerts.add(new ExpiryAlert(batch, batch.getExpirationDate().toEpochDay() - now.toEpochDay(),
+                    Quantity.ofMicros(remaining), value.toMoney()));
+        }
+        return alerts;
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return dayByBatch.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Map<UUID, Batch> bucketFor(long day) {
+        if (day < today) {
+            return expired.computeIfAbsent(day, key -> new LinkedHashMap<>());
+        }
+        if (day < today + wheel.size()) {
+            return slot(day);
+        }
+        return later.computeIfAbsent(day, key -> new LinkedHashMap<>());
+    }
+
+    private Map<UUID, Batch> slot(long day) {
+        return wheel.get((int) Math.floorMod(day, (long) wheel.size()));
+    }
+
+    //Al cambiar de día las casillas que quedan atrás pasan a caducados y la rueda recoge lo que entra en el horizonte
+    private void advance() {
+        long now = LocalDate.now(clock).toEpochDay();
+        if (now <= today) {
+            return;
+        }
+        long wheelEnd = today + wheel.size();
+        for (long day = today; day < Math.min(now, wheelEnd); day++) {
+            Map<UUID, Batch> slot = slot(day);
+            if (!slot.isEmpty()) {
+                expired.computeIfAbsent(day, key -> new LinkedHashMap<>()).putAll(slot);
+                slot.clear();
+            }
+        }
+        if (now >= wheelEnd) {
+            for (Map<UUID, Batch> slot : wheel) {
+                for (Batch batch : slot.values()) {
+                    expired.computeIfAbsent(dayByBatch.get(batch.getId()), key -> new LinkedHashMap<>())
+                            .put(batch.getId(), batch);
+                }
+                slot.clear();
+            }
+        }
+        today = now;
+        NavigableMap<Long, Map<UUID, Batch>> arriving = later.headMap(today + wheel.size(), false);
+        for (Map.Entry<Long, Map<UUID, Batch>> entry : arriving.entrySet()) {
+            bucketFor(entry.getKey()).putAll(entry.getValue());
+        }
+        arriving.clear();
+    }
+
+    //Los lotes agotados por fuera del inventario se descartan al pasar por ellos
+    private void collect(Map<UUID, Batch> bucket, List<Batch> result) {
+        Iterator<Batch> iterator = bucket.values().iterator();
+        while (iterator.hasNext()) {
+            Batch batch = iterator.next();
+            if (batch.getCurrentMicros() == 0) {
+                iterator.remove();
+                dayByBatch.remove(batch.getId());
+            } else {
+                result.add(batch);
+            }
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.gastromind.domain.service;
+
+import com.gastromind.domain.entity.Batch;
+import com.gastromind.domain.entity.Product;
+import com.gastromind.domain.valueobject.Quantity;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/*
+Lotes de un producto ordenados por caducidad (FEFO) en un montículo.
+Insertar un lote nuevo es O(log n) y consumir recorre la cabeza, sin filtrar ni ordenar la lista en cada consumo.
+Los lotes agotados se sacan del índice automáticamente.
+El stock disponible se lleva como total acumulado, así que consultarlo es O(1). Para que cuadre, todo consumo de un lote
+indexado tiene que pasar por el índice: consume(cantidad) por FEFO o consume(lote, micros) para un lote concreto.
+No es thread-safe: se usa siempre bajo el lock del producto (ver InventoryService).
+ */
+public class FefoBatchIndex {
+
+    private static final Comparator<Batch> FEFO = Comparator.comparing(Batch::getExpirationDate)
+            .thenComparing(Batch::getEntryDate);
+
+    private final Product product;
+    private final PriorityQueue<Batch> batches = new PriorityQueue<>(FEFO);
+    private long availableMicros;
+
+    public FefoBatchIndex(Product product) {
+        if (product == null) {
+            throw new IllegalArgumentException("Product cannot be null");
+        }
+        this.product = product;
+    }
+
+    public static FefoBatchIndex of(Product product, List<Batch> batches) {
+        FefoBatchIndex index = new FefoBatchIndex(product);
+        batches.forEach(index::add);
+        return index;
+    }
+
+    public void add(Batch batch) {
+        if (batch == null) {
+            throw new IllegalArgumentException("Batch cannot be null");
+        }
+        if (!batch.getProduct().getId().equals(product.getId())) {
+            throw new IllegalArgumentException("Batch belongs to another product");
+        }
+        if (batch.getCurrentMicros() > 0) {
+            //Primero el total: si desborda, el lote no entra
+            availableMicros = Math.addExact(availableMicros, batch.getCurrentMicros());
+            batches.add(batch);
+        }
+    }
+
+    public Quantity available() {
+        return Quantity.ofMicros(availableMicros);
+    }
+
+    public long availableMicros() {
+        return availableMicros;
+    }
+
+    public void consume(Quantity amountToConsume) {
+        consume(amountToConsume, (batch, micros) -> {
+        });
+    }
+
+    //Consume por la cabeza del montículo. Quien llama ya ha comprobado que hay stock suficiente.
+    //onConsumed recibe cada lote tocado y las micro-unidades descontadas de él
+    public void consume(Quantity amountToConsume, ObjLongConsumer<Batch> onConsumed) {
+        consume(amountToConsume, batch -> 0, onConsumed);
+    }
+
+    /*
+    Igual, pero sin tocar lo que reserved diga que está apartado en cada lote (reservas).
+    Los lotes de cabeza apartados del todo se sacan un momento para llegar a los siguientes y se vuelven a meter al final.
+     */
+    public void consume(Quantity amountToConsume, ToLongFunction<Batch> reserved, ObjLongConsumer<Batch> onConsumed) {
+        long remaining = amountToConsume.toMicros();
+        List<Batch> skipped = null;
+        try {
+            while (remaining > 0) {
+                Batch head = nextAvailable();
+                if (head == null) {
+                    throw new IllegalStateException("Index ran out of batches while consuming");
+                }
+                long free = head.getCurrentMicros() - reserved.applyAsLong(head);
+                if (free <= 0) {
+                    if (skipped == null) {
+                        skipped = new ArrayList<>();
+                    }
+                    skipped.add(batches.poll());
+                    continue;
+                }
+                long toTake = Math.min(free, remaining);
+                head.consumeMicros(toTake);
+                availableMicros -= toTake;
+                onConsumed.accept(head, toTake);
+                remaining -= toTake;
+                if (head.getCurrentMicros() == 0) {
+                    batches.poll();
+                }
+            }
+        } finally {
+            if (skipped != null) {
+                batches.addAll(skipped);
+            }
+        }
+    }
+
+    //Consumo de un lote concreto del índice (confirmar una reserva, traspasos). Si se agota sale al llegar a la cabeza
+    public void consume(Batch batch, long micros) {
+        if (batch == null) {
+            throw new IllegalArgumentException("Batch cannot be null");
+        }
+        if (!batch.getProduct().getId().equals(product.getId())) {
+            throw new IllegalArgumentException("Batch belongs to another product");
+        }
+        batch.consumeMicros(micros);
+        availableMicros -= micros;
+    }
+
+    /*
+    Recorre los lotes en orden FEFO hasta que visitor devuelve false, sacándolos de la cabeza del montículo
+    y volviéndolos a meter al final: cada lote visitado cuesta O(log n), sin copiar ni ordenar todo el índice.
+     */
+    public void visitFefo(Predicate<Batch> visitor) {
+        List<Batch> visited = new ArrayList<>();
+        try {
+            Batch head;
+            while ((head = nextAvailable()) != null) {
+                visited.add(batches.poll());
+                if (!visitor.test(head)) {
+                    break;
+                }
+            }
+        } finally {
+            batches.addAll(visited);
+        }
+    }
+
+    public Batch peek() {
+        return nextAvailable();
+    }
+
+    public int size() {
+        return batches.size();
+    }
+
+    public boolean isEmpty() {
+        return nextAvailable() == null;
+    }
+
+    //Copia ordenada por caducidad, para consultas e informes
+    public List<Batch> batches() {
+        List<Batch> sorted = new ArrayList<>(batches);
+        sorted.sort(FEFO);
+        return sorted;
+    }
+
+    public Product getProduct() {
+        return product;
+    }
+
+    //Los lotes agotados con consume(lote, micros) se descartan al llegar a la cabeza
+    private Batch nextAvailable() {
+        Batch head = batches.peek();
+        while (head != null && head.getCurrentMicros() == 0) {
+            batches.poll();
+            head = batches.peek();
+        }
+        return head;
+    }
+}
@@ -0,0 +1,25 @@
+package com.gastromind.domain.service;
+
+import com.gastromind.domain.entity.Batch;
+
+import java.util.UUID;
+
+//Stock apartado por reservas, que el consumo normal no puede tocar. Se consulta bajo el lock del producto
+interface HeldStock {
+
+    HeldStock NONE = new HeldStock() {
+        @Override
+        public long heldMicros(UUID productId) {
+            return 0;
+        }
+
+        @Override
+        public long heldMicros(Batch batch) {
+            return 0;
+        }
+    };
+
+    long heldMicros(UUID productId);
+
+    long heldMicros(Batch batch);
+}
@@ -0,0 +1,14 @@
+package com.gastromind.domain.service;
+
+import com.gastromind.domain.entity.Batch;
+import com.gastromind.domain.valueobject.Quantity;
+
+//Se notifica desde InventoryService, siempre bajo el lock del producto afectado
+public interface InventoryListener {
+
+    default void onBatchReceived(Batch batch) {
+    }
+
+    default void onBatchConsumed(Batch batch, Quantity consumed) {
+    }
+}
@@ -0,0 +1,38 @@
+package com.gastromind.domain.service;
+
+import com.gastromind.domain.valueobject.Category;
+
+/*
+Puntos de medida del inventario. El dominio no depende de ninguna librería de métricas:
+infrastructure da la implementación (Micrometer) y por defecto se usa NOOP.
+Se llama desde el camino caliente, así que las implementaciones no deben bloquear ni reservar memoria.
+ */
+public interface InventoryMetrics {
+
+    InventoryMetrics NOOP = new InventoryMetrics() {
+    };
+
+    //Tiempo esperando a coger los locks de producto y tiempo con ellos cogidos
+    default void lockWaited(long nanos) {
+    }
+
+    default void lockHeld(long nanos) {
+    }
+
+    //Lotes tocados en un recorrido FEFO
+    default void batchesScanned(int batches) {
+    }
+
+    //Con las dos se obtiene la tasa de roturas de stock por categoría
+    default void consumptionRequested(Category category) {
+    }
+
+    default void stockOut(Category category) {
+    }
+
+    default void costingCacheHit() {
+    }
+
+    default void costingCacheMiss() {
+    }
+}
@@ -2,14 +2,74 @@ package com.gastromind.domain.service;
 
 import com.gastromind.domain.entity.Batch;
 import com.gastromind.domain.entity.Product;
+import com.gastromind.domain.entity.Recipe;
 import com.gastromind.domain.exception.NotEnoughStockException;
 import com.gastromind.domain.valueobject.Quantity;
+import com.gastromind.domain.valueobject.QuantityAccumulator;
+import com.gastromind.domain.valueobject.RecipeIngredient;
+import com.gastromind.domain.valueobject.SubRecipeIngredient;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class InventoryService {
 
+    private final ProductLockRegistry locks;
+    private final InventoryMetrics metrics;
+    private final List<InventoryListener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicReference<HeldStock> heldStock = new AtomicReference<>(HeldStock.NONE);
+
+    public InventoryService() {
+        this(new ProductLockRegistry());
+    }
+
+    public InventoryService(ProductLockRegistry locks) {
+        this(locks, InventoryMetrics.NOOP);
+    }
+
+    public InventoryService(ProductLockRegistry locks, InventoryMetrics metrics) {
+        if (locks == null) {
+            throw new IllegalArgumentException("Lock registry cannot be null");
+        }
+        if (metrics == null) {
+            throw new IllegalArgumentException("Metrics cannot be null");
+        }
+        this.locks = locks;
+        this.metrics = metrics;
+    }
+
+    public void addListener(InventoryListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null");
+        }
+        listeners.add(listener);
+    }
+
+    //Lo llama StockReservations.create: a partir de ahí los consumos respetan lo reservado
+    void useHeldStock(HeldStock heldStock) {
+        if (!this.heldStock.compareAndSet(HeldStock.NONE, heldStock)) {
+            throw new IllegalStateException("Inventory service already has stock reservations");
+        }
+    }
+
+    ProductLockRegistry locks() {
+        return locks;
+    }
+
+    //Lo que se puede sacar de un lote sin tocar lo reservado (llamar bajo el lock del producto)
+    long freeMicros(Batch batch) {
+        return batch.getCurrentMicros() - heldStock.get().heldMicros(batch);
+    }
+
     public Quantity calculateCurrentStock(Product product, List<Batch> bathes) {
         if (product == null) {
             throw new IllegalArgumentException("Product cannot be null");
@@ -17,45 +77,193 @@ public class InventoryService {
         if (bathes == null || bathes.isEmpty()) {
             return Quantity.of(0);
         }
-        return Quantity.of(bathes.stream()
-                .mapToDouble(batch -> batch.getCurrentQuantity().value())
-                .sum()
-        );
+        return Quantity.ofMicros(sumMicros(bathes));
     }
 
-    //Con synchronized aseguramos la atomicidad y que solo un hilo ejecute el bloque a la vez
-    public synchronized void consumeProduct(Product product, Quantity amountToConsume, List<Batch> batches) {
+    public void receiveBatch(Batch batch, FefoBatchIndex batches) {
+        if (batch == null) {
+            throw new IllegalArgumentException("Batch cannot be null");
+        }
+        if (batches == null) {
+            throw new IllegalArgumentException("Batch index cannot be null");
+        }
+        locks.runLocked(batch.getProduct().getId(), () -> {
+            batches.add(batch);
+            listeners.forEach(listener -> listener.onBatchReceived(batch));
+        });
+    }
+
+    /*
+    Alta de varios lotes (p.ej. un albarán) como una sola operación: se cogen los locks de todos los productos
+    en orden y nadie ve el albarán a medias. Antes de tocar nada se comprueba que todos los productos tienen índice.
+     */
+    public void receiveBatches(Collection<Batch> batches, Map<UUID, FefoBatchIndex> indexesByProduct) {
+        if (batches == null) {
+            throw new IllegalArgumentException("Batches list cannot be null");
+        }
+        if (indexesByProduct == null) {
+            throw new IllegalArgumentException("Batch indexes cannot be null");
+        }
+        List<UUID> productIds = new ArrayList<>(batches.size());
+        for (Batch batch : batches) {
+            if (batch == null) {
+                throw new IllegalArgumentException("Batch cannot be null");
+            }
+            if (!indexesByProduct.containsKey(batch.getProduct().getId())) {
+                throw new IllegalArgumentException("Batch index cannot be null");
+            }
+            productIds.add(batch.getProduct().getId());
+        }
+        locks.runLocked(productIds, () -> {
+            for (Batch batch : batches) {
+                indexesByProduct.get(batch.getProduct().getId()).add(batch);
+            }
+            for (Batch batch : batches) {
+                listeners.forEach(listener -> listener.onBatchReceived(batch));
+            }
+        });
+    }
+
+    //Igual que consumeProduct, pero recorriendo el índice FEFO: sin filtrar ni ordenar en cada consumo
+    public void consumeProductFromIndex(Product product, Quantity amountToConsume, FefoBatchIndex batches) {
+        validateConsumeInputs(product, amountToConsume, batches);
+        metrics.consumptionRequested(product.getCategory());
+        locks.runLocked(product.getId(), () -> {
+            HeldStock held = heldStock.get();
+            long availableMicros = batches.availableMicros() - held.heldMicros(product.getId());
+            if (availableMicros < amountToConsume.toMicros()) {
+                metrics.stockOut(product.getCategory());
+                throw new NotEnoughStockException(product, amountToConsume, Quantity.ofMicros(Math.max(0, availableMicros)));
+            }
+            int[] scanned = new int[1];
+            batches.consume(amountToConsume, held::heldMicros, (batch, micros) -> {
+                scanned[0]++;
+                notifyConsumed(batch, micros);
+            });
+            metrics.batchesScanned(scanned[0]);
+        });
+    }
+
+    //Bloqueamos solo el producto a consumir (lock por stripe), no todo el inventario
+    public void consumeProduct(Product product, Quantity amountToConsume, List<Batch> batches) {
         validateConsumeInputs(product, amountToConsume, batches);
-        /*
-        TODO: Interesante para mejorar rendimiento -> ReentrantLocK
-        Lo usamos por producto, por lo que no bloquea el inventario, si no el producto a consumir.
-        Mejora para cuando haya mucha concurrencia!
-         */
-        Quantity availableToConsume = calculateCurrentStock(product, batches);
-        if (!availableToConsume.hasEnough(amountToConsume)) {
-            throw new NotEnoughStockException(product, amountToConsume, availableToConsume);
+        metrics.consumptionRequested(product.getCategory());
+        locks.runLocked(product.getId(), () -> consumeFefo(product, amountToConsume, batches));
+    }
+
+    /*
+    Consume los ingredientes de una receta para N raciones en una sola sección crítica.
+    La cantidad de cada ingrediente es para las "portions" de la receta, así que se escala por servings/portions.
+    Las sub-recetas (salsas, fondos...) se despliegan en sus productos, escaladas por las raciones que se usan de ellas.
+    Todo o nada: primero comprobamos todos los productos y solo después descontamos.
+     */
+    public void consumeRecipe(Recipe recipe, int servings, Map<UUID, List<Batch>> batchesByProduct) {
+        validateConsumeRecipeInputs(recipe, servings, batchesByProduct);
+        Map<UUID, Demand> demands = new LinkedHashMap<>();
+        addDemands(recipe, (double) servings / recipe.getPortions(), demands, new HashSet<>());
+        demands.values().forEach(demand -> metrics.consumptionRequested(demand.product().getCategory()));
+        locks.runLocked(demands.keySet(), () -> {
+            for (Demand demand : demands.values()) {
+                List<Batch> batches = batchesByProduct.getOrDefault(demand.product().getId(), List.of());
+                checkAvailable(demand.product(), Quantity.ofMicros(demand.micros()), batches);
+            }
+            for (Demand demand : demands.values()) {
+                List<Batch> batches = batchesByProduct.getOrDefault(demand.product().getId(), List.of());
+                deductFefo(Quantity.ofMicros(demand.micros()), batches);
+            }
+        });
+    }
+
+    //Suma la demanda de cada producto de la receta y de sus sub-recetas; un producto repetido se junta en una sola línea
+    private static void addDemands(Recipe recipe, double factor, Map<UUID, Demand> demands, Set<UUID> visiting) {
+        if (!visiting.add(recipe.getId())) {
+            throw new IllegalArgumentException("Sub-recipe would create a cycle");
+        }
+        for (RecipeIngredient ingredient : recipe.getIngredients()) {
+            long micros = Math.round(ingredient.quantity().toMicros() * factor);
+            if (micros > 0) {
+                demands.merge(ingredient.product().getId(), new Demand(ingredient.product(), micros),
+                        (current, added) -> new Demand(current.product(), Math.addExact(current.micros(), added.micros())));
+            }
         }
+        for (SubRecipeIngredient subRecipe : recipe.getSubRecipes()) {
+            Recipe child = subRecipe.recipe();
+            addDemands(child, factor * subRecipe.portions().value() / child.getPortions(), demands, visiting);
+        }
+        visiting.remove(recipe.getId());
+    }
+
+    private void consumeFefo(Product product, Quantity amountToConsume, List<Batch> batches) {
+        checkAvailable(product, amountToConsume, batches);
+        deductFefo(amountToConsume, batches);
+    }
+
+    private void checkAvailable(Product product, Quantity amountToConsume, List<Batch> batches) {
+        long availableMicros = sumMicros(batches) - heldStock.get().heldMicros(product.getId());
+        if (availableMicros < amountToConsume.toMicros()) {
+            metrics.stockOut(product.getCategory());
+            throw new NotEnoughStockException(product, amountToConsume, Quantity.ofMicros(Math.max(0, availableMicros)));
+        }
+    }
+
+    //En micro-unidades: sin crear un Quantity por lote y sin arrastrar errores de redondeo de double
+    //Lo reservado de cada lote no se toca
+    private void deductFefo(Quantity amountToConsume, List<Batch> batches) {
+        HeldStock held = heldStock.get();
         List<Batch> sortedBatches = batches.stream()
-                .filter(batch -> batch.getCurrentQuantity().value() > 0)
+                .filter(batch -> batch.getCurrentMicros() > held.heldMicros(batch))
                 .sorted(Comparator.comparing(Batch::getExpirationDate))
                 .toList();
-        double remainingToConsume = amountToConsume.value();
+        long remainingToConsume = amountToConsume.toMicros();
+        int scanned = 0;
         for (Batch batch : sortedBatches) {
             if (remainingToConsume <= 0) {
                 break;
             }
-            double batchStock = batch.getCurrentQuantity().value();
-            if (batchStock >= remainingToConsume) {
-                batch.consume(Quantity.of(remainingToConsume));
-                remainingToConsume = 0;
-            } else {
-                batch.consume(Quantity.of(batchStock));
-                remainingToConsume -= batchStock;
-            }
+            long toConsume = Math.min(batch.getCurrentMicros() - held.heldMicros(batch), remainingToConsume);
+            batch.consumeMicros(toConsume);
+            notifyConsumed(batch, toConsume);
+            remainingToConsume -= toConsume;
+            scanned++;
+        }
+        metrics.batchesScanned(scanned);
+    }
+
+    private static long sumMicros(List<Batch> batches) {
+        QuantityAccumulator total = new QuantityAccumulator();
+        for (Batch batch : batches) {
+            total.add(batch.getCurrentMicros());
+        }
+        return total.micros();
+    }
+
+    void notifyConsumed(Batch batch, long micros) {
+        if (!listeners.isEmpty()) {
+            notifyConsumed(batch, Quantity.ofMicros(micros));
+        }
+    }
+
+    private void notifyConsumed(Batch batch, Quantity consumed) {
+        for (InventoryListener listener : listeners) {
+            listener.onBatchConsumed(batch, consumed);
         }
     }
 
     private static void validateConsumeInputs(Product product, Quantity amountToConsume, List<Batch> batches) {
+        validateConsumeAmount(product, amountToConsume);
+        if (batches == null) {
+            throw new IllegalArgumentException("Batches list cannot be null");
+        }
+    }
+
+    private static void validateConsumeInputs(Product product, Quantity amountToConsume, FefoBatchIndex batches) {
+        validateConsumeAmount(product, amountToConsume);
+        if (batches == null) {
+            throw new IllegalArgumentException("Batch index cannot be null");
+        }
+    }
+
+    private static void validateConsumeAmount(Product product, Quantity amountToConsume) {
         if (product == null) {
             throw new IllegalArgumentException("Product cannot be null");
         }
@@ -65,8 +273,20 @@ public class InventoryService {
         if (amountToConsume.value() <= 0) {
             throw new IllegalArgumentException("Amount to consume must be greater than zero");
         }
-        if (batches == null) {
-            throw new IllegalArgumentException("Batches list cannot be null");
+    }
+
+    private record Demand(Product product, long micros) {
+    }
+
+    private static void validateConsumeRecipeInputs(Recipe recipe, int servings, Map<UUID, List<Batch>> batchesByProduct) {
+        if (recipe == null) {
+            throw new IllegalArgumentException("Recipe cannot be null");
+        }
+        if (servings <= 0) {
+            throw new IllegalArgumentException("Servings must be greater than zero");
+        }
+        if (batchesByProduct == null) {
+            throw new IllegalArgumentException("Batches by product cannot be null");
         }
     }
 }
@@ -0,0 +1,206 @@
+package com.gastromind.domain.service;
+
+import com.gastromind.domain.entity.Batch;
+import com.gastromind.domain.valueobject.Category;
+import com.gastromind.domain.valueobject.ExpiryBucket;
+import com.gastromind.domain.valueobject.InventoryValuation;
+import com.gastromind.domain.valueobject.MinorMoney;
+import com.gastromind.domain.valueobject.Money;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Currency;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/*
+Valoración de todo el inventario en paralelo con fork-join: el conjunto de lotes se parte en trozos,
+cada tarea acumula en millonésimas de céntimo (long, exacto y sin BigDecimal) su total y sus desgloses,
+y los parciales se suman al unir las tareas. Las líneas no se redondean: el total se redondea una sola vez al final.
+Cada desglose reparte ese total redondeado por el método del mayor resto, para que sus partes sumen exactamente el total.
+ */
+public class InventoryValuationService {
+
+    //Por debajo de este tamaño no compensa seguir partiendo
+    private static final int LEAF_SIZE = 8_192;
+    private static final Category[] CATEGORIES = Category.values();
+    private static final ExpiryBucket[] BUCKETS = ExpiryBucket.values();
+
+    private final ForkJoinPool pool;
+
+    public InventoryValuationService() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public InventoryValuationService(ForkJoinPool pool) {
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool cannot be null");
+        }
+        this.pool = pool;
+    }
+
+    public InventoryValuation value(Collection<Batch> batches, LocalDate today) {
+        if (batches == null) {
+            throw new IllegalArgumentException("Batches list cannot be null");
+        }
+        if (today == null) {
+            throw new IllegalArgumentException("Date cannot be null");
+        }
+        Batch[] snapshot = batches.toArray(new Batch[0]);
+        Currency currency = commonCurrency(snapshot);
+        Partial result = pool.invoke(new ValuationTask(snapshot, 0, snapshot.length, today.toEpochDay()));
+        return result.toValuation(currency);
+    }
+
+    //Se comprueba antes de repartir: una excepción dentro de una tarea llega envuelta por el ForkJoinPool
+    private static Currency commonCurrency(Batch[] batches) {
+        Currency currency = null;
+        for (Batch batch : batches) {
+            Currency batchCurrency = batch.getPurchasePrice().currency();
+            if (currency == null) {
+                currency = batchCurrency;
+            } else if (!currency.equals(batchCurrency)) {
+                throw new IllegalArgumentException("Cannot add different currencies");
+            }
+        }
+        return currency != null ? currency : Money.EUR;
+    }
+
+    private static final class ValuationTask extends RecursiveTask<Partial> {
+
+        private final Batch[] batches;
+        private final int from;
+        private final int to;
+        private final long today;
+
+        private ValuationTask(Batch[] batches, int from, int to, long today) {
+            this.batches = batches;
+            this.from = from;
+            this.to = to;
+            this.today = today;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from <= LEAF_SIZE) {
+                Partial partial = new Partial();
+                for (int i = from; i < to; i++) {
+                    partial.add(batches[i], today);
+                }
+                return partial;
+            }
+            int middle = (from + to) >>> 1;
+            ValuationTask left = new ValuationTask(batches, from, middle, today);
+            left.fork();
+            Partial right = new ValuationTask(batches, middle, to, today).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    //Acumuladores de una tarea, en millonésimas de céntimo (se redondea al construir el resultado). No es thread-safe: cada tarea tiene el suyo
+    private static final class Partial {
+
+        private long total;
+        private int batches;
+        private final long[] byCategory = new long[CATEGORIES.length];
+        private final long[] byExpiry = new long[BUCKETS.length];
+        private final Map<UUID, long[]> byProduct = new HashMap<>();
+
+        void add(Batch batch, long today) {
+            long micros = batch.getCurrentMicros();
+            if (micros == 0) {
+                return;
+            }
+            long line = MinorMoney.multiplyMicros(batch.getUnitCostMicroMinor(), micros);
+            total = Math.addExact(total, line);
+            batches++;
+            int category = batch.getProduct().getCategory().ordinal();
+            byCategory[category] = Math.addExact(byCategory[category], line);
+            int bucket = ExpiryBucket.ofDaysLeft(batch.getExpirationDate().toEpochDay() - today).ordinal();
+            byExpiry[bucket] = Math.addExact(byExpiry[bucket], line);
+            long[] product = byProduct.computeIfAbsent(batch.getProduct().getId(), id -> new long[1]);
+            product[0] = Math.addExact(product[0], line);
+        }
+
+        //Se vuelca el mapa pequeño sobre el grande
+        Partial merge(Partial other) {
+            Partial into = byProduct.size() >= other.byProduct.size() ? this : other;
+            Partial from = into == this ? other : this;
+            into.total = Math.addExact(into.total, from.total);
+            into.batches += from.batches;
+            for (int i = 0; i < byCategory.length; i++) {
+                into.byCategory[i] = Math.addExact(into.byCategory[i], from.byCategory[i]);
+            }
+            for (int i = 0; i < byExpiry.length; i++) {
+                into.byExpiry[i] = Math.addExact(into.byExpiry[i], from.byExpiry[i]);
+            }
+            from.byProduct.forEach((id, amount) -> {
+                long[] current = into.byProduct.computeIfAbsent(id, key -> new long[1]);
+                current[0] = Math.addExact(current[0], amount[0]);
+            });
+            return into;
+        }
+
+        InventoryValuation toValuation(Currency resultCurrency) {
+            long totalMinor = MinorMoney.roundMicroMinor(total);
+            Map<Category, Money> categories = new EnumMap<>(Category.class);
+            long[] categoryMinor = apportion(byCategory, totalMinor);
+            for (int i = 0; i < byCategory.length; i++) {
+                if (byCategory[i] != 0) {
+                    categories.put(CATEGORIES[i], Money.ofMinor(categoryMinor[i], resultCurrency));
+                }
+            }
+            Map<ExpiryBucket, Money> expiry = new EnumMap<>(ExpiryBucket.class);
+            long[] expiryMinor = apportion(byExpiry, totalMinor);
+            for (int i = 0; i < byExpiry.length; i++) {
+                if (byExpiry[i] != 0) {
+                    expiry.put(BUCKETS[i], Money.ofMinor(expiryMinor[i], resultCurrency));
+                }
+            }
+            UUID[] productIds = byProduct.keySet().toArray(new UUID[0]);
+            long[] productAmounts = new long[productIds.length];
+            for (int i = 0; i < productIds.length; i++) {
+                productAmounts[i] = byProduct.get(productIds[i])[0];
+            }
+            long[] productMinor = apportion(productAmounts, totalMinor);
+            Map<UUID, Money> products = new HashMap<>(productIds.length * 2);
+            for (int i = 0; i < productIds.length; i++) {
+                products.put(productIds[i], Money.ofMinor(productMinor[i], resultCurrency));
+            }
+            return new InventoryValuation(Money.ofMinor(totalMinor, resultCurrency), categories, products, expiry,
+                    batches);
+        }
+
+        /*
+        Mayor resto: cada parte se trunca al céntimo y los céntimos que faltan hasta el total redondeado
+        van a las partes con mayor fracción descartada. Las partes suman exactamente el total.
+         */
+        private static long[] apportion(long[] microMinorParts, long totalMinor) {
+            long[] minor = new long[microMinorParts.length];
+            long[] remainders = new long[microMinorParts.length];
+            long shortfall = totalMinor;
+            for (int i = 0; i < microMinorParts.length; i++) {
+                minor[i] = Math.floorDiv(microMinorParts[i], MinorMoney.MICRO_MINOR_PER_MINOR);
+                remainders[i] = Math.floorMod(microMinorParts[i], MinorMoney.MICRO_MINOR_PER_MINOR);
+                shortfall -= minor[i];
+            }
+            if (shortfall <= 0) {
+                return minor;
+            }
+            Integer[] order = new Integer[microMinorParts.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Long.compare(remainders[b], remainders[a]));
+            for (int i = 0; i < shortfall && i < order.length; i++) {
+                minor[order[i]]++;
+            }
+            return minor;
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package com.gastromind.domain.service;
+
+import com.gastromind.domain.entity.Batch;
+import com.gastromind.domain.entity.Product;
+import com.gastromind.domain.entity.Recipe;
+import com.gastromind.domain.valueobject.Quantity;
+import com.gastromind.domain.valueobject.RecipeIngredient;
+import com.gastromind.domain.valueobject.SubRecipeIngredient;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/*
+Cuántas raciones de cada plato se pueden hacer con el stock actual.
+Al registrar una receta se aplana a cantidad de producto por ración (las sub-recetas se desglosan en sus productos).
+El stock por producto se lleva como InventoryListener, repartido por fecha de caducidad: lo caducado no cuenta.
+Los avisos del inventario llegan bajo el lock del producto, así que ahí solo se suma al contador atómico del producto
+y se marca como pendiente; los platos que lo usan se recalculan después, fuera de ese lock, en refresh().
+Lo llaman todas las consultas y, para que los avisos de agotado no esperen a una consulta, un hilo programado
+(MenuAvailabilityRefresher en la aplicación).
+Dos respuestas:
+  - raciones por plato: cada plato por separado, como si se llevara todo el stock (mínimo de stock / cantidad por ración)
+  - reparto conjunto: raciones de cada plato a la vez, repartiendo los ingredientes compartidos según una mezcla de ventas
+Los AvailabilityListener se enteran cuando un plato se agota o vuelve a estar disponible (para marcarlo en el TPV).
+Se les avisa bajo el lock del servicio, así que los avisos llegan en orden: tienen que ser rápidos.
+ */
+public class MenuFeasibilityService implements InventoryListener {
+
+    //Margen para que 3 x (1/3) no se quede en 2,999... raciones
+    private static final double EPSILON = 1e-9;
+
+    private final Clock clock;
+    //Protege recetas y raciones; nunca se coge desde los avisos del inventario
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<UUID, Recipe> recipes = new LinkedHashMap<>();
+    //Micro-unidades de cada producto por ración
+    private final Map<UUID, Map<UUID, Double>> requirements = new HashMap<>();
+    private final Map<UUID, Set<UUID>> recipesByProduct = new HashMap<>();
+    //Micro-unidades por producto y fecha de caducidad: se actualizan sin lock desde los avisos del inventario
+    private final ConcurrentHashMap<UUID, ConcurrentSkipListMap<LocalDate, AtomicLong>> stock = new ConcurrentHashMap<>();
+    //Productos con stock cambiado cuyos platos aún no se han recalculado
+    private final Set<UUID> pendingProducts = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, Long> servings = new HashMap<>();
+    private final List<AvailabilityListener> listeners = new CopyOnWriteArrayList<>();
+    private LocalDate refreshedOn;
+
+    public MenuFeasibilityService() {
+        this(Clock.systemDefaultZone());
+    }
+
+    public MenuFeasibilityService(Clock clock) {
+        if (clock == null) {
+            throw new IllegalArgumentException("Clock cannot be null");
+        }
+        this.clock = clock;
+    }
+
+    public interface AvailabilityListener {
+
+        void onAvailabilityChanged(Recipe recipe, boolean available);
+    }
+
+    public void addListener(AvailabilityListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null");
+        }
+        listeners.add(listener);
+    }
+
+    //Registra (o actualiza tras editarla) una receta de la carta
+    public void register(Recipe recipe) {
+        if (recipe == null) {
+            throw new IllegalArgumentException("Recipe cannot be null");
+        }
+        Map<UUID, Double> perServing = new HashMap<>();
+        flatten(recipe, 1.0 / recipe.getPortions(), perServing, new HashSet<>());
+        if (perServing.isEmpty()) {
+            throw new IllegalArgumentException("Recipe has no ingredients");
+        }
+        lock.lock();
+        try {
+            refresh();
+            UUID id = recipe.getId();
+            for (UUID productId : requirements.getOrDefault(id, Map.of()).keySet()) {
+                recipesByProduct.get(productId).remove(id);
+            }
+            recipes.put(id, recipe);
+            requirements.put(id, perServing);
+            for (UUID productId : perServing.keySet()) {
+                recipesByProduct.computeIfAbsent(productId, key -> new HashSet<>()).add(id);
+            }
+            refreshRecipe(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void onBatchReceived(Batch batch) {
+        changeStock(batch, batch.getCurrentMicros());
+    }
+
+    @Override
+    public void onBatchConsumed(Batch batch, Quantity consumed) {
+        changeStock(batch, -consumed.toMicros());
+    }
+
+    //Para cargar el stock que ya había al arrancar o corregirlo tras una auditoría (llamar bajo el lock del producto)
+    public void rebuild(Product product, Collection<Batch> batches) {
+        if (product == null) {
+            throw new IllegalArgumentException("Product cannot be null");
+        }
+        ConcurrentSkipListMap<LocalDate, AtomicLong> byExpiry = new ConcurrentSkipListMap<>();
+        if (batches != null) {
+            for (Batch batch : batches) {
+                byExpiry.computeIfAbsent(batch.getExpirationDate(), date -> new AtomicLong())
+                        .addAndGet(batch.getCurrentMicros());
+            }
+        }
+        stock.put(product.getId(), byExpiry);
+        pendingProducts.add(product.getId());
+    }
+
+    /*
+    Recalcula los platos de los productos cuyo stock ha cambiado y avisa de los que se agotan o vuelven.
+    Al cambiar de día se recalcula todo, porque el stock que caduca deja de contar.
+     */
+    public void refresh() {
+        lock.lock();
+        try {
+            LocalDate today = LocalDate.now(clock);
+            if (!today.equals(refreshedOn)) {
+                refreshedOn = today;
+                pendingProducts.clear();
+                stock.values().forEach(byExpiry -> byExpiry.headMap(today).clear());
+                recipes.keySet().forEach(this::refreshRecipe);
+                return;
+            }
+            for (UUID productId : pendingProducts) {
+                //Se quita antes de recalcular: un cambio que llegue mientras tanto vuelve a marcarlo
+                pendingProducts.remove(productId);
+                refreshProduct(productId);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long maxServings(Recipe recipe) {
+        if (recipe == null) {
+            throw new IllegalArgumentException("Recipe cannot be null");
+        }
+        lock.lock();
+        try {
+            refresh();
+            Long result = servings.get(recipe.getId());
+            if (result == null) {
+                throw new IllegalArgumentException("Recipe is not registered");
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //Raciones posibles de cada plato por separado, por id de receta
+    public Map<UUID, Long> maxServings() {
+        lock.lock();
+        try {
+            refresh();
+            Map<UUID, Long> result = new LinkedHashMap<>();
+            for (UUID id : recipes.keySet()) {
+                result.put(id, servings.get(id));
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<Recipe> soldOut() {
+        lock.lock();
+        try {
+            refresh();
+            List<Recipe> result = new ArrayList<>();
+            for (Recipe recipe : recipes.values()) {
+                if (servings.get(recipe.getId()) == 0) {
+                    result.add(recipe);
+                }
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //Reparto conjunto con todos los platos al mismo peso
+    public Map<UUID, Long> jointServings() {
+        lock.lock();
+        try {
+            refresh();
+            Map<UUID, Double> mix = new LinkedHashMap<>();
+            for (UUID id : recipes.keySet()) {
+                mix.put(id, 1.0);
+            }
+            return allocate(mix);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /*
+    Reparto conjunto según una mezcla de ventas (id de receta -> peso, p. ej. raciones vendidas un día normal).
+    Primero se escala la mezcla entera hasta que se acaba algún ingrediente; después, con lo que sobra,
+    se añaden raciones plato a plato de mayor a menor peso. Ningún plato del resultado admite una ración más.
+     */
+    public Map<UUID, Long> jointServings(Map<UUID, Double> mix) {
+        if (mix == null || mix.isEmpty()) {
+            throw new IllegalArgumentException("Mix cannot be empty");
+        }
+        for (Double weight : mix.values()) {
+            if (weight == null || !(weight > 0)) {
+                throw new IllegalArgumentException("Weights must be greater than zero");
+            }
+        }
+        lock.lock();
+        try {
+            refresh();
+            for (UUID id : mix.keySet()) {
+                if (!recipes.containsKey(id)) {
+                    throw new IllegalArgumentException("Recipe is not registered");
+                }
+            }
+            return allocate(mix);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Map<UUID, Long> allocate(Map<UUID, Double> mix) {
+        Map<UUID, Double> demandPerUnit = new HashMap<>();
+        mix.forEach((id, weight) -> requirements.get(id)
+                .forEach((productId, micros) -> demandPerUnit.merge(productId, weight * micros, Double::sum)));
+        double scale = Double.MAX_VALUE;
+        for (Map.Entry<UUID, Double> entry : demandPerUnit.entrySet()) {
+            scale = Math.min(scale, stockOf(entry.getKey()) / entry.getValue());
+        }
+        Map<UUID, Double> residual = new HashMap<>();
+        for (UUID productId : demandPerUnit.keySet()) {
+            residual.put(productId, (double) stockOf(productId));
+        }
+        Map<UUID, Long> result = new LinkedHashMap<>();
+        for (Map.Entry<UUID, Double> entry : mix.entrySet()) {
+            long base = (long) Math.floor(scale * entry.getValue() + EPSILON);
+            result.put(entry.getKey(), base);
+            requirements.get(entry.getKey()).forEach((productId, micros) -> residual.merge(productId, -base * micros, Double::sum));
+        }
+        List<UUID> byWeight = new ArrayList<>(mix.keySet());
+        byWeight.sort((a, b) -> Double.compare(mix.get(b), mix.get(a)));
+        for (UUID id : byWeight) {
+            long extra = limit(requirements.get(id), residual::get);
+            if (extra > 0) {
+                result.merge(id, extra, Long::sum);
+                requirements.get(id).forEach((productId, micros) -> residual.merge(productId, -extra * micros, Double::sum));
+            }
+        }
+        return result;
+    }
+
+    //Bajo el lock del producto: solo contadores atómicos de ese producto, sin tocar el lock del servicio
+    private void changeStock(Batch batch, long micros) {
+        UUID productId = batch.getProduct().getId();
+        stock.computeIfAbsent(productId, id -> new ConcurrentSkipListMap<>())
+                .computeIfAbsent(batch.getExpirationDate(), date -> new AtomicLong())
+                .addAndGet(micros);
+        pendingProducts.add(productId);
+    }
+
+    private void refreshProduct(UUID productId) {
+        for (UUID recipeId : recipesByProduct.getOrDefault(productId, Set.of())) {
+            refreshRecipe(recipeId);
+        }
+    }
+
+    private void refreshRecipe(UUID recipeId) {
+        long updated = limit(requirements.get(recipeId), productId -> (double) stockOf(productId));
+        Long previous = servings.put(recipeId, updated);
+        if (previous != null && (previous == 0) != (updated == 0)) {
+            for (AvailabilityListener listener : listeners) {
+                listener.onAvailabilityChanged(recipes.get(recipeId), updated > 0);
+            }
+        }
+    }
+
+    private static long limit(Map<UUID, Double> perServing, Function<UUID, Double> available) {
+        double result = Double.MAX_VALUE;
+        for (Map.Entry<UUID, Double> entry : perServing.entrySet()) {
+            result = Math.min(result, Math.max(0, available.apply(entry.getKey())) / entry.getValue());
+        }
+        return (long) Math.floor(result + EPSILON);
+    }
+
+    //Solo lo que no ha caducado: se puede usar hasta el mismo día de caducidad
+    private long stockOf(UUID productId) {
+        ConcurrentSkipListMap<LocalDate, AtomicLong> byExpiry = stock.get(productId);
+        if (byExpiry == null) {
+            return 0;
+        }
+        long total = 0;
+        for (AtomicLong micros : byExpiry.tailMap(refreshedOn, true).values()) {
+            total += micros.get();
+        }
+        return Math.max(0, total);
+    }
+
+    //Suma la cantidad de cada producto por ración, bajando por las sub-recetas
+    private static void flatten(Recipe recipe, double factor, Map<UUID, Double> perServing, Set<UUID> visiting) {
+        if (!visiting.add(recipe.getId())) {
+            throw new IllegalArgumentException("Sub-recipe would create a cycle");
+        }
+        for (RecipeIngredient ingredient : recipe.getIngredients()) {
+            double micros = ingredient.quantity().toMicros() * factor;
+            if (micros > 0) {
+                perServing.merge(ingredient.product().getId(), micros, Double::sum);
+            }
+        }
+        for (SubRecipeIngredient subRecipe : recipe.getSubRecipes()) {
+            Recipe child = subRecipe.recipe();
+            flatten(child, factor * subRecipe.portions().value() / child.getPortions(), perServing, visiting);
+        }
+        visiting.remove(recipe.getId());
+    }
+}
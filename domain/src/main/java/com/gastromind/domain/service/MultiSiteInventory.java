@@ -0,0 +1,157 @@
+package com.gastromind.domain.service;
+
+import com.gastromind.domain.entity.Batch;
+import com.gastromind.domain.entity.Product;
+import com.gastromind.domain.exception.NotEnoughStockException;
+import com.gastromind.domain.valueobject.Money;
+import com.gastromind.domain.valueobject.Quantity;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+/*
+Inventario del grupo partido por local: cada local es un SiteInventory independiente.
+Un traspaso saca cantidad de un lote de un local y crea un lote nuevo en el otro con la misma caducidad y coste unitario,
+con los locks del producto en los dos locales cogidos a la vez (siempre en orden de local, para evitar deadlocks).
+Las consultas de grupo se lanzan a la vez en todos los locales y se juntan los resultados.
+ */
+public class MultiSiteInventory {
+
+    private static final Comparator<Batch> FEFO = Comparator.comparing(Batch::getExpirationDate)
+            .thenComparing(Batch::getEntryDate);
+
+    private final Executor executor;
+    private final Clock clock;
+    private final Map<String, SiteInventory> sites = new ConcurrentHashMap<>();
+
+    public MultiSiteInventory() {
+        this(ForkJoinPool.commonPool(), Clock.systemDefaultZone());
+    }
+
+    public MultiSiteInventory(Executor executor, Clock clock) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor cannot be null");
+        }
+        if (clock == null) {
+            throw new IllegalArgumentException("Clock cannot be null");
+        }
+        this.executor = executor;
+        this.clock = clock;
+    }
+
+    public SiteInventory addSite(String siteId) {
+        SiteInventory site = new SiteInventory(siteId, clock);
+        if (sites.putIfAbsent(siteId, site) != null) {
+            throw new IllegalArgumentException("Site already exists");
+        }
+        return site;
+    }
+
+    public SiteInventory site(String siteId) {
+        SiteInventory site = siteId == null ? null : sites.get(siteId);
+        if (site == null) {
+            throw new IllegalArgumentException("Unknown site");
+        }
+        return site;
+    }
+
+    //Devuelve el lote creado en el destino
+    public Batch transfer(String fromSiteId, UUID batchId, String toSiteId, Quantity quantity) {
+        SiteInventory from = site(fromSiteId);
+        SiteInventory to = site(toSiteId);
+        if (from == to) {
+            throw new IllegalArgumentException("Cannot transfer to the same site");
+        }
+        if (quantity == null || quantity.value() <= 0) {
+            throw new IllegalArgumentException("Quantity cannot be zero or less");
+        }
+        Batch source = from.findBatch(batchId)
+                .orElseThrow(() -> new IllegalArgumentException("Batch is not at the source site"));
+        UUID productId = source.getProduct().getId();
+        SiteInventory first = fromSiteId.compareTo(toSiteId) < 0 ? from : to;
+        SiteInventory second = first == from ? to : from;
+        return first.inventoryService().locks().callLocked(productId,
+                () -> second.inventoryService().locks().callLocked(productId, () -> move(from, source, to, quantity)));
+    }
+
+    public Quantity totalStock(Product product) {
+        if (product == null) {
+            throw new IllegalArgumentException("Product cannot be null");
+        }
+        long total = 0;
+        for (long micros : fanOut(site -> site.currentMicros(product.getId())).values()) {
+            total += micros;
+        }
+        return Quantity.ofMicros(total);
+    }
+
+    public Map<String, Quantity> stockBySite(Product product) {
+        if (product == null) {
+            throw new IllegalArgumentException("Product cannot be null");
+        }
+        return fanOut(site -> site.currentStock(product));
+    }
+
+    //Lotes de todo el grupo que caducan en los próximos days días, por local
+    public Map<String, List<Batch>> expiringWithin(int days) {
+        if (days < 0) {
+            throw new IllegalArgumentException("Days cannot be negative");
+        }
+        return fanOut(site -> site.expiringWithin(days));
+    }
+
+    //Lo mismo en una sola lista en orden de caducidad
+    public List<Batch> expiringWithinGroup(int days) {
+        List<Batch> merged = new ArrayList<>();
+        expiringWithin(days).values().forEach(merged::addAll);
+        merged.sort(FEFO);
+        return merged;
+    }
+
+    public int siteCount() {
+        return sites.size();
+    }
+
+    /*
+    Bajo los locks del producto en los dos locales. Todo lo que puede fallar (stock libre, lote nuevo, índice de destino)
+    se resuelve antes de descontar del origen: si algo falla, ningún local ha cambiado.
+     */
+    private Batch move(SiteInventory from, Batch source, SiteInventory to, Quantity quantity) {
+        long micros = quantity.toMicros();
+        long free = from.inventoryService().freeMicros(source);
+        if (free < micros) {
+            throw new NotEnoughStockException(source.getProduct(), quantity, Quantity.ofMicros(Math.max(0, free)));
+        }
+        Money price = Money.ofMinor(source.costMinorOf(micros), source.getPurchasePrice().currency());
+        LocalDate today = LocalDate.now(clock);
+        Batch moved = Batch.create(UUID.randomUUID(), today, today, source.getProduct(), source.getSku(),
+                source.getExpirationDate(), price, quantity);
+        FefoBatchIndex target = to.indexFor(source.getProduct());
+        from.indexFor(source.getProduct()).consume(source, micros);
+        from.inventoryService().notifyConsumed(source, micros);
+        to.inventoryService().receiveBatch(moved, target);
+        return moved;
+    }
+
+    //Una tarea por local en el executor; el resultado queda ordenado por local
+    private <T> Map<String, T> fanOut(Function<SiteInventory, T> query) {
+        Map<String, CompletableFuture<T>> pending = new TreeMap<>();
+        for (SiteInventory site : sites.values()) {
+            pending.put(site.getSiteId(), CompletableFuture.supplyAsync(() -> query.apply(site), executor));
+        }
+        Map<String, T> results = new TreeMap<>();
+        pending.forEach((siteId, future) -> results.put(siteId, future.join()));
+        return results;
+    }
+}
@@ -0,0 +1,165 @@
+package com.gastromind.domain.service;
+
+import com.gastromind.domain.entity.Product;
+import com.gastromind.domain.valueobject.Allergen;
+import com.gastromind.domain.valueobject.Category;
+import com.gastromind.domain.valueobject.UnitOfMeasure;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/*
+Índice invertido del catálogo: cada producto recibe un número correlativo y por cada categoría,
+alérgeno y unidad guardamos un BitSet con los productos que la tienen.
+Buscar es leer un BitSet y cruzar dimensiones es un AND/ANDNOT de bits, sin recorrer el catálogo.
+ */
+public class ProductCatalogIndex {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<Product> products = new ArrayList<>();
+    private final Map<UUID, Integer> ordinals = new HashMap<>();
+    private final Map<Category, BitSet> byCategory = new EnumMap<>(Category.class);
+    private final Map<Allergen, BitSet> byAllergen = new EnumMap<>(Allergen.class);
+    private final Map<UnitOfMeasure, BitSet> byUnit = new EnumMap<>(UnitOfMeasure.class);
+
+    //Los productos son inmutables: registrar dos veces el mismo no hace nada
+    public void register(Product product) {
+        if (product == null) {
+            throw new IllegalArgumentException("Product cannot be null");
+        }
+        lock.writeLock().lock();
+        try {
+            if (ordinals.containsKey(product.getId())) {
+                return;
+            }
+            int ordinal = products.size();
+            products.add(product);
+            ordinals.put(product.getId(), ordinal);
+            byCategory.computeIfAbsent(product.getCategory(), key -> new BitSet()).set(ordinal);
+            byUnit.computeIfAbsent(product.getUnit(), key -> new BitSet()).set(ordinal);
+            for (Allergen allergen : product.getAllergens()) {
+                byAllergen.computeIfAbsent(allergen, key -> new BitSet()).set(ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Optional<Product> find(UUID productId) {
+        lock.readLock().lock();
+        try {
+            Integer ordinal = ordinals.get(productId);
+            return ordinal == null ? Optional.empty() : Optional.of(products.get(ordinal));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Product> byCategory(Category category) {
+        return query().category(category).list();
+    }
+
+    public List<Product> withAllergen(Allergen allergen) {
+        return query().withAllergen(allergen).list();
+    }
+
+    public List<Product> byUnit(UnitOfMeasure unit) {
+        return query().unit(unit).list();
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return products.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Query query() {
+        return new Query();
+    }
+
+    //Criterios combinados con AND. Varias categorías o unidades en la misma llamada se combinan con OR
+    public class Query {
+
+        private final List<Category> categories = new ArrayList<>();
+        private final List<UnitOfMeasure> units = new ArrayList<>();
+        private final List<Allergen> required = new ArrayList<>();
+        private final List<Allergen> excluded = new ArrayList<>();
+
+        private Query() {
+        }
+
+        public Query category(Category... anyOf) {
+            categories.addAll(List.of(anyOf));
+            return this;
+        }
+
+        public Query unit(UnitOfMeasure... anyOf) {
+            units.addAll(List.of(anyOf));
+            return this;
+        }
+
+        public Query withAllergen(Allergen allergen) {
+            required.add(allergen);
+            return this;
+        }
+
+        public Query withoutAllergen(Allergen allergen) {
+            excluded.add(allergen);
+            return this;
+        }
+
+        public List<Product> list() {
+            lock.readLock().lock();
+            try {
+                BitSet matches = new BitSet(products.size());
+                matches.set(0, products.size());
+                if (!categories.isEmpty()) {
+                    matches.and(union(byCategory, categories));
+                }
+                if (!units.isEmpty()) {
+                    matches.and(union(byUnit, units));
+                }
+                for (Allergen allergen : required) {
+                    matches.and(postings(byAllergen, allergen));
+                }
+                for (Allergen allergen : excluded) {
+                    matches.andNot(postings(byAllergen, allergen));
+                }
+                List<Product> result = new ArrayList<>(matches.cardinality());
+                for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+                    result.add(products.get(i));
+                }
+                return result;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        public int count() {
+            return list().size();
+        }
+
+        private <K> BitSet union(Map<K, BitSet> postings, List<K> keys) {
+            BitSet result = new BitSet();
+            for (K key : keys) {
+                result.or(postings(postings, key));
+            }
+            return result;
+        }
+
+        private <K> BitSet postings(Map<K, BitSet> postings, K key) {
+            BitSet bits = postings.get(key);
+            return bits != null ? bits : new BitSet();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.gastromind.domain.service;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+//Locks "a rayas": N locks fijos repartidos por hash del id de producto.
+//Memoria acotada (no crece con el catálogo) y dos productos distintos casi nunca se bloquean entre sí
+public class ProductLockRegistry {
+
+    private static final int DEFAULT_STRIPES = 64;
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+    private final InventoryMetrics metrics;
+    //Sin métricas no se llama a nanoTime: el coste del lock queda igual que antes
+    private final boolean timed;
+
+    public ProductLockRegistry() {
+        this(DEFAULT_STRIPES);
+    }
+
+    public ProductLockRegistry(int stripes) {
+        this(stripes, InventoryMetrics.NOOP);
+    }
+
+    public ProductLockRegistry(int stripes, InventoryMetrics metrics) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("Stripes must be greater than zero");
+        }
+        if (metrics == null) {
+            throw new IllegalArgumentException("Metrics cannot be null");
+        }
+        //Redondeamos a potencia de 2 para poder usar una máscara en vez del módulo
+        int size = Integer.highestOneBit(stripes);
+        if (size < stripes) {
+            size <<= 1;
+        }
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+        this.metrics = metrics;
+        this.timed = metrics != InventoryMetrics.NOOP;
+    }
+
+    public ReentrantLock lockFor(UUID productId) {
+        return stripes[stripeOf(productId)];
+    }
+
+    public <T> T callLocked(UUID productId, Supplier<T> action) {
+        ReentrantLock lock = lockFor(productId);
+        long start = timed ? System.nanoTime() : 0;
+        lock.lock();
+        long acquired = timed ? recordWait(start) : 0;
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+            if (timed) {
+                metrics.lockHeld(System.nanoTime() - acquired);
+            }
+        }
+    }
+
+    public void runLocked(UUID productId, Runnable action) {
+        callLocked(productId, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    //Varios productos a la vez: se cogen siempre en orden ascendente de stripe para evitar deadlocks
+    public <T> T callLocked(Collection<UUID> productIds, Supplier<T> action) {
+        if (productIds == null) {
+            throw new IllegalArgumentException("Product ids cannot be null");
+        }
+        int[] ordered = orderedStripes(productIds);
+        int acquired = 0;
+        long start = timed ? System.nanoTime() : 0;
+        long allAcquired = 0;
+        try {
+            for (int stripe : ordered) {
+                stripes[stripe].lock();
+                acquired++;
+            }
+            allAcquired = timed ? recordWait(start) : 0;
+            return action.get();
+        } finally {
+            for (int i = acquired - 1; i >= 0; i--) {
+                stripes[ordered[i]].unlock();
+            }
+            if (timed && acquired == ordered.length) {
+                metrics.lockHeld(System.nanoTime() - allAcquired);
+            }
+        }
+    }
+
+    public void runLocked(Collection<UUID> productIds, Runnable action) {
+        callLocked(productIds, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public int getStripes() {
+        return stripes.length;
+    }
+
+    private long recordWait(long start) {
+        long now = System.nanoTime();
+        metrics.lockWaited(now - start);
+        return now;
+    }
+
+    int stripeOf(UUID productId) {
+        if (productId == null) {
+            throw new IllegalArgumentException("Product id cannot be null");
+        }
+        int hash = productId.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private int[] orderedStripes(Collection<UUID> productIds) {
+        int[] indexes = new int[productIds.size()];
+        int count = 0;
+        for (UUID productId : productIds) {
+            indexes[count++] = stripeOf(productId);
+        }
+        Arrays.sort(indexes, 0, count);
+        //Quitamos repetidos: dos productos en la misma stripe solo cogen el lock una vez
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || indexes[distinct - 1] != indexes[i]) {
+                indexes[distinct++] = indexes[i];
+            }
+        }
+        return Arrays.copyOf(indexes, distinct);
+    }
+}
@@ -0,0 +1,157 @@
+package com.gastromind.domain.service;
+
+import com.gastromind.domain.entity.Batch;
+import com.gastromind.domain.entity.Recipe;
+import com.gastromind.domain.valueobject.MinorMoney;
+import com.gastromind.domain.valueobject.Money;
+import com.gastromind.domain.valueobject.MoneyAccumulator;
+import com.gastromind.domain.valueobject.Quantity;
+import com.gastromind.domain.valueobject.RecipeCost;
+import com.gastromind.domain.valueobject.RecipeIngredient;
+
+import java.util.Currency;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+Coste de una receta valorando cada ingrediente con los lotes que se gastarían primero (FEFO).
+El resultado se cachea por receta y solo se invalida cuando entra un lote nuevo de alguno de sus productos
+(o se agota uno, porque cambia qué lote se consume primero). Los consumos parciales no invalidan la caché.
+ */
+public class RecipeCostingService implements InventoryListener {
+
+    private final BatchLookup batchLookup;
+    private final InventoryMetrics metrics;
+    private final ConcurrentHashMap<UUID, RecipeCost> costs = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, Set<UUID>> recipesByProduct = new ConcurrentHashMap<>();
+    //Si hay una invalidación mientras calculamos, no guardamos el resultado (podría estar ya obsoleto)
+    private final AtomicLong generation = new AtomicLong();
+
+    public RecipeCostingService(BatchLookup batchLookup) {
+        this(batchLookup, InventoryMetrics.NOOP);
+    }
+
+    public RecipeCostingService(BatchLookup batchLookup, InventoryMetrics metrics) {
+        if (batchLookup == null) {
+            throw new IllegalArgumentException("Batch lookup cannot be null");
+        }
+        if (metrics == null) {
+            throw new IllegalArgumentException("Metrics cannot be null");
+        }
+        this.batchLookup = batchLookup;
+        this.metrics = metrics;
+    }
+
+    public RecipeCost cost(Recipe recipe) {
+        if (recipe == null) {
+            throw new IllegalArgumentException("Recipe cannot be null");
+        }
+        RecipeCost cached = costs.get(recipe.getId());
+        if (cached != null) {
+            metrics.costingCacheHit();
+            return cached;
+        }
+        metrics.costingCacheMiss();
+        //Los enlaces producto -> receta se dan de alta antes de leer lotes: un lote que entre durante el cálculo ya la invalida
+        for (RecipeIngredient ingredient : recipe.getIngredients()) {
+            recipesByProduct.computeIfAbsent(ingredient.product().getId(), id -> ConcurrentHashMap.newKeySet())
+                    .add(recipe.getId());
+        }
+        long generationBefore = generation.get();
+        RecipeCost computed = compute(recipe);
+        if (generation.get() == generationBefore) {
+            costs.put(recipe.getId(), computed);
+        }
+        return computed;
+    }
+
+    //Para cuando cambia la propia receta (ingredientes o cantidades)
+    public void invalidate(Recipe recipe) {
+        generation.incrementAndGet();
+        costs.remove(recipe.getId());
+    }
+
+    @Override
+    public void onBatchReceived(Batch batch) {
+        invalidateProduct(batch.getProduct().getId());
+    }
+
+    @Override
+    public void onBatchConsumed(Batch batch, Quantity consumed) {
+        if (batch.getCurrentMicros() == 0) {
+            invalidateProduct(batch.getProduct().getId());
+        }
+    }
+
+    public boolean isCached(Recipe recipe) {
+        return costs.containsKey(recipe.getId());
+    }
+
+    //La generación sube siempre, aunque aún no haya recetas enlazadas: puede haber un cálculo en curso
+    private void invalidateProduct(UUID productId) {
+        generation.incrementAndGet();
+        Set<UUID> recipes = recipesByProduct.get(productId);
+        if (recipes != null) {
+            recipes.forEach(costs::remove);
+        }
+    }
+
+    private RecipeCost compute(Recipe recipe) {
+        MoneyAccumulator total = null;
+        boolean complete = true;
+        for (RecipeIngredient ingredient : recipe.getIngredients()) {
+            List<Batch> batches = batchLookup.batchesOf(ingredient.product().getId());
+            if (batches == null || batches.isEmpty()) {
+                complete = false;
+                continue;
+            }
+            if (total == null) {
+                total = new MoneyAccumulator(batches.get(0).getPurchasePrice().currency());
+            }
+            addIngredientCost(total, ingredient.quantity().toMicros(), batches);
+        }
+        if (total == null) {
+            total = new MoneyAccumulator();
+        }
+        long totalMicroMinor = total.microMinorUnits();
+        return new RecipeCost(recipe.getId(), total.toMoney(),
+                perPortion(totalMicroMinor, recipe.getPortions(), total.currency()), complete, totalMicroMinor);
+    }
+
+    //Se reparte el total sin redondear y se redondea una sola vez, al céntimo
+    static Money perPortion(long totalMicroMinor, int portions, Currency currency) {
+        return Money.ofMinor(MinorMoney.roundMicroMinor(MinorMoney.divideHalfEven(totalMicroMinor, portions)), currency);
+    }
+
+    //Recorre los lotes en orden FEFO; si no hay stock suficiente, lo que falta se valora al precio del último lote
+    private static void addIngredientCost(MoneyAccumulator total, long requiredMicros, List<Batch> batches) {
+        long remaining = requiredMicros;
+        Batch last = null;
+        for (Batch batch : batches) {
+            if (remaining == 0) {
+                break;
+            }
+            long available = batch.getCurrentMicros();
+            if (available == 0) {
+                continue;
+            }
+            long taken = Math.min(available, remaining);
+            addLine(total, batch, taken);
+            remaining -= taken;
+            last = batch;
+        }
+        if (remaining > 0) {
+            addLine(total, last != null ? last : batches.get(batches.size() - 1), remaining);
+        }
+    }
+
+    private static void addLine(MoneyAccumulator total, Batch batch, long micros) {
+        if (!total.currency().equals(batch.getPurchasePrice().currency())) {
+            throw new IllegalArgumentException("Cannot add different currencies");
+        }
+        total.addPreciseLine(batch.getUnitCostMicroMinor(), micros);
+    }
+}
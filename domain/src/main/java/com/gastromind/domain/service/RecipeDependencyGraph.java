@@ -0,0 +1,251 @@
+package com.gastromind.domain.service;
+
+import com.gastromind.domain.entity.Batch;
+import com.gastromind.domain.entity.Recipe;
+import com.gastromind.domain.valueobject.AllergenSet;
+import com.gastromind.domain.valueobject.MinorMoney;
+import com.gastromind.domain.valueobject.Money;
+import com.gastromind.domain.valueobject.Quantity;
+import com.gastromind.domain.valueobject.RecipeCost;
+import com.gastromind.domain.valueobject.RecipeIngredient;
+import com.gastromind.domain.valueobject.SubRecipeIngredient;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+Grafo de dependencias entre recetas (plato -> salsa -> fondo...) para el coste completo.
+Cuando cambia el precio de un producto solo se recalculan las recetas que lo usan y las que dependen de ellas,
+en orden topológico (primero las sub-recetas). Si una receta recalculada no cambia, no se sigue propagando.
+El coste de cada sub-receta se suma sin redondear (millonésimas de céntimo): solo se redondea el total de cada receta.
+Los alérgenos ya los propaga la propia receta a las que la usan (ver Recipe.getAllergens).
+Los avisos de inventario solo marcan productos pendientes: el recálculo se hace al consultar, fuera de los locks de producto.
+ */
+public class RecipeDependencyGraph implements InventoryListener {
+
+    private final RecipeCostingService costingService;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<UUID, Recipe> recipes = new HashMap<>();
+    private final Map<UUID, Set<UUID>> children = new HashMap<>();
+    private final Map<UUID, Set<UUID>> parents = new HashMap<>();
+    private final Map<UUID, Set<UUID>> recipesByProduct = new HashMap<>();
+    private final Map<UUID, Set<UUID>> productsByRecipe = new HashMap<>();
+    private final Map<UUID, RecipeCost> costs = new ConcurrentHashMap<>();
+    private final Set<UUID> dirtyProducts = ConcurrentHashMap.newKeySet();
+
+    public RecipeDependencyGraph(RecipeCostingService costingService) {
+        if (costingService == null) {
+            throw new IllegalArgumentException("Costing service cannot be null");
+        }
+        this.costingService = costingService;
+    }
+
+    //Registra (o actualiza tras editarla) una receta y todas sus sub-recetas
+    public void register(Recipe recipe) {
+        if (recipe == null) {
+            throw new IllegalArgumentException("Recipe cannot be null");
+        }
+        lock.lock();
+        try {
+            Map<UUID, Recipe> reached = new LinkedHashMap<>();
+            collect(recipe, reached, new HashSet<>());
+            for (Recipe node : reached.values()) {
+                link(node);
+                costingService.invalidate(node);
+            }
+            propagate(reached.keySet());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public RecipeCost cost(Recipe recipe) {
+        return valueOf(recipe, costs);
+    }
+
+    public AllergenSet allergens(Recipe recipe) {
+        if (recipe == null) {
+            throw new IllegalArgumentException("Recipe cannot be null");
+        }
+        if (!costs.containsKey(recipe.getId())) {
+            throw new IllegalArgumentException("Recipe is not registered");
+        }
+        return recipe.getAllergens();
+    }
+
+    //Sub-recetas antes que las recetas que las usan
+    public List<Recipe> topologicalOrder() {
+        lock.lock();
+        try {
+            return topologicalOrder(recipes.keySet()).stream().map(recipes::get).toList();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void onBatchReceived(Batch batch) {
+        costingService.onBatchReceived(batch);
+        dirtyProducts.add(batch.getProduct().getId());
+    }
+
+    @Override
+    public void onBatchConsumed(Batch batch, Quantity consumed) {
+        costingService.onBatchConsumed(batch, consumed);
+        if (batch.getCurrentMicros() == 0) {
+            dirtyProducts.add(batch.getProduct().getId());
+        }
+    }
+
+    private <T> T valueOf(Recipe recipe, Map<UUID, T> values) {
+        if (recipe == null) {
+            throw new IllegalArgumentException("Recipe cannot be null");
+        }
+        if (!dirtyProducts.isEmpty()) {
+            refreshDirtyProducts();
+        }
+        T value = values.get(recipe.getId());
+        if (value == null) {
+            throw new IllegalArgumentException("Recipe is not registered");
+        }
+        return value;
+    }
+
+    private void refreshDirtyProducts() {
+        lock.lock();
+        try {
+            Set<UUID> seeds = new HashSet<>();
+            for (UUID productId : List.copyOf(dirtyProducts)) {
+                dirtyProducts.remove(productId);
+                seeds.addAll(recipesByProduct.getOrDefault(productId, Set.of()));
+            }
+            propagate(seeds);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //DFS en post-orden: las sub-recetas quedan antes. Un nodo en "visiting" que reaparece es un ciclo
+    private void collect(Recipe recipe, Map<UUID, Recipe> reached, Set<UUID> visiting) {
+        if (reached.containsKey(recipe.getId())) {
+            return;
+        }
+        if (!visiting.add(recipe.getId())) {
+            throw new IllegalArgumentException("Sub-recipe would create a cycle");
+        }
+        for (SubRecipeIngredient subRecipe : recipe.getSubRecipes()) {
+            collect(subRecipe.recipe(), reached, visiting);
+        }
+        visiting.remove(recipe.getId());
+        reached.put(recipe.getId(), recipe);
+    }
+
+    private void link(Recipe recipe) {
+        UUID id = recipe.getId();
+        recipes.put(id, recipe);
+        for (UUID child : children.getOrDefault(id, Set.of())) {
+            parents.get(child).remove(id);
+        }
+        Set<UUID> newChildren = new HashSet<>();
+        for (SubRecipeIngredient subRecipe : recipe.getSubRecipes()) {
+            UUID child = subRecipe.recipe().getId();
+            newChildren.add(child);
+            parents.computeIfAbsent(child, key -> new HashSet<>()).add(id);
+        }
+        children.put(id, newChildren);
+
+        for (UUID productId : productsByRecipe.getOrDefault(id, Set.of())) {
+            recipesByProduct.get(productId).remove(id);
+        }
+        Set<UUID> products = new HashSet<>();
+        for (RecipeIngredient ingredient : recipe.getIngredients()) {
+            UUID productId = ingredient.product().getId();
+            products.add(productId);
+            recipesByProduct.computeIfAbsent(productId, key -> new HashSet<>()).add(id);
+        }
+        productsByRecipe.put(id, products);
+    }
+
+    private void propagate(Set<UUID> seeds) {
+        if (seeds.isEmpty()) {
+            return;
+        }
+        Set<UUID> affected = new HashSet<>(seeds);
+        ArrayDeque<UUID> pending = new ArrayDeque<>(seeds);
+        while (!pending.isEmpty()) {
+            for (UUID parent : parents.getOrDefault(pending.pop(), Set.of())) {
+                if (affected.add(parent)) {
+                    pending.push(parent);
+                }
+            }
+        }
+        Set<UUID> dirty = new HashSet<>(seeds);
+        for (UUID id : topologicalOrder(affected)) {
+            if (dirty.contains(id) && recompute(recipes.get(id))) {
+                dirty.addAll(parents.getOrDefault(id, Set.of()));
+            }
+        }
+    }
+
+    //Kahn restringido al subconjunto: solo cuentan las aristas entre nodos del subconjunto
+    private List<UUID> topologicalOrder(Set<UUID> subset) {
+        Map<UUID, Integer> pendingChildren = new HashMap<>();
+        ArrayDeque<UUID> ready = new ArrayDeque<>();
+        for (UUID id : subset) {
+            int count = 0;
+            for (UUID child : children.getOrDefault(id, Set.of())) {
+                if (subset.contains(child)) {
+                    count++;
+                }
+            }
+            pendingChildren.put(id, count);
+            if (count == 0) {
+                ready.add(id);
+            }
+        }
+        List<UUID> order = new ArrayList<>(subset.size());
+        while (!ready.isEmpty()) {
+            UUID id = ready.poll();
+            order.add(id);
+            for (UUID parent : parents.getOrDefault(id, Set.of())) {
+                if (subset.contains(parent) && pendingChildren.merge(parent, -1, Integer::sum) == 0) {
+                    ready.add(parent);
+                }
+            }
+        }
+        return order;
+    }
+
+    //Devuelve true si el coste ha cambiado
+    private boolean recompute(Recipe recipe) {
+        RecipeCost direct = costingService.cost(recipe);
+        Currency currency = direct.totalCost().currency();
+        long totalMicroMinor = direct.totalMicroMinor();
+        boolean complete = direct.complete();
+        for (SubRecipeIngredient subRecipe : recipe.getSubRecipes()) {
+            Recipe child = subRecipe.recipe();
+            RecipeCost childCost = costs.get(child.getId());
+            if (!childCost.totalCost().currency().equals(currency)) {
+                throw new IllegalArgumentException("Cannot add different currencies");
+            }
+            //Total de la sub-receta x raciones usadas / raciones que salen, sin pasar por el coste por ración redondeado
+            long used = MinorMoney.multiplyMicros(childCost.totalMicroMinor(), subRecipe.portions().toMicros());
+            totalMicroMinor = Math.addExact(totalMicroMinor, MinorMoney.divideHalfEven(used, child.getPortions()));
+            complete &= childCost.complete();
+        }
+        RecipeCost cost = new RecipeCost(recipe.getId(),
+                Money.ofMinor(MinorMoney.roundMicroMinor(totalMicroMinor), currency),
+                RecipeCostingService.perPortion(totalMicroMinor, recipe.getPortions(), currency), complete, totalMicroMinor);
+        return !cost.equals(costs.put(recipe.getId(), cost));
+    }
+}
@@ -0,0 +1,102 @@
+package com.gastromind.domain.service;
+
+import com.gastromind.domain.entity.Batch;
+import com.gastromind.domain.entity.Product;
+import com.gastromind.domain.valueobject.Quantity;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+Inventario de un local: sus lotes, índices FEFO, totales y calendario de caducidad.
+Cada local tiene su propio InventoryService y sus propios locks, así que los locales no compiten entre sí
+y se pueden procesar en paralelo. Ver MultiSiteInventory para lo que cruza locales.
+ */
+public class SiteInventory {
+
+    private final String siteId;
+    private final InventoryService inventoryService;
+    private final StockLedger ledger = new StockLedger();
+    private final ExpiryCalendarIndex expiry;
+    private final Map<UUID, FefoBatchIndex> indexes = new ConcurrentHashMap<>();
+    //Lotes con stock del local, para localizar el origen de un traspaso
+    private final Map<UUID, Batch> batches = new ConcurrentHashMap<>();
+
+    public SiteInventory(String siteId, Clock clock) {
+        this(siteId, clock, new ProductLockRegistry());
+    }
+
+    public SiteInventory(String siteId, Clock clock, ProductLockRegistry locks) {
+        if (siteId == null || siteId.isBlank()) {
+            throw new IllegalArgumentException("Site cannot be empty");
+        }
+        this.siteId = siteId;
+        this.inventoryService = new InventoryService(locks);
+        this.expiry = new ExpiryCalendarIndex(clock);
+        inventoryService.addListener(ledger);
+        inventoryService.addListener(expiry);
+        inventoryService.addListener(new InventoryListener() {
+            @Override
+            public void onBatchReceived(Batch batch) {
+                batches.put(batch.getId(), batch);
+            }
+
+            @Override
+            public void onBatchConsumed(Batch batch, Quantity consumed) {
+                if (batch.getCurrentMicros() == 0) {
+                    batches.remove(batch.getId());
+                }
+            }
+        });
+    }
+
+    public void receive(Batch batch) {
+        if (batch == null) {
+            throw new IllegalArgumentException("Batch cannot be null");
+        }
+        inventoryService.receiveBatch(batch, indexFor(batch.getProduct()));
+    }
+
+    public void consume(Product product, Quantity quantity) {
+        if (product == null) {
+            throw new IllegalArgumentException("Product cannot be null");
+        }
+        inventoryService.consumeProductFromIndex(product, quantity, indexFor(product));
+    }
+
+    public Quantity currentStock(Product product) {
+        return ledger.currentStock(product);
+    }
+
+    public long currentMicros(UUID productId) {
+        return ledger.currentMicros(productId);
+    }
+
+    public List<Batch> expiringWithin(int days) {
+        return expiry.expiringWithin(days);
+    }
+
+    public Optional<Batch> findBatch(UUID batchId) {
+        return Optional.ofNullable(batches.get(batchId));
+    }
+
+    public FefoBatchIndex indexFor(Product product) {
+        if (product == null) {
+            throw new IllegalArgumentException("Product cannot be null");
+        }
+        return indexes.computeIfAbsent(product.getId(), id -> new FefoBatchIndex(product));
+    }
+
+    //Para añadir oyentes o reservas propias del local
+    public InventoryService inventoryService() {
+        return inventoryService;
+    }
+
+    public String getSiteId() {
+        return siteId;
+    }
+}
@@ -0,0 +1,71 @@
+package com.gastromind.domain.service;
+
+import com.gastromind.domain.entity.Batch;
+import com.gastromind.domain.entity.Product;
+import com.gastromind.domain.valueobject.Quantity;
+import com.gastromind.domain.valueobject.StockAudit;
+
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+Total de stock por producto mantenido de forma incremental (entradas de lotes y consumos).
+Leer el stock actual es O(1), sin recorrer lotes. Para auditorías se puede comparar con la suma real de los lotes.
+ */
+public class StockLedger implements InventoryListener {
+
+    private final ConcurrentHashMap<UUID, AtomicLong> totals = new ConcurrentHashMap<>();
+
+    @Override
+    public void onBatchReceived(Batch batch) {
+        totalOf(batch.getProduct().getId()).addAndGet(batch.getCurrentMicros());
+    }
+
+    @Override
+    public void onBatchConsumed(Batch batch, Quantity consumed) {
+        totalOf(batch.getProduct().getId()).addAndGet(-consumed.toMicros());
+    }
+
+    public Quantity currentStock(Product product) {
+        if (product == null) {
+            throw new IllegalArgumentException("Product cannot be null");
+        }
+        return Quantity.ofMicros(currentMicros(product.getId()));
+    }
+
+    public long currentMicros(UUID productId) {
+        AtomicLong total = totals.get(productId);
+        return total == null ? 0 : total.get();
+    }
+
+    public StockAudit audit(Product product, Collection<Batch> batches) {
+        if (product == null) {
+            throw new IllegalArgumentException("Product cannot be null");
+        }
+        return new StockAudit(product, currentStock(product), Quantity.ofMicros(sumOf(batches)));
+    }
+
+    //Si una auditoría falla, rehacemos el total desde los lotes (llamar bajo el lock del producto)
+    public void rebuild(Product product, Collection<Batch> batches) {
+        if (product == null) {
+            throw new IllegalArgumentException("Product cannot be null");
+        }
+        totalOf(product.getId()).set(sumOf(batches));
+    }
+
+    private AtomicLong totalOf(UUID productId) {
+        return totals.computeIfAbsent(productId, id -> new AtomicLong());
+    }
+
+    private static long sumOf(Collection<Batch> batches) {
+        long total = 0;
+        if (batches != null) {
+            for (Batch batch : batches) {
+                total += batch.getCurrentMicros();
+            }
+        }
+        return total;
+    }
+}
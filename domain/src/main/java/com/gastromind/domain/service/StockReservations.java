@@ -0,0 +1,259 @@
+package com.gastromind.domain.service;
+
+import com.gastromind.domain.entity.Batch;
+import com.gastromind.domain.entity.Product;
+import com.gastromind.domain.exception.NotEnoughStockException;
+import com.gastromind.domain.valueobject.BatchHold;
+import com.gastromind.domain.valueobject.Quantity;
+import com.gastromind.domain.valueobject.Reservation;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/*
+Reservas de stock para el ciclo de una comanda (en espera -> marchar -> servida o anulada).
+Reservar aparta cantidad de lotes concretos en orden FEFO sin descontarla: confirmar la consume de esos mismos lotes
+y liberar la devuelve sin rehacer lotes. Cada reserva caduca; releaseExpired las recoge todas de una vez.
+Los locks de producto solo se cogen durante cada operación, nunca durante la vida de la comanda.
+Mientras tanto InventoryService no consume lo apartado (ver HeldStock).
+ */
+public class StockReservations implements HeldStock {
+
+    public static final Duration DEFAULT_HOLD = Duration.ofMinutes(30);
+    private static final Comparator<Reservation> BY_EXPIRY = Comparator.comparing(Reservation::expiresAt)
+            .thenComparing(Reservation::id);
+
+    private final InventoryService inventoryService;
+    private final ProductLockRegistry locks;
+    private final Clock clock;
+    private final Map<UUID, Reservation> active = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Reservation> byExpiry = new ConcurrentSkipListSet<>(BY_EXPIRY);
+    //Índices de los que se reservó: al confirmar se consume a través de ellos para que cuadre su total
+    private final Map<UUID, Map<UUID, FefoBatchIndex>> indexesByReservation = new ConcurrentHashMap<>();
+    //Totales apartados. Cada entrada solo se modifica bajo el lock de su producto
+    private final Map<UUID, Long> heldByBatch = new ConcurrentHashMap<>();
+    private final Map<UUID, Long> heldByProduct = new ConcurrentHashMap<>();
+
+    private StockReservations(InventoryService inventoryService, Clock clock) {
+        this.inventoryService = inventoryService;
+        this.locks = inventoryService.locks();
+        this.clock = clock;
+    }
+
+    public static StockReservations create(InventoryService inventoryService) {
+        return create(inventoryService, Clock.systemDefaultZone());
+    }
+
+    //Se engancha al InventoryService ya construida; un servicio solo admite unas reservas
+    public static StockReservations create(InventoryService inventoryService, Clock clock) {
+        if (inventoryService == null) {
+            throw new IllegalArgumentException("Inventory service cannot be null");
+        }
+        if (clock == null) {
+            throw new IllegalArgumentException("Clock cannot be null");
+        }
+        StockReservations reservations = new StockReservations(inventoryService, clock);
+        inventoryService.useHeldStock(reservations);
+        return reservations;
+    }
+
+    public Reservation hold(Product product, Quantity quantity, FefoBatchIndex batches) {
+        return hold(product, quantity, batches, DEFAULT_HOLD);
+    }
+
+    public Reservation hold(Product product, Quantity quantity, FefoBatchIndex batches, Duration duration) {
+        if (product == null) {
+            throw new IllegalArgumentException("Product cannot be null");
+        }
+        if (quantity == null) {
+            throw new IllegalArgumentException("Quantity cannot be null");
+        }
+        if (batches == null) {
+            throw new IllegalArgumentException("Batch index cannot be null");
+        }
+        return hold(Map.of(product, quantity), Map.of(product.getId(), batches), duration);
+    }
+
+    //Todas las líneas de la comanda o ninguna: se comprueba todo antes de apartar nada
+    public Reservation hold(Map<Product, Quantity> lines, Map<UUID, FefoBatchIndex> indexesByProduct, Duration duration) {
+        validateHold(lines, indexesByProduct, duration);
+        List<UUID> productIds = lines.keySet().stream().map(Product::getId).toList();
+        Reservation reservation = locks.callLocked(productIds, () -> {
+            for (Map.Entry<Product, Quantity> line : lines.entrySet()) {
+                Product product = line.getKey();
+                long available = indexesByProduct.get(product.getId()).availableMicros() - heldMicros(product.getId());
+                if (available < line.getValue().toMicros()) {
+                    throw new NotEnoughStockException(product, line.getValue(), Quantity.ofMicros(Math.max(0, available)));
+                }
+            }
+            List<BatchHold> holds = new ArrayList<>();
+            for (Map.Entry<Product, Quantity> line : lines.entrySet()) {
+                long[] remaining = {line.getValue().toMicros()};
+                indexesByProduct.get(line.getKey().getId()).visitFefo(batch -> {
+                    long toHold = Math.min(batch.getCurrentMicros() - heldMicros(batch), remaining[0]);
+                    if (toHold > 0) {
+                        holds.add(new BatchHold(batch, toHold));
+                        adjust(batch, toHold);
+                        remaining[0] -= toHold;
+                    }
+                    return remaining[0] > 0;
+                });
+            }
+            return new Reservation(UUID.randomUUID(), holds, clock.instant().plus(duration));
+        });
+        Map<UUID, FefoBatchIndex> indexes = new HashMap<>();
+        productIds.forEach(productId -> indexes.put(productId, indexesByProduct.get(productId)));
+        indexesByReservation.put(reservation.id(), indexes);
+        active.put(reservation.id(), reservation);
+        byExpiry.add(reservation);
+        return reservation;
+    }
+
+    //Consume lo apartado de los mismos lotes. Una reserva caducada se libera y no se puede confirmar
+    public void commit(UUID reservationId) {
+        Reservation reservation = claim(reservationId);
+        Map<UUID, FefoBatchIndex> indexes = indexesByReservation.remove(reservationId);
+        if (reservation.isExpired(clock.instant())) {
+            releaseHolds(List.of(reservation));
+            throw new IllegalStateException("Reservation has expired");
+        }
+        locks.runLocked(reservation.productIds(), () -> {
+            for (BatchHold hold : reservation.holds()) {
+                adjust(hold.batch(), -hold.micros());
+                indexes.get(hold.batch().getProduct().getId()).consume(hold.batch(), hold.micros());
+                inventoryService.notifyConsumed(hold.batch(), hold.micros());
+            }
+        });
+    }
+
+    //Devuelve false si la reserva ya no estaba activa (confirmada, liberada o caducada)
+    public boolean release(UUID reservationId) {
+        if (reservationId == null) {
+            throw new IllegalArgumentException("Reservation ID cannot be null");
+        }
+        Reservation reservation = active.remove(reservationId);
+        if (reservation == null) {
+            return false;
+        }
+        byExpiry.remove(reservation);
+        indexesByReservation.remove(reservationId);
+        releaseHolds(List.of(reservation));
+        return true;
+    }
+
+    //Para el barrido periódico: libera todas las reservas caducadas cogiendo los locks una sola vez
+    public int releaseExpired() {
+        Instant now = clock.instant();
+        List<Reservation> expired = new ArrayList<>();
+        while (!byExpiry.isEmpty() && byExpiry.first().isExpired(now)) {
+            Reservation reservation = byExpiry.pollFirst();
+            if (reservation != null && active.remove(reservation.id(), reservation)) {
+                indexesByReservation.remove(reservation.id());
+                expired.add(reservation);
+            }
+        }
+        if (!expired.isEmpty()) {
+            releaseHolds(expired);
+        }
+        return expired.size();
+    }
+
+    //Lo que se puede consumir o reservar ahora: stock menos lo apartado
+    public Quantity available(Product product, FefoBatchIndex batches) {
+        if (product == null) {
+            throw new IllegalArgumentException("Product cannot be null");
+        }
+        if (batches == null) {
+            throw new IllegalArgumentException("Batch index cannot be null");
+        }
+        return locks.callLocked(product.getId(),
+                () -> Quantity.ofMicros(Math.max(0, batches.availableMicros() - heldMicros(product.getId()))));
+    }
+
+    @Override
+    public long heldMicros(UUID productId) {
+        return heldByProduct.getOrDefault(productId, 0L);
+    }
+
+    @Override
+    public long heldMicros(Batch batch) {
+        return heldByBatch.getOrDefault(batch.getId(), 0L);
+    }
+
+    public int activeReservations() {
+        return active.size();
+    }
+
+    private Reservation claim(UUID reservationId) {
+        if (reservationId == null) {
+            throw new IllegalArgumentException("Reservation ID cannot be null");
+        }
+        Reservation reservation = active.remove(reservationId);
+        if (reservation == null) {
+            throw new IllegalStateException("Reservation is no longer active");
+        }
+        byExpiry.remove(reservation);
+        return reservation;
+    }
+
+    private void releaseHolds(Collection<Reservation> reservations) {
+        Set<UUID> productIds = new HashSet<>();
+        for (Reservation reservation : reservations) {
+            productIds.addAll(reservation.productIds());
+        }
+        locks.runLocked(productIds, () -> {
+            for (Reservation reservation : reservations) {
+                for (BatchHold hold : reservation.holds()) {
+                    adjust(hold.batch(), -hold.micros());
+                }
+            }
+        });
+    }
+
+    private void adjust(Batch batch, long micros) {
+        heldByBatch.merge(batch.getId(), micros, StockReservations::sumOrRemove);
+        heldByProduct.merge(batch.getProduct().getId(), micros, StockReservations::sumOrRemove);
+    }
+
+    //Al llegar a cero se quita la entrada (merge con null la borra)
+    private static Long sumOrRemove(Long current, Long delta) {
+        long result = current + delta;
+        return result == 0 ? null : result;
+    }
+
+    private static void validateHold(Map<Product, Quantity> lines, Map<UUID, FefoBatchIndex> indexesByProduct,
+                                     Duration duration) {
+        if (lines == null || lines.isEmpty()) {
+            throw new IllegalArgumentException("Reservation must have at least one line");
+        }
+        if (indexesByProduct == null) {
+            throw new IllegalArgumentException("Batch indexes cannot be null");
+        }
+        if (duration == null || duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("Hold duration must be greater than zero");
+        }
+        for (Map.Entry<Product, Quantity> line : lines.entrySet()) {
+            if (line.getKey() == null) {
+                throw new IllegalArgumentException("Product cannot be null");
+            }
+            if (line.getValue() == null || line.getValue().value() <= 0) {
+                throw new IllegalArgumentException("Quantity cannot be zero or less");
+            }
+            if (!indexesByProduct.containsKey(line.getKey().getId())) {
+                throw new IllegalArgumentException("Batch index cannot be null");
+            }
+        }
+    }
+}
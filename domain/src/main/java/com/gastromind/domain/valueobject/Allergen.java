@@ -14,5 +14,10 @@ public enum Allergen {
     SESAME,      // Granos de sésamo
     SULFITES,   // Sulfitos
     LUPIN,       // Altramuces
-    MOLLUSCS     // Moluscos
+    MOLLUSCS;    // Moluscos
+
+    //Un bit por alérgeno: los 14 caben de sobra en un int (ver AllergenSet)
+    public int mask() {
+        return 1 << ordinal();
+    }
 }
@@ -0,0 +1,77 @@
+package com.gastromind.domain.valueobject;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+//Conjunto de alérgenos codificado como máscara de bits: unir y comprobar es una operación con enteros
+public record AllergenSet(int mask) {
+
+    private static final Allergen[] VALUES = Allergen.values();
+    private static final int ALL = (1 << VALUES.length) - 1;
+    private static final AllergenSet NONE = new AllergenSet(0);
+
+    public AllergenSet {
+        if ((mask & ~ALL) != 0) {
+            throw new IllegalArgumentException("Unknown allergen bits in mask");
+        }
+    }
+
+    public static AllergenSet none() {
+        return NONE;
+    }
+
+    public static AllergenSet of(Allergen... allergens) {
+        int mask = 0;
+        for (Allergen allergen : allergens) {
+            mask |= allergen.mask();
+        }
+        return new AllergenSet(mask);
+    }
+
+    public static AllergenSet of(Collection<Allergen> allergens) {
+        if (allergens == null || allergens.isEmpty()) {
+            return NONE;
+        }
+        int mask = 0;
+        for (Allergen allergen : allergens) {
+            mask |= allergen.mask();
+        }
+        return new AllergenSet(mask);
+    }
+
+    public boolean contains(Allergen allergen) {
+        return (mask & allergen.mask()) != 0;
+    }
+
+    public boolean containsAny(AllergenSet other) {
+        return (mask & other.mask) != 0;
+    }
+
+    public boolean isEmpty() {
+        return mask == 0;
+    }
+
+    public AllergenSet union(AllergenSet other) {
+        return (mask | other.mask) == mask ? this : new AllergenSet(mask | other.mask);
+    }
+
+    public Set<Allergen> toSet() {
+        if (mask == 0) {
+            return Collections.emptySet();
+        }
+        EnumSet<Allergen> allergens = EnumSet.noneOf(Allergen.class);
+        for (Allergen allergen : VALUES) {
+            if (contains(allergen)) {
+                allergens.add(allergen);
+            }
+        }
+        return Collections.unmodifiableSet(allergens);
+    }
+
+    @Override
+    public String toString() {
+        return toSet().toString();
+    }
+}
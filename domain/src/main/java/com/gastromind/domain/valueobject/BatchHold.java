@@ -0,0 +1,20 @@
+package com.gastromind.domain.valueobject;
+
+import com.gastromind.domain.entity.Batch;
+
+//Cantidad apartada de un lote concreto por una reserva, en micro-unidades
+public record BatchHold(Batch batch, long micros) {
+
+    public BatchHold {
+        if (batch == null) {
+            throw new IllegalArgumentException("Batch cannot be null");
+        }
+        if (micros <= 0) {
+            throw new IllegalArgumentException("Quantity cannot be zero or less");
+        }
+    }
+
+    public Quantity quantity() {
+        return Quantity.ofMicros(micros);
+    }
+}
@@ -0,0 +1,9 @@
+package com.gastromind.domain.valueobject;
+
+import com.gastromind.domain.entity.Product;
+
+import java.time.LocalDate;
+
+//Línea del albarán de un proveedor. Se valida al crear el lote, junto con el resto del albarán
+public record DeliveryLine(Product product, String sku, LocalDate expirationDate, Money purchasePrice, Quantity quantity) {
+}
@@ -0,0 +1,35 @@
+package com.gastromind.domain.valueobject;
+
+import java.util.UUID;
+
+/*
+Previsión de demanda de un producto (por día) y política de pedido que sale de ella:
+cuando el stock baja del punto de pedido se pide hasta el nivel objetivo.
+limitedByShelfLife indica que el objetivo se ha recortado a lo que da tiempo a consumir antes de caducar.
+ */
+public record DemandForecast(UUID productId, Quantity dailyDemand, Quantity dailyDeviation, Quantity reorderPoint,
+                             Quantity orderUpTo, boolean limitedByShelfLife) {
+
+    public DemandForecast {
+        if (productId == null) {
+            throw new IllegalArgumentException("Product ID cannot be null");
+        }
+        if (dailyDemand == null || dailyDeviation == null || reorderPoint == null || orderUpTo == null) {
+            throw new IllegalArgumentException("Quantity cannot be null");
+        }
+    }
+
+    public boolean needsReorder(Quantity onHand) {
+        if (onHand == null) {
+            throw new IllegalArgumentException("Quantity cannot be null");
+        }
+        return dailyDemand.value() > 0 && onHand.value() <= reorderPoint.value();
+    }
+
+    public Quantity suggestedOrder(Quantity onHand) {
+        if (!needsReorder(onHand)) {
+            return Quantity.of(0);
+        }
+        return Quantity.of(Math.max(0, orderUpTo.value() - onHand.value()));
+    }
+}
@@ -0,0 +1,23 @@
+package com.gastromind.domain.valueobject;
+
+import com.gastromind.domain.entity.Batch;
+
+//Lote con riesgo de merma: días hasta caducar (negativo si ya ha caducado), lo que queda y lo que vale
+public record ExpiryAlert(Batch batch, long daysLeft, Quantity remaining, Money valueAtRisk) {
+
+    public ExpiryAlert {
+        if (batch == null) {
+            throw new IllegalArgumentException("Batch cannot be null");
+        }
+        if (remaining == null) {
+            throw new IllegalArgumentException("Quantity cannot be null");
+        }
+        if (valueAtRisk == null) {
+            throw new IllegalArgumentException("Value cannot be null");
+        }
+    }
+
+    public boolean isExpired() {
+        return daysLeft < 0;
+    }
+}
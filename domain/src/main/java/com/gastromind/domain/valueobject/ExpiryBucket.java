@@ -0,0 +1,32 @@
+package com.gastromind.domain.valueobject;
+
+import java.time.LocalDate;
+
+//Tramos de caducidad para los informes de valoración
+public enum ExpiryBucket {
+    EXPIRED,
+    WITHIN_3_DAYS,
+    WITHIN_7_DAYS,
+    WITHIN_30_DAYS,
+    LATER;
+
+    public static ExpiryBucket of(LocalDate expirationDate, LocalDate today) {
+        return ofDaysLeft(expirationDate.toEpochDay() - today.toEpochDay());
+    }
+
+    public static ExpiryBucket ofDaysLeft(long days) {
+        if (days < 0) {
+            return EXPIRED;
+        }
+        if (days <= 3) {
+            return WITHIN_3_DAYS;
+        }
+        if (days <= 7) {
+            return WITHIN_7_DAYS;
+        }
+        if (days <= 30) {
+            return WITHIN_30_DAYS;
+        }
+        return LATER;
+    }
+}
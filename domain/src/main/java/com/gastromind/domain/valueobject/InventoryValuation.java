@@ -0,0 +1,18 @@
+package com.gastromind.domain.valueobject;
+
+import java.util.Map;
+import java.util.UUID;
+
+//Valor del stock (cantidad actual x coste unitario) en total y desglosado por categoría, producto y caducidad
+public record InventoryValuation(Money total, Map<Category, Money> byCategory, Map<UUID, Money> byProduct,
+                                 Map<ExpiryBucket, Money> byExpiry, int batches) {
+
+    public InventoryValuation {
+        if (total == null) {
+            throw new IllegalArgumentException("Total cannot be null");
+        }
+        byCategory = Map.copyOf(byCategory);
+        byProduct = Map.copyOf(byProduct);
+        byExpiry = Map.copyOf(byExpiry);
+    }
+}
@@ -0,0 +1,96 @@
+package com.gastromind.domain.valueobject;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.Objects;
+
+//Dinero en céntimos (long). Misma semántica que Money (2 decimales, redondeo del banquero) sin BigDecimal
+public record MinorMoney(long minorUnits, Currency currency) {
+
+    //Los costes unitarios de lote se guardan en millonésimas de céntimo para no perder los productos que se compran por gramo
+    public static final long MICRO_MINOR_PER_MINOR = 1_000_000L;
+
+    private static final BigDecimal MICROS = BigDecimal.valueOf(Quantity.MICROS_PER_UNIT);
+
+    public MinorMoney {
+        Objects.requireNonNull(currency, "Currency cannot be null");
+        if (minorUnits < 0) {
+            throw new IllegalArgumentException("Amount cannot be negative");
+        }
+    }
+
+    public static MinorMoney of(Money money) {
+        return new MinorMoney(money.toMinor(), money.currency());
+    }
+
+    public static MinorMoney ofMinor(long minorUnits) {
+        return new MinorMoney(minorUnits, Money.EUR);
+    }
+
+    public MinorMoney add(MinorMoney other) {
+        if (!this.currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Cannot add different currencies");
+        }
+        return new MinorMoney(Math.addExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public MinorMoney multiply(int multiplier) {
+        if (multiplier < 0) {
+            throw new IllegalArgumentException("Multiplier cannot be negative");
+        }
+        return new MinorMoney(Math.multiplyExact(minorUnits, (long) multiplier), currency);
+    }
+
+    //Reparto (p.ej. coste por ración), redondeado al céntimo con HALF_EVEN
+    public MinorMoney divide(int divisor) {
+        if (divisor <= 0) {
+            throw new IllegalArgumentException("Divisor must be greater than zero");
+        }
+        return new MinorMoney(divideHalfEven(minorUnits, divisor), currency);
+    }
+
+    //Precio unitario x cantidad en micro-unidades, redondeado al céntimo con HALF_EVEN
+    public MinorMoney multiplyMicros(long quantityMicros) {
+        return new MinorMoney(multiplyMicros(minorUnits, quantityMicros), currency);
+    }
+
+    public Money toMoney() {
+        return Money.ofMinor(minorUnits, currency);
+    }
+
+    //Importe de una línea en céntimos sin crear objetos (lo usan los acumuladores)
+    public static long multiplyMicros(long minorUnits, long quantityMicros) {
+        if (quantityMicros < 0) {
+            throw new IllegalArgumentException("Quantity cannot be negative");
+        }
+        long high = Math.multiplyHigh(minorUnits, quantityMicros);
+        long product = minorUnits * quantityMicros;
+        if (high != 0 || product < 0) {
+            //Desbordaría el long: caemos al camino lento, con el mismo redondeo
+            return BigDecimal.valueOf(minorUnits)
+                    .multiply(BigDecimal.valueOf(quantityMicros))
+                    .divide(MICROS, 0, RoundingMode.HALF_EVEN)
+                    .longValueExact();
+        }
+        return divideHalfEven(product, Quantity.MICROS_PER_UNIT);
+    }
+
+    //Importe en millonésimas de céntimo a céntimos, con HALF_EVEN: el redondeo se hace una sola vez, sobre el total
+    public static long roundMicroMinor(long microMinorUnits) {
+        if (microMinorUnits < 0) {
+            throw new IllegalArgumentException("Amount cannot be negative");
+        }
+        return divideHalfEven(microMinorUnits, MICRO_MINOR_PER_MINOR);
+    }
+
+    //Solo para valores no negativos
+    public static long divideHalfEven(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long twiceRemainder = (dividend % divisor) * 2;
+        if (twiceRemainder > divisor || (twiceRemainder == divisor && (quotient & 1) == 1)) {
+            quotient++;
+        }
+        return quotient;
+    }
+}
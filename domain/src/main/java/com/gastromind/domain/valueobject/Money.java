@@ -7,6 +7,10 @@ import java.util.Objects;
 
 public record Money(BigDecimal amount, Currency currency) {
 
+    //Currency.getInstance hace una búsqueda en un mapa en cada llamada: la cacheamos
+    public static final Currency EUR = Currency.getInstance("EUR");
+    public static final int SCALE = 2;
+
     public Money {
         Objects.requireNonNull(amount, "Amount cannot be null");
         Objects.requireNonNull(currency, "Currency cannot be null");
@@ -15,15 +19,26 @@ public record Money(BigDecimal amount, Currency currency) {
         }
         //Redondeo del banquero -> Al par más cercano
         //TODO: Interesante usar "currency.getDefaultFractionDigits()" para que la moneda decida los decimales
-        amount = amount.setScale(2, RoundingMode.HALF_EVEN);
+        if (amount.scale() != SCALE) {
+            amount = amount.setScale(SCALE, RoundingMode.HALF_EVEN);
+        }
     }
 
     public static Money of(BigDecimal amount) {
-        return new Money(amount, Currency.getInstance("EUR"));
+        return new Money(amount, EUR);
     }
 
     public static Money of(double amount) {
-        return new Money(BigDecimal.valueOf(amount), Currency.getInstance("EUR"));
+        return new Money(BigDecimal.valueOf(amount), EUR);
+    }
+
+    public static Money ofMinor(long minorUnits, Currency currency) {
+        return new Money(BigDecimal.valueOf(minorUnits, SCALE), currency);
+    }
+
+    //Céntimos exactos (el importe ya está redondeado a 2 decimales)
+    public long toMinor() {
+        return amount.unscaledValue().longValueExact();
     }
 
     public Money add(Money other) {
@@ -0,0 +1,80 @@
+package com.gastromind.domain.valueobject;
+
+import java.util.Currency;
+import java.util.Objects;
+
+//Suma de importes en céntimos sin objetos intermedios. Mutable y no thread-safe (uno por hilo y se fusionan)
+public final class MoneyAccumulator {
+
+    private final Currency currency;
+    private long minorUnits;
+    //Líneas con coste unitario de lote: se suman sin redondear y se pasan a céntimos al leer el total
+    private long microMinorUnits;
+
+    public MoneyAccumulator() {
+        this(Money.EUR);
+    }
+
+    public MoneyAccumulator(Currency currency) {
+        this.currency = Objects.requireNonNull(currency, "Currency cannot be null");
+    }
+
+    public MoneyAccumulator add(Money money) {
+        checkCurrency(money.currency());
+        return addMinor(money.toMinor());
+    }
+
+    public MoneyAccumulator add(MinorMoney money) {
+        checkCurrency(money.currency());
+        return addMinor(money.minorUnits());
+    }
+
+    public MoneyAccumulator addMinor(long minorToAdd) {
+        minorUnits = Math.addExact(minorUnits, minorToAdd);
+        return this;
+    }
+
+    //Suma una línea precio x cantidad, redondeando la línea al céntimo igual que haría Money
+    public MoneyAccumulator addLine(long unitPriceMinor, long quantityMicros) {
+        return addMinor(MinorMoney.multiplyMicros(unitPriceMinor, quantityMicros));
+    }
+
+    //Suma una línea con el coste unitario en millonésimas de céntimo (Batch.getUnitCostMicroMinor) sin redondearla
+    public MoneyAccumulator addPreciseLine(long unitCostMicroMinor, long quantityMicros) {
+        microMinorUnits = Math.addExact(microMinorUnits, MinorMoney.multiplyMicros(unitCostMicroMinor, quantityMicros));
+        return this;
+    }
+
+    public MoneyAccumulator merge(MoneyAccumulator other) {
+        checkCurrency(other.currency);
+        microMinorUnits = Math.addExact(microMinorUnits, other.microMinorUnits);
+        return addMinor(other.minorUnits);
+    }
+
+    public long minorUnits() {
+        return Math.addExact(minorUnits, MinorMoney.roundMicroMinor(microMinorUnits));
+    }
+
+    //El total sin redondear, en millonésimas de céntimo
+    public long microMinorUnits() {
+        return Math.addExact(Math.multiplyExact(minorUnits, MinorMoney.MICRO_MINOR_PER_MINOR), microMinorUnits);
+    }
+
+    public Currency currency() {
+        return currency;
+    }
+
+    public MinorMoney toMinorMoney() {
+        return new MinorMoney(minorUnits(), currency);
+    }
+
+    public Money toMoney() {
+        return Money.ofMinor(minorUnits(), currency);
+    }
+
+    private void checkCurrency(Currency other) {
+        if (!currency.equals(other)) {
+            throw new IllegalArgumentException("Cannot add different currencies");
+        }
+    }
+}
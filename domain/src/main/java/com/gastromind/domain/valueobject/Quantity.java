@@ -2,6 +2,9 @@ package com.gastromind.domain.valueobject;
 
 public record Quantity(double value) {
 
+    //Punto fijo: 1 unidad = 1.000.000 micro-unidades (mg en kg, µl en L...)
+    public static final long MICROS_PER_UNIT = 1_000_000L;
+
     public Quantity {
         if (value < 0) {
             throw new IllegalArgumentException("Quantity cannot be negative");
@@ -13,6 +16,14 @@ public record Quantity(double value) {
         return new Quantity(value);
     }
 
+    public static Quantity ofMicros(long micros) {
+        return new Quantity((double) micros / MICROS_PER_UNIT);
+    }
+
+    public long toMicros() {
+        return Math.round(value * MICROS_PER_UNIT);
+    }
+
     public Quantity add(Quantity other) {
         return new Quantity(this.value + other.value);
     }
@@ -0,0 +1,53 @@
+package com.gastromind.domain.valueobject;
+
+//Acumulador mutable en micro-unidades para bucles calientes: suma y resta sin crear objetos.
+//Las sumas se comprueban: un desbordamiento lanza ArithmeticException en vez de dar la vuelta en silencio.
+//No es thread-safe, pensado para variables locales
+public final class QuantityAccumulator {
+
+    private long micros;
+
+    public QuantityAccumulator() {
+    }
+
+    public QuantityAccumulator(Quantity initial) {
+        this.micros = initial.toMicros();
+    }
+
+    public QuantityAccumulator add(long microsToAdd) {
+        micros = Math.addExact(micros, microsToAdd);
+        return this;
+    }
+
+    public QuantityAccumulator add(Quantity quantity) {
+        return add(quantity.toMicros());
+    }
+
+    public QuantityAccumulator subtract(long microsToSubtract) {
+        if (microsToSubtract > micros) {
+            throw new IllegalArgumentException("Not enough quantity available");
+        }
+        micros -= microsToSubtract;
+        return this;
+    }
+
+    public QuantityAccumulator subtract(Quantity quantity) {
+        return subtract(quantity.toMicros());
+    }
+
+    public boolean hasEnough(long requiredMicros) {
+        return micros >= requiredMicros;
+    }
+
+    public void reset() {
+        micros = 0;
+    }
+
+    public long micros() {
+        return micros;
+    }
+
+    public Quantity toQuantity() {
+        return Quantity.ofMicros(micros);
+    }
+}
@@ -0,0 +1,15 @@
+package com.gastromind.domain.valueobject;
+
+import java.util.Objects;
+import java.util.UUID;
+
+//complete = false si algún ingrediente no tiene ningún lote con el que valorarlo
+//totalMicroMinor es el total sin redondear (millonésimas de céntimo), para sumarlo en las recetas que usan esta
+public record RecipeCost(UUID recipeId, Money totalCost, Money costPerPortion, boolean complete, long totalMicroMinor) {
+
+    public RecipeCost {
+        Objects.requireNonNull(recipeId, "Recipe id cannot be null");
+        Objects.requireNonNull(totalCost, "Total cost cannot be null");
+        Objects.requireNonNull(costPerPortion, "Cost per portion cannot be null");
+    }
+}
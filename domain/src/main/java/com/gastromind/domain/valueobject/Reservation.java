@@ -0,0 +1,36 @@
+package com.gastromind.domain.valueobject;
+
+import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+//Stock apartado para una comanda hasta expiresAt: se confirma (se consume) o se libera
+public record Reservation(UUID id, List<BatchHold> holds, Instant expiresAt) {
+
+    public Reservation {
+        if (id == null) {
+            throw new IllegalArgumentException("Reservation ID cannot be null");
+        }
+        if (holds == null || holds.isEmpty()) {
+            throw new IllegalArgumentException("Reservation must hold at least one batch");
+        }
+        if (expiresAt == null) {
+            throw new IllegalArgumentException("Expiration cannot be null");
+        }
+        holds = List.copyOf(holds);
+    }
+
+    public Set<UUID> productIds() {
+        Set<UUID> productIds = new LinkedHashSet<>();
+        for (BatchHold hold : holds) {
+            productIds.add(hold.batch().getProduct().getId());
+        }
+        return productIds;
+    }
+
+    public boolean isExpired(Instant now) {
+        return !now.isBefore(expiresAt);
+    }
+}
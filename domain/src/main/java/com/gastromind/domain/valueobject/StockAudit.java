@@ -0,0 +1,19 @@
+package com.gastromind.domain.valueobject;
+
+import com.gastromind.domain.entity.Product;
+
+public record StockAudit(Product product, Quantity ledgerStock, Quantity batchStock) {
+
+    public StockAudit {
+        if (product == null) {
+            throw new IllegalArgumentException("Product cannot be null");
+        }
+        if (ledgerStock == null || batchStock == null) {
+            throw new IllegalArgumentException("Stock cannot be null");
+        }
+    }
+
+    public boolean isConsistent() {
+        return ledgerStock.toMicros() == batchStock.toMicros();
+    }
+}
@@ -0,0 +1,20 @@
+package com.gastromind.domain.valueobject;
+
+import com.gastromind.domain.entity.Recipe;
+
+//Una pre-elaboración (fondo, salsa...) usada como ingrediente. La cantidad va en raciones de la sub-receta
+public record SubRecipeIngredient(Recipe recipe, Quantity portions) {
+
+    public SubRecipeIngredient {
+        if (recipe == null) {
+            throw new IllegalArgumentException("Sub-recipe cannot be null");
+        }
+        if (portions == null) {
+            throw new IllegalArgumentException("Quantity cannot be null");
+        }
+    }
+
+    public static SubRecipeIngredient of(Recipe recipe, Quantity portions) {
+        return new SubRecipeIngredient(recipe, portions);
+    }
+}
@@ -7,6 +7,10 @@ import org.junit.jupiter.api.Test;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -49,6 +53,26 @@ class BatchTest {
         assertThat(unitCost.currency()).isEqualTo(PURCHASE_PRICE.currency());
     }
 
+    @Test
+    @DisplayName("Calcular el coste unitario una sola vez")
+    void shouldMemoizeUnitCost() {
+        Batch batch = Batch.create(PRODUCT, SKU, EXPIRATION_DATE, PURCHASE_PRICE, INITIAL_QUANTITY);
+
+        assertThat(batch.getUnitCost()).isSameAs(batch.getUnitCost());
+        assertThat(batch.getUnitCostMicroMinor()).isEqualTo(200_000_000L);
+    }
+
+    @Test
+    @DisplayName("No perder el coste de los productos que se compran por gramo")
+    void shouldKeepSubCentUnitCost() {
+        //5€ / 1000g = 0,005€/g: redondeado al céntimo serían 0€
+        Product saffron = Product.create("Azafrán", null, Category.SPICE, UnitOfMeasure.GRAM, Set.of());
+        Batch batch = Batch.create(saffron, SKU, EXPIRATION_DATE, Money.of(5.0), Quantity.of(1000.0));
+
+        assertThat(batch.getUnitCostMicroMinor()).isEqualTo(500_000L);
+        assertThat(batch.costMinorOf(Quantity.of(300.0).toMicros())).isEqualTo(150L);
+    }
+
     @Test
     @DisplayName("Reducir el stock al consumir")
     void shouldReduceStockWhenConsuming() {
@@ -69,6 +93,37 @@ class BatchTest {
                 .hasMessage("Not enough quantity available");
     }
 
+    @Test
+    @DisplayName("Devolver false sin modificar el stock si no hay suficiente al intentar consumir")
+    void shouldReturnFalseWhenTryConsumingMoreThanAvailable() {
+        Batch batch = Batch.create(PRODUCT, SKU, EXPIRATION_DATE, PURCHASE_PRICE, INITIAL_QUANTITY);
+
+        boolean consumed = batch.tryConsume(Quantity.of(30.0));
+
+        assertThat(consumed).isFalse();
+        assertThat(batch.getCurrentQuantity().value()).isEqualTo(25.0);
+    }
+
+    @Test
+    @DisplayName("No sobreconsumir cuando varios hilos consumen el mismo lote sin locks")
+    void shouldNotOverConsumeWithConcurrentThreads() {
+        Batch batch = Batch.create(PRODUCT, SKU, EXPIRATION_DATE, PURCHASE_PRICE, Quantity.of(100.0));
+        AtomicInteger successes = new AtomicInteger();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 1000; i++) {
+                executor.submit(() -> {
+                    if (batch.tryConsume(Quantity.of(0.25))) {
+                        successes.incrementAndGet();
+                    }
+                });
+            }
+        }
+
+        assertThat(successes.get()).isEqualTo(400);
+        assertThat(batch.getCurrentQuantity().value()).isEqualTo(0.0);
+    }
+
     @Test
     @DisplayName("No permitir crear lotes ya caducados")
     void shouldThrowExceptionWhenIfExpired() {
@@ -78,4 +133,54 @@ class BatchTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessage("Cannot accept expired products");
     }
+
+    @Test
+    @DisplayName("Restaurar un lote caducado y consumido en parte")
+    void shouldRestoreExistingBatch() {
+        LocalDate lastMonth = LocalDate.now().minusMonths(1);
+        UUID id = UUID.randomUUID();
+
+        Batch batch = Batch.restore(id, PRODUCT, SKU, lastMonth.minusMonths(1), lastMonth, PURCHASE_PRICE,
+                INITIAL_QUANTITY, Quantity.of(10.0).toMicros());
+
+        assertThat(batch.getId()).isEqualTo(id);
+        assertThat(batch.getExpirationDate()).isEqualTo(lastMonth);
+        assertThat(batch.getCurrentQuantity().value()).isEqualTo(10.0);
+    }
+
+    @Test
+    @DisplayName("No restaurar un lote con más cantidad de la inicial")
+    void shouldRejectRestoringMoreThanInitialQuantity() {
+        assertThatThrownBy(() -> Batch.restore(UUID.randomUUID(), PRODUCT, SKU, LocalDate.now(), EXPIRATION_DATE,
+                PURCHASE_PRICE, INITIAL_QUANTITY, Quantity.of(30.0).toMicros()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Current quantity must be between zero and the initial quantity");
+    }
+
+    @Test
+    @DisplayName("Crear un lote con el id y la fecha de entrada dados")
+    void shouldCreateBatchWithGivenIdAndEntryDate() {
+        UUID id = UUID.randomUUID();
+        LocalDate entryDate = LocalDate.of(2026, 3, 10);
+
+        Batch batch = Batch.create(id, entryDate, entryDate, PRODUCT, SKU, entryDate, PURCHASE_PRICE, INITIAL_QUANTITY);
+
+        assertThat(batch.getId()).isEqualTo(id);
+        assertThat(batch.getEntryDate()).isEqualTo(entryDate);
+        assertThatThrownBy(() -> Batch.create(id, entryDate, entryDate, PRODUCT, SKU, entryDate.minusDays(1), PURCHASE_PRICE, INITIAL_QUANTITY))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Cannot accept expired products");
+    }
+
+    @Test
+    @DisplayName("No aceptar producto caducado aunque la fecha de entrada sea anterior")
+    void shouldRejectExpiredProductWithBackdatedEntryDate() {
+        LocalDate today = LocalDate.of(2026, 3, 10);
+        LocalDate lastWeek = today.minusDays(7);
+
+        assertThatThrownBy(() -> Batch.create(UUID.randomUUID(), lastWeek, today, PRODUCT, SKU, lastWeek.plusDays(1),
+                PURCHASE_PRICE, INITIAL_QUANTITY))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Cannot accept expired products");
+    }
 }
@@ -9,6 +9,9 @@ import org.junit.jupiter.params.provider.NullAndEmptySource;
 import org.junit.jupiter.params.provider.ValueSource;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -147,6 +150,54 @@ class RecipeTest {
             assertThat(recipe.getIngredients()).contains(ingredient1);
             assertThat(recipe.getIngredients()).contains(ingredient2);
         }
+
+        @Test
+        @DisplayName("Buscar un ingrediente por el id de su producto")
+        void shouldFindIngredientByProductId() {
+            var recipe = Recipe.create(VALID_NAME, VALID_DESCRIPTION, VALID_TIME, VALID_DIFFICULT, VALID_PORTIONS);
+            var ingredient = RecipeIngredient.of(rice, Quantity.of(400));
+
+            recipe.addIngredient(ingredient);
+
+            assertThat(recipe.findIngredient(rice.getId())).contains(ingredient);
+            assertThat(recipe.findIngredient(chicken.getId())).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Permitir añadir varios ingredientes de una vez")
+        void shouldAddIngredientsInBulk() {
+            var recipe = Recipe.create(VALID_NAME, VALID_DESCRIPTION, VALID_TIME, VALID_DIFFICULT, VALID_PORTIONS);
+            var ingredient1 = RecipeIngredient.of(rice, Quantity.of(400));
+            var ingredient2 = RecipeIngredient.of(chicken, Quantity.of(200));
+
+            recipe.addIngredients(List.of(ingredient1, ingredient2));
+
+            assertThat(recipe.getIngredients()).containsExactly(ingredient1, ingredient2);
+        }
+
+        @Test
+        @DisplayName("No añadir ninguno si hay productos duplicados en el lote")
+        void shouldNotAddAnyIngredientWhenBulkHasDuplicates() {
+            var recipe = Recipe.create(VALID_NAME, VALID_DESCRIPTION, VALID_TIME, VALID_DIFFICULT, VALID_PORTIONS);
+            var ingredient1 = RecipeIngredient.of(chicken, Quantity.of(200));
+            var ingredient2 = RecipeIngredient.of(rice, Quantity.of(400));
+            var ingredient3 = RecipeIngredient.of(rice, Quantity.of(100));
+
+            assertThatThrownBy(() -> recipe.addIngredients(List.of(ingredient1, ingredient2, ingredient3)))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Product already exists in recipe");
+            assertThat(recipe.getIngredients()).isEmpty();
+            assertThat(recipe.containsProduct(chicken.getId())).isFalse();
+        }
+
+        @Test
+        @DisplayName("No permitir modificar la lista de ingredientes desde fuera")
+        void shouldNotAllowExternalModificationOfIngredients() {
+            var recipe = Recipe.create(VALID_NAME, VALID_DESCRIPTION, VALID_TIME, VALID_DIFFICULT, VALID_PORTIONS);
+
+            assertThatThrownBy(() -> recipe.getIngredients().add(RecipeIngredient.of(rice, Quantity.of(1))))
+                    .isInstanceOf(UnsupportedOperationException.class);
+        }
     }
 
     @Nested
@@ -189,5 +240,88 @@ class RecipeTest {
             assertThat(recipe.getSteps()).contains(step1);
             assertThat(recipe.getSteps()).contains(step2);
         }
+
+        @Test
+        @DisplayName("Permitir añadir varios pasos de una vez")
+        void shouldAddStepsInBulk() {
+            var recipe = Recipe.create(VALID_NAME, VALID_DESCRIPTION, VALID_TIME, VALID_DIFFICULT, VALID_PORTIONS);
+            var step1 = RecipeStep.of(1, "Calentar el aceite");
+            var step2 = RecipeStep.of(2, "Sofreir la cebolla");
+
+            recipe.addSteps(List.of(step1, step2));
+
+            assertThat(recipe.getSteps()).containsExactly(step1, step2);
+        }
+
+        @Test
+        @DisplayName("No permitir pasos nulos al añadir varios")
+        void shouldThrowExceptionWhenBulkHasNullStep() {
+            var recipe = Recipe.create(VALID_NAME, VALID_DESCRIPTION, VALID_TIME, VALID_DIFFICULT, VALID_PORTIONS);
+            var steps = Arrays.asList(RecipeStep.of(1, "Calentar el aceite"), null);
+
+            assertThatThrownBy(() -> recipe.addSteps(steps))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Step cannot be null");
+            assertThat(recipe.getSteps()).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("Gestión de sub-recetas")
+    class SubRecipeManagement {
+
+        @Test
+        @DisplayName("Permitir usar otra receta como ingrediente")
+        void shouldAddSubRecipe() {
+            var recipe = Recipe.create(VALID_NAME, VALID_DESCRIPTION, VALID_TIME, VALID_DIFFICULT, VALID_PORTIONS);
+            var stock = Recipe.create("Fondo de marisco", null, Duration.ofHours(3), Difficulty.MEDIUM, 10);
+            var subRecipe = SubRecipeIngredient.of(stock, Quantity.of(2));
+
+            recipe.addSubRecipe(subRecipe);
+
+            assertThat(recipe.getSubRecipes()).containsExactly(subRecipe);
+            assertThat(recipe.dependsOn(stock.getId())).isTrue();
+        }
+
+        @Test
+        @DisplayName("No permitir que una receta se use a sí misma")
+        void shouldThrowExceptionWhenRecipeUsesItself() {
+            var recipe = Recipe.create(VALID_NAME, VALID_DESCRIPTION, VALID_TIME, VALID_DIFFICULT, VALID_PORTIONS);
+
+            assertThatThrownBy(() -> recipe.addSubRecipe(SubRecipeIngredient.of(recipe, Quantity.of(1))))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Sub-recipe would create a cycle");
+        }
+
+        @Test
+        @DisplayName("No permitir sub-recetas duplicadas")
+        void shouldThrowExceptionWhenSubRecipeIsDuplicated() {
+            var recipe = Recipe.create(VALID_NAME, VALID_DESCRIPTION, VALID_TIME, VALID_DIFFICULT, VALID_PORTIONS);
+            var stock = Recipe.create("Fondo de marisco", null, Duration.ofHours(3), Difficulty.MEDIUM, 10);
+            recipe.addSubRecipe(SubRecipeIngredient.of(stock, Quantity.of(2)));
+
+            assertThatThrownBy(() -> recipe.addSubRecipe(SubRecipeIngredient.of(stock, Quantity.of(1))))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Sub-recipe already exists in recipe");
+        }
+
+        @Test
+        @DisplayName("Subir los alérgenos nuevos de una sub-receta a todas las recetas que la usan")
+        void shouldPropagateSubRecipeAllergensToAncestors() {
+            var recipe = Recipe.create(VALID_NAME, VALID_DESCRIPTION, VALID_TIME, VALID_DIFFICULT, VALID_PORTIONS);
+            var stock = Recipe.create("Fondo de marisco", null, Duration.ofHours(3), Difficulty.MEDIUM, 10);
+            var base = Recipe.create("Sofrito", null, Duration.ofMinutes(20), Difficulty.EASY, 10);
+            stock.addSubRecipe(SubRecipeIngredient.of(base, Quantity.of(1)));
+            recipe.addSubRecipe(SubRecipeIngredient.of(stock, Quantity.of(2)));
+            List<Recipe> notified = new ArrayList<>();
+            recipe.addAllergenListener(notified::add);
+            var prawns = Product.create("Gamba", null, Category.SEAFOOD, UnitOfMeasure.GRAM, Set.of(Allergen.CRUSTACEANS));
+
+            base.addIngredient(RecipeIngredient.of(prawns, Quantity.of(100)));
+
+            assertThat(recipe.getAllergens().contains(Allergen.CRUSTACEANS)).isTrue();
+            assertThat(stock.getAllergens().contains(Allergen.CRUSTACEANS)).isTrue();
+            assertThat(notified).containsExactly(recipe);
+        }
     }
 }
@@ -0,0 +1,86 @@
+package com.gastromind.domain.event;
+
+import com.gastromind.domain.entity.Batch;
+import com.gastromind.domain.entity.Product;
+import com.gastromind.domain.valueobject.Category;
+import com.gastromind.domain.valueobject.Money;
+import com.gastromind.domain.valueobject.Quantity;
+import com.gastromind.domain.valueobject.UnitOfMeasure;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("InventoryState debería")
+class InventoryStateTest {
+
+    private Product product;
+    private Batch batch;
+    private InventoryState state;
+
+    @BeforeEach
+    void setUp() {
+        product = Product.create("Arroz", "Bomba", Category.GRAIN, UnitOfMeasure.KILOGRAM, Set.of());
+        batch = Batch.create(product, "LOT-001", LocalDate.now().plusMonths(6), Money.of(30.0), Quantity.of(10.0));
+        state = new InventoryState();
+    }
+
+    @Test
+    @DisplayName("Reconstruir la cantidad restante aplicando los eventos en orden")
+    void shouldRebuildRemainingQuantity() {
+        state.apply(1, BatchReceived.of(batch));
+        state.apply(2, consumed(2.5));
+        state.apply(3, consumed(1.5));
+
+        assertThat(state.remainingMicros(batch.getId())).isEqualTo(Quantity.of(6.0).toMicros());
+        assertThat(state.lastSequence()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Volver a crear los lotes con sus datos originales")
+    void shouldRecreateBatches() {
+        state.apply(1, BatchReceived.of(batch));
+        state.apply(2, consumed(4.0));
+
+        List<Batch> batches = state.toBatches(id -> product);
+
+        assertThat(batches).hasSize(1);
+        Batch restored = batches.get(0);
+        assertThat(restored.getId()).isEqualTo(batch.getId());
+        assertThat(restored.getSku()).isEqualTo("LOT-001");
+        assertThat(restored.getPurchasePrice()).isEqualTo(Money.of(30.0));
+        assertThat(restored.getCurrentQuantity().value()).isEqualTo(6.0);
+    }
+
+    @Test
+    @DisplayName("Descartar los lotes agotados")
+    void shouldDropDepletedBatches() {
+        state.apply(1, BatchReceived.of(batch));
+        state.apply(2, consumed(10.0));
+
+        assertThat(state.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Rechazar eventos fuera de orden o que consumen más de lo que hay")
+    void shouldRejectInvalidEvents() {
+        state.apply(1, BatchReceived.of(batch));
+
+        assertThatThrownBy(() -> state.apply(1, consumed(1.0)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Events must be applied in sequence order");
+        assertThatThrownBy(() -> state.apply(2, consumed(11.0)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Consumed more than the batch had");
+    }
+
+    private BatchConsumed consumed(double quantity) {
+        return new BatchConsumed(batch.getId(), product.getId(), Quantity.of(quantity).toMicros());
+    }
+}
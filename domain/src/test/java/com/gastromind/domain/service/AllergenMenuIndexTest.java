@@ -0,0 +1,95 @@
+package com.gastromind.domain.service;
+
+import com.gastromind.domain.entity.Product;
+import com.gastromind.domain.entity.Recipe;
+import com.gastromind.domain.valueobject.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("AllergenMenuIndex debería")
+class AllergenMenuIndexTest {
+
+    private AllergenMenuIndex index;
+    private Recipe bread;
+    private Recipe salad;
+    private Recipe pesto;
+
+    @BeforeEach
+    void setUp() {
+        index = new AllergenMenuIndex();
+        bread = recipe("Pan", product("Harina", Allergen.GLUTEN));
+        salad = recipe("Ensalada", product("Lechuga"));
+        pesto = recipe("Pesto", product("Piñones", Allergen.NUTS), product("Parmesano", Allergen.DAIRY));
+        index.register(bread);
+        index.register(salad);
+        index.register(pesto);
+    }
+
+    @Test
+    @DisplayName("Devolver solo las recetas sin los alérgenos excluidos")
+    void shouldReturnRecipesFreeOfExcludedAllergens() {
+        assertThat(index.freeOf(Allergen.GLUTEN, Allergen.NUTS)).containsExactly(salad);
+        assertThat(index.freeOf(Allergen.DAIRY)).containsExactly(bread, salad);
+    }
+
+    @Test
+    @DisplayName("Incluir los alérgenos de las sub-recetas")
+    void shouldIncludeSubRecipeAllergens() {
+        Recipe pasta = recipe("Pasta al pesto", product("Pasta fresca"));
+        pasta.addSubRecipe(SubRecipeIngredient.of(pesto, Quantity.of(1.0)));
+
+        index.register(pasta);
+
+        assertThat(index.freeOf(Allergen.NUTS)).doesNotContain(pasta);
+    }
+
+    @Test
+    @DisplayName("Actualizar una receta ya registrada sin duplicarla")
+    void shouldUpdateRegisteredRecipe() {
+        salad.addIngredient(RecipeIngredient.of(product("Nueces", Allergen.NUTS), Quantity.of(50)));
+
+        index.register(salad);
+
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.freeOf(Allergen.NUTS)).containsExactly(bread);
+    }
+
+    @Test
+    @DisplayName("Refrescar la máscara cuando cambia una receta registrada")
+    void shouldRefreshMaskWhenRecipeChanges() {
+        salad.addIngredient(RecipeIngredient.of(product("Nueces", Allergen.NUTS), Quantity.of(50)));
+
+        assertThat(index.freeOf(Allergen.NUTS)).containsExactly(bread);
+    }
+
+    @Test
+    @DisplayName("Refrescar la máscara cuando cambia una de sus sub-recetas")
+    void shouldRefreshMaskWhenSubRecipeChanges() {
+        Recipe pasta = recipe("Pasta con salsa", product("Pasta fresca"));
+        Recipe sauce = recipe("Salsa de tomate", product("Tomate"));
+        pasta.addSubRecipe(SubRecipeIngredient.of(sauce, Quantity.of(1.0)));
+        index.register(pasta);
+
+        sauce.addIngredient(RecipeIngredient.of(product("Queso", Allergen.DAIRY), Quantity.of(30)));
+
+        assertThat(index.freeOf(Allergen.DAIRY)).containsExactly(bread, salad);
+    }
+
+    private static Product product(String name, Allergen... allergens) {
+        return Product.create(name, null, Category.OTHER, UnitOfMeasure.GRAM, Set.of(allergens));
+    }
+
+    private static Recipe recipe(String name, Product... products) {
+        Recipe recipe = Recipe.create(name, null, Duration.ofMinutes(20), Difficulty.EASY, 2);
+        for (Product product : products) {
+            recipe.addIngredient(RecipeIngredient.of(product, Quantity.of(100)));
+        }
+        return recipe;
+    }
+}
@@ -0,0 +1,166 @@
+package com.gastromind.domain.service;
+
+import com.gastromind.domain.entity.Batch;
+import com.gastromind.domain.entity.Product;
+import com.gastromind.domain.testing.MovableClock;
+import com.gastromind.domain.valueobject.Category;
+import com.gastromind.domain.valueobject.DemandForecast;
+import com.gastromind.domain.valueobject.Money;
+import com.gastromind.domain.valueobject.Quantity;
+import com.gastromind.domain.valueobject.UnitOfMeasure;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayName("DemandForecaster debería")
+class DemandForecasterTest {
+
+    private MovableClock clock;
+    private DemandForecaster forecaster;
+    private InventoryService inventoryService;
+    private Product product;
+    private FefoBatchIndex batches;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MovableClock();
+        forecaster = new DemandForecaster(clock);
+        inventoryService = new InventoryService();
+        inventoryService.addListener(forecaster);
+        product = Product.create("Leche", "Entera", Category.DAIRY, UnitOfMeasure.LITER, Set.of());
+        batches = new FefoBatchIndex(product);
+    }
+
+    @Nested
+    @DisplayName("Al estimar la demanda")
+    class Demand {
+
+        @Test
+        @DisplayName("Aprender la demanda diaria a partir de los consumos")
+        void shouldLearnDailyDemandFromConsumptions() {
+            receive(30, 1_000.0);
+            consumeDaily(10, 4.0);
+
+            DemandForecast forecast = forecaster.forecast(product);
+
+            assertThat(forecast.dailyDemand()).isEqualTo(Quantity.of(4.0));
+            assertThat(forecast.dailyDeviation()).isEqualTo(Quantity.of(0));
+        }
+
+        @Test
+        @DisplayName("No contar el consumo del día en curso")
+        void shouldIgnoreTodaysConsumption() {
+            receive(30, 1_000.0);
+            inventoryService.consumeProductFromIndex(product, Quantity.of(5.0), batches);
+
+            assertThat(forecaster.forecast(product).dailyDemand()).isEqualTo(Quantity.of(0));
+        }
+
+        @Test
+        @DisplayName("Reducir la demanda con los días sin consumo")
+        void shouldDecayDemandOnIdleDays() {
+            receive(30, 1_000.0);
+            consumeDaily(10, 4.0);
+
+            clock.advanceDays(2);
+
+            assertThat(forecaster.forecast(product).dailyDemand().value()).isCloseTo(4.0 * 0.8 * 0.8, within(1e-6));
+        }
+
+        @Test
+        @DisplayName("Medir la variabilidad cuando la demanda cambia de un día a otro")
+        void shouldTrackDeviationOfIrregularDemand() {
+            receive(30, 1_000.0);
+            for (int day = 0; day < 10; day++) {
+                inventoryService.consumeProductFromIndex(product, Quantity.of(day % 2 == 0 ? 2.0 : 6.0), batches);
+                clock.advanceDays(1);
+            }
+
+            DemandForecast forecast = forecaster.forecast(product);
+
+            assertThat(forecast.dailyDeviation().value()).isGreaterThan(0);
+            assertThat(forecast.reorderPoint().value()).isGreaterThan(forecast.dailyDemand().value() * 2);
+        }
+
+        @Test
+        @DisplayName("Devolver demanda cero para productos sin consumos")
+        void shouldForecastZeroForUnknownProducts() {
+            DemandForecast forecast = forecaster.forecast(product);
+
+            assertThat(forecast.dailyDemand()).isEqualTo(Quantity.of(0));
+            assertThat(forecast.needsReorder(Quantity.of(0))).isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("Al proponer pedidos")
+    class Reorder {
+
+        @Test
+        @DisplayName("Calcular punto de pedido y nivel objetivo con el plazo de entrega y los días entre pedidos")
+        void shouldComputeReorderPointAndOrderUpToLevel() {
+            receive(30, 1_000.0);
+            consumeDaily(10, 4.0);
+
+            DemandForecast forecast = forecaster.forecast(product);
+
+            assertThat(forecast.reorderPoint()).isEqualTo(Quantity.of(8.0));
+            assertThat(forecast.orderUpTo()).isEqualTo(Quantity.of(36.0));
+            assertThat(forecast.limitedByShelfLife()).isFalse();
+        }
+
+        @Test
+        @DisplayName("Limitar el pedido a lo que da tiempo a consumir antes de caducar")
+        void shouldCapOrderByShelfLife() {
+            receive(3, 1_000.0);
+            consumeDaily(10, 4.0);
+
+            DemandForecast forecast = forecaster.forecast(product);
+
+            assertThat(forecast.orderUpTo()).isEqualTo(Quantity.of(12.0));
+            assertThat(forecast.limitedByShelfLife()).isTrue();
+        }
+
+        @Test
+        @DisplayName("Sugerir pedido solo por debajo del punto de pedido")
+        void shouldSuggestOrderOnlyBelowReorderPoint() {
+            receive(30, 1_000.0);
+            consumeDaily(10, 4.0);
+
+            DemandForecast forecast = forecaster.forecast(product);
+
+            assertThat(forecast.suggestedOrder(Quantity.of(5.0))).isEqualTo(Quantity.of(31.0));
+            assertThat(forecast.suggestedOrder(Quantity.of(20.0))).isEqualTo(Quantity.of(0));
+        }
+    }
+
+    @Test
+    @DisplayName("Rechazar un suavizado fuera de rango")
+    void shouldRejectInvalidSmoothing() {
+        assertThatThrownBy(() -> new DemandForecaster(clock, 0, 2, 7, 1.65))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Smoothing must be between zero and one");
+    }
+
+    private void receive(int shelfLifeDays, double quantity) {
+        inventoryService.receiveBatch(Batch.create(product, "LOT-001", LocalDate.now(clock).plusDays(shelfLifeDays),
+                Money.of(100.0), Quantity.of(quantity)), batches);
+    }
+
+    //Dos consumos al día que suman dailyDemand; al final se pasa al día siguiente para cerrar el último
+    private void consumeDaily(int days, double dailyDemand) {
+        for (int day = 0; day < days; day++) {
+            inventoryService.consumeProductFromIndex(product, Quantity.of(dailyDemand / 2), batches);
+            inventoryService.consumeProductFromIndex(product, Quantity.of(dailyDemand / 2), batches);
+            clock.advanceDays(1);
+        }
+    }
+}
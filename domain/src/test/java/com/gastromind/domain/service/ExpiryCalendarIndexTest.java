@@ -0,0 +1,110 @@
+package com.gastromind.domain.service;
+
+import com.gastromind.domain.entity.Batch;
+import com.gastromind.domain.entity.Product;
+import com.gastromind.domain.testing.MovableClock;
+import com.gastromind.domain.valueobject.Category;
+import com.gastromind.domain.valueobject.ExpiryAlert;
+import com.gastromind.domain.valueobject.Money;
+import com.gastromind.domain.valueobject.Quantity;
+import com.gastromind.domain.valueobject.UnitOfMeasure;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("ExpiryCalendarIndex debería")
+class ExpiryCalendarIndexTest {
+
+    private MovableClock clock;
+    private ExpiryCalendarIndex index;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MovableClock();
+        index = new ExpiryCalendarIndex(clock, 7);
+        product = Product.create("Nata", "35% MG", Category.DAIRY, UnitOfMeasure.LITER, Set.of());
+    }
+
+    @Test
+    @DisplayName("Devolver solo los lotes que caducan dentro del plazo, ordenados por fecha")
+    void shouldReturnBatchesExpiringWithinDays() {
+        Batch inThreeDays = batch("LOT-003", 3, 2.0);
+        Batch tomorrow = batch("LOT-001", 1, 2.0);
+        Batch nextMonth = batch("LOT-030", 30, 2.0);
+        index.add(inThreeDays);
+        index.add(tomorrow);
+        index.add(nextMonth);
+
+        assertThat(index.expiringWithin(3)).containsExactly(tomorrow, inThreeDays);
+        assertThat(index.expiringWithin(30)).containsExactly(tomorrow, inThreeDays, nextMonth);
+    }
+
+    @Test
+    @DisplayName("Pasar a caducados los lotes cuando avanza el calendario")
+    void shouldMoveBatchesToExpiredWhenDaysGoBy() {
+        Batch tomorrow = batch("LOT-001", 1, 2.0);
+        Batch nextMonth = batch("LOT-030", 30, 2.0);
+        index.add(tomorrow);
+        index.add(nextMonth);
+
+        clock.advanceDays(28);
+
+        assertThat(index.expired()).containsExactly(tomorrow);
+        assertThat(index.expiringWithin(2)).containsExactly(nextMonth);
+    }
+
+    @Test
+    @DisplayName("Mantenerse al día con las entradas y consumos del inventario")
+    void shouldFollowInventoryChanges() {
+        InventoryService inventoryService = new InventoryService();
+        inventoryService.addListener(index);
+        FefoBatchIndex batches = new FefoBatchIndex(product);
+        Batch first = batch("LOT-001", 1, 2.0);
+        Batch second = batch("LOT-002", 2, 2.0);
+
+        inventoryService.receiveBatch(first, batches);
+        inventoryService.receiveBatch(second, batches);
+        inventoryService.consumeProductFromIndex(product, Quantity.of(3.0), batches);
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.expiringWithin(7)).containsExactly(second);
+    }
+
+    @Test
+    @DisplayName("Generar avisos de merma con la cantidad y el valor en riesgo")
+    void shouldProduceWasteRiskAlerts() {
+        Batch expiring = batch("LOT-001", 1, 4.0);
+        index.add(expiring);
+        index.add(batch("LOT-020", 20, 4.0));
+
+        clock.advanceDays(2);
+        List<ExpiryAlert> alerts = index.wasteRiskAlerts(3);
+
+        assertThat(alerts).hasSize(1);
+        assertThat(alerts.get(0).batch()).isSameAs(expiring);
+        assertThat(alerts.get(0).isExpired()).isTrue();
+        assertThat(alerts.get(0).daysLeft()).isEqualTo(-1);
+        assertThat(alerts.get(0).remaining().value()).isEqualTo(4.0);
+        assertThat(alerts.get(0).valueAtRisk()).isEqualTo(Money.of(20.0));
+    }
+
+    @Test
+    @DisplayName("Rechazar un plazo negativo")
+    void shouldRejectNegativeDays() {
+        assertThatThrownBy(() -> index.expiringWithin(-1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Days cannot be negative");
+    }
+
+    private Batch batch(String sku, int daysToExpire, double quantity) {
+        return Batch.create(product, sku, LocalDate.now().plusDays(daysToExpire), Money.of(20.0), Quantity.of(quantity));
+    }
+}
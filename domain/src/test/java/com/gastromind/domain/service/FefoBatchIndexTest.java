@@ -0,0 +1,130 @@
+package com.gastromind.domain.service;
+
+import com.gastromind.domain.entity.Batch;
+import com.gastromind.domain.entity.Product;
+import com.gastromind.domain.valueobject.Category;
+import com.gastromind.domain.valueobject.Money;
+import com.gastromind.domain.valueobject.Quantity;
+import com.gastromind.domain.valueobject.UnitOfMeasure;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("FefoBatchIndex debería")
+class FefoBatchIndexTest {
+
+    private Product product;
+    private FefoBatchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        product = Product.create("Leche", "Leche entera", Category.DAIRY, UnitOfMeasure.LITER, Set.of());
+        index = new FefoBatchIndex(product);
+    }
+
+    @Test
+    @DisplayName("Devolver primero el lote que caduca antes")
+    void shouldPeekBatchExpiringFirst() {
+        Batch later = batch("LOT-LATER", 10, 5.0);
+        Batch sooner = batch("LOT-SOONER", 2, 5.0);
+
+        index.add(later);
+        index.add(sooner);
+
+        assertThat(index.peek()).isSameAs(sooner);
+        assertThat(index.batches()).containsExactly(sooner, later);
+    }
+
+    @Test
+    @DisplayName("Consumir por orden de caducidad y sacar los lotes agotados")
+    void shouldConsumeFefoAndRemoveDepletedBatches() {
+        Batch sooner = batch("LOT-SOONER", 2, 5.0);
+        Batch later = batch("LOT-LATER", 10, 5.0);
+        index = FefoBatchIndex.of(product, List.of(later, sooner));
+
+        index.consume(Quantity.of(7.0));
+
+        assertThat(sooner.getCurrentQuantity().value()).isEqualTo(0.0);
+        assertThat(later.getCurrentQuantity().value()).isEqualTo(3.0);
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.available().value()).isEqualTo(3.0);
+    }
+
+    @Test
+    @DisplayName("No indexar lotes ya agotados")
+    void shouldIgnoreDepletedBatches() {
+        Batch depleted = batch("LOT-EMPTY", 2, 5.0);
+        depleted.consume(Quantity.of(5.0));
+
+        index.add(depleted);
+
+        assertThat(index.isEmpty()).isTrue();
+    }
+
+    @Test
+    @DisplayName("No permitir lotes de otro producto")
+    void shouldThrowExceptionWhenBatchBelongsToAnotherProduct() {
+        Product other = Product.create("Nata", null, Category.DAIRY, UnitOfMeasure.LITER, Set.of());
+        Batch otherBatch = Batch.create(other, "LOT-OTHER", LocalDate.now().plusDays(3), Money.of(5.0), Quantity.of(1.0));
+
+        assertThatThrownBy(() -> index.add(otherBatch))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Batch belongs to another product");
+    }
+
+    @Test
+    @DisplayName("Rechazar un lote que haría desbordar el total en micro-unidades")
+    void shouldRejectBatchWhenAvailableOverflows() {
+        index.add(batch("LOT-001", 2, 5e12));
+
+        assertThatThrownBy(() -> index.add(batch("LOT-002", 3, 5e12))).isInstanceOf(ArithmeticException.class);
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.available().value()).isEqualTo(5e12);
+    }
+
+    @Test
+    @DisplayName("Llevar el disponible al consumir un lote concreto")
+    void shouldTrackAvailableWhenConsumingSpecificBatch() {
+        Batch sooner = batch("LOT-SOONER", 2, 5.0);
+        Batch later = batch("LOT-LATER", 10, 5.0);
+        index = FefoBatchIndex.of(product, List.of(sooner, later));
+
+        index.consume(later, Quantity.of(5.0).toMicros());
+        index.consume(Quantity.of(2.0));
+
+        assertThat(later.getCurrentQuantity().value()).isEqualTo(0.0);
+        assertThat(index.available().value()).isEqualTo(3.0);
+        assertThat(index.availableMicros()).isEqualTo(Quantity.of(3.0).toMicros());
+    }
+
+    @Test
+    @DisplayName("Recorrer los lotes por caducidad hasta que se pide parar, sin sacarlos del índice")
+    void shouldVisitBatchesInFefoOrder() {
+        Batch later = batch("LOT-LATER", 10, 5.0);
+        Batch middle = batch("LOT-MIDDLE", 5, 5.0);
+        Batch sooner = batch("LOT-SOONER", 2, 5.0);
+        index = FefoBatchIndex.of(product, List.of(later, sooner, middle));
+        List<Batch> visited = new ArrayList<>();
+
+        index.visitFefo(batch -> {
+            visited.add(batch);
+            return visited.size() < 2;
+        });
+
+        assertThat(visited).containsExactly(sooner, middle);
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.batches()).containsExactly(sooner, middle, later);
+    }
+
+    private Batch batch(String sku, int daysToExpire, double quantity) {
+        return Batch.create(product, sku, LocalDate.now().plusDays(daysToExpire), Money.of(10.0), Quantity.of(quantity));
+    }
+}
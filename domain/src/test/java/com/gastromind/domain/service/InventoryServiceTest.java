@@ -2,20 +2,29 @@ package com.gastromind.domain.service;
 
 import com.gastromind.domain.entity.Batch;
 import com.gastromind.domain.entity.Product;
+import com.gastromind.domain.entity.Recipe;
 import com.gastromind.domain.exception.NotEnoughStockException;
 import com.gastromind.domain.valueobject.Category;
+import com.gastromind.domain.valueobject.Difficulty;
 import com.gastromind.domain.valueobject.Money;
 import com.gastromind.domain.valueobject.Quantity;
+import com.gastromind.domain.valueobject.RecipeIngredient;
+import com.gastromind.domain.valueobject.SubRecipeIngredient;
 import com.gastromind.domain.valueobject.UnitOfMeasure;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -56,6 +65,20 @@ class InventoryServiceTest {
             assertThat(totalStock.value()).isEqualTo(17.0);
         }
 
+        @Test
+        @DisplayName("fallar en vez de dar la vuelta cuando la suma no cabe en micro-unidades")
+        void shouldThrowExceptionWhenSumOverflows() {
+            List<Batch> batches = List.of(
+                    Batch.create(product, "LOT-2026-001", LocalDate.now().plusMonths(6), Money.of(50.0), Quantity.of(5e12)),
+                    Batch.create(product, "LOT-2026-002", LocalDate.now().plusMonths(5), Money.of(50.0), Quantity.of(5e12))
+            );
+
+            assertThatThrownBy(() -> inventoryService.calculateCurrentStock(product, batches))
+                    .isInstanceOf(ArithmeticException.class);
+            assertThatThrownBy(() -> inventoryService.consumeProduct(product, Quantity.of(1.0), batches))
+                    .isInstanceOf(ArithmeticException.class);
+        }
+
         @Test
         @DisplayName("fallar con un producto nulo")
         void shouldThrowExceptionWhenProductIsNull() {
@@ -211,6 +234,21 @@ class InventoryServiceTest {
                     .hasMessage("Amount to consume must be greater than zero");
         }
 
+        @Test
+        @DisplayName("no perder consumos con varios hilos consumiendo el mismo producto")
+        void shouldNotLoseConsumptionsWithConcurrentThreads() {
+            Batch batch = Batch.create(product, "LOT-2026-001", LocalDate.now().plusMonths(6), Money.of(50.0), Quantity.of(1000.0));
+            List<Batch> batches = new ArrayList<>(List.of(batch));
+
+            try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+                for (int i = 0; i < 1000; i++) {
+                    executor.submit(() -> inventoryService.consumeProduct(product, Quantity.of(1.0), batches));
+                }
+            }
+
+            assertThat(batch.getCurrentQuantity().value()).isEqualTo(0.0);
+        }
+
         @Test
         @DisplayName("lanzar excepción si la lista de lotes es null")
         void shouldThrowExceptionWhenBatchesIsNull() {
@@ -219,4 +257,234 @@ class InventoryServiceTest {
                     .hasMessage("Batches list cannot be null");
         }
     }
+
+    @Nested
+    @DisplayName("al consumir desde el índice FEFO")
+    class ConsumeProductFromIndex {
+
+        @Test
+        @DisplayName("consumir primero los lotes que caducan antes")
+        void shouldConsumeBatchesExpiringFirst() {
+            Batch fresh = Batch.create(product, "LOT-FRESH", LocalDate.now().plusMonths(6), Money.of(50.0), Quantity.of(10.0));
+            Batch expiring = Batch.create(product, "LOT-EXPIRING", LocalDate.now().plusMonths(1), Money.of(50.0), Quantity.of(5.0));
+            FefoBatchIndex index = new FefoBatchIndex(product);
+            inventoryService.receiveBatch(fresh, index);
+            inventoryService.receiveBatch(expiring, index);
+
+            inventoryService.consumeProductFromIndex(product, Quantity.of(8.0), index);
+
+            assertThat(expiring.getCurrentQuantity().value()).isEqualTo(0.0);
+            assertThat(fresh.getCurrentQuantity().value()).isEqualTo(7.0);
+        }
+
+        @Test
+        @DisplayName("no modificar ningún lote si no hay stock suficiente")
+        void shouldNotModifyAnyBatchWhenNotEnoughStock() {
+            Batch batch = Batch.create(product, "LOT-2026-001", LocalDate.now().plusMonths(6), Money.of(50.0), Quantity.of(5.0));
+            FefoBatchIndex index = FefoBatchIndex.of(product, List.of(batch));
+
+            assertThatThrownBy(() -> inventoryService.consumeProductFromIndex(product, Quantity.of(10.0), index))
+                    .isInstanceOf(NotEnoughStockException.class);
+
+            assertThat(batch.getCurrentQuantity().value()).isEqualTo(5.0);
+        }
+    }
+
+    @Nested
+    @DisplayName("al consumir recetas")
+    class ConsumeRecipe {
+
+        private Product tomato;
+        private Recipe recipe;
+
+        @BeforeEach
+        void setUp() {
+            tomato = Product.create("Tomate", "Tomate pera", Category.VEGETABLE, UnitOfMeasure.GRAM, Set.of());
+            //Receta para 4 raciones
+            recipe = Recipe.create("Arroz con tomate", null, Duration.ofMinutes(30), Difficulty.EASY, 4);
+            recipe.addIngredient(RecipeIngredient.of(product, Quantity.of(400.0)));
+            recipe.addIngredient(RecipeIngredient.of(tomato, Quantity.of(200.0)));
+        }
+
+        @Test
+        @DisplayName("descontar todos los ingredientes escalados por las raciones servidas")
+        void shouldConsumeAllIngredientsScaledByServings() {
+            Batch rice = Batch.create(product, "LOT-RICE", LocalDate.now().plusMonths(6), Money.of(50.0), Quantity.of(1000.0));
+            Batch tomatoes = Batch.create(tomato, "LOT-TOMATO", LocalDate.now().plusDays(5), Money.of(10.0), Quantity.of(500.0));
+            Map<UUID, List<Batch>> batches = Map.of(
+                    product.getId(), List.of(rice),
+                    tomato.getId(), List.of(tomatoes));
+
+            inventoryService.consumeRecipe(recipe, 2, batches);
+
+            assertThat(rice.getCurrentQuantity().value()).isEqualTo(800.0);
+            assertThat(tomatoes.getCurrentQuantity().value()).isEqualTo(400.0);
+        }
+
+        @Test
+        @DisplayName("no descontar ningún ingrediente si uno no tiene stock suficiente")
+        void shouldNotConsumeAnyIngredientWhenOneIsShort() {
+            Batch rice = Batch.create(product, "LOT-RICE", LocalDate.now().plusMonths(6), Money.of(50.0), Quantity.of(1000.0));
+            Batch tomatoes = Batch.create(tomato, "LOT-TOMATO", LocalDate.now().plusDays(5), Money.of(10.0), Quantity.of(50.0));
+            Map<UUID, List<Batch>> batches = Map.of(
+                    product.getId(), List.of(rice),
+                    tomato.getId(), List.of(tomatoes));
+
+            assertThatThrownBy(() -> inventoryService.consumeRecipe(recipe, 4, batches))
+                    .isInstanceOf(NotEnoughStockException.class)
+                    .hasMessageContaining("Tomate");
+
+            assertThat(rice.getCurrentQuantity().value()).isEqualTo(1000.0);
+            assertThat(tomatoes.getCurrentQuantity().value()).isEqualTo(50.0);
+        }
+
+        @Test
+        @DisplayName("descontar los productos de las sub-recetas escalados por las raciones que se usan")
+        void shouldConsumeSubRecipeProducts() {
+            Product oil = Product.create("Aceite", "Aceite de oliva", Category.SAUCE, UnitOfMeasure.GRAM, Set.of());
+            //Sofrito para 10 raciones; el arroz (4 raciones) lleva 4 raciones de sofrito
+            Recipe sofrito = Recipe.create("Sofrito", null, Duration.ofMinutes(40), Difficulty.EASY, 10);
+            sofrito.addIngredient(RecipeIngredient.of(tomato, Quantity.of(1000.0)));
+            sofrito.addIngredient(RecipeIngredient.of(oil, Quantity.of(100.0)));
+            recipe.addSubRecipe(SubRecipeIngredient.of(sofrito, Quantity.of(4.0)));
+            Batch rice = Batch.create(product, "LOT-RICE", LocalDate.now().plusMonths(6), Money.of(50.0), Quantity.of(1000.0));
+            Batch tomatoes = Batch.create(tomato, "LOT-TOMATO", LocalDate.now().plusDays(5), Money.of(10.0), Quantity.of(500.0));
+            Batch oilBatch = Batch.create(oil, "LOT-OIL", LocalDate.now().plusMonths(12), Money.of(8.0), Quantity.of(100.0));
+            Map<UUID, List<Batch>> batches = Map.of(
+                    product.getId(), List.of(rice),
+                    tomato.getId(), List.of(tomatoes),
+                    oil.getId(), List.of(oilBatch));
+
+            inventoryService.consumeRecipe(recipe, 2, batches);
+
+            assertThat(rice.getCurrentQuantity().value()).isEqualTo(800.0);
+            //100 g directos + 200 g del sofrito
+            assertThat(tomatoes.getCurrentQuantity().value()).isEqualTo(200.0);
+            assertThat(oilBatch.getCurrentQuantity().value()).isEqualTo(80.0);
+        }
+
+        @Test
+        @DisplayName("no descontar nada si falta un producto de una sub-receta")
+        void shouldNotConsumeAnythingWhenSubRecipeProductIsShort() {
+            Product oil = Product.create("Aceite", "Aceite de oliva", Category.SAUCE, UnitOfMeasure.GRAM, Set.of());
+            Recipe sofrito = Recipe.create("Sofrito", null, Duration.ofMinutes(40), Difficulty.EASY, 10);
+            sofrito.addIngredient(RecipeIngredient.of(oil, Quantity.of(100.0)));
+            recipe.addSubRecipe(SubRecipeIngredient.of(sofrito, Quantity.of(4.0)));
+            Batch rice = Batch.create(product, "LOT-RICE", LocalDate.now().plusMonths(6), Money.of(50.0), Quantity.of(1000.0));
+            Batch tomatoes = Batch.create(tomato, "LOT-TOMATO", LocalDate.now().plusDays(5), Money.of(10.0), Quantity.of(500.0));
+            Batch oilBatch = Batch.create(oil, "LOT-OIL", LocalDate.now().plusMonths(12), Money.of(8.0), Quantity.of(10.0));
+            Map<UUID, List<Batch>> batches = Map.of(
+                    product.getId(), List.of(rice),
+                    tomato.getId(), List.of(tomatoes),
+                    oil.getId(), List.of(oilBatch));
+
+            assertThatThrownBy(() -> inventoryService.consumeRecipe(recipe, 2, batches))
+                    .isInstanceOf(NotEnoughStockException.class)
+                    .hasMessageContaining("Aceite");
+
+            assertThat(rice.getCurrentQuantity().value()).isEqualTo(1000.0);
+            assertThat(tomatoes.getCurrentQuantity().value()).isEqualTo(500.0);
+            assertThat(oilBatch.getCurrentQuantity().value()).isEqualTo(10.0);
+        }
+
+        @Test
+        @DisplayName("fallar si un ingrediente no tiene lotes")
+        void shouldThrowExceptionWhenIngredientHasNoBatches() {
+            Batch rice = Batch.create(product, "LOT-RICE", LocalDate.now().plusMonths(6), Money.of(50.0), Quantity.of(1000.0));
+            Map<UUID, List<Batch>> batches = Map.of(product.getId(), List.of(rice));
+
+            assertThatThrownBy(() -> inventoryService.consumeRecipe(recipe, 1, batches))
+                    .isInstanceOf(NotEnoughStockException.class);
+        }
+
+        @Test
+        @DisplayName("lanzar excepción si las raciones son cero o negativas")
+        void shouldThrowExceptionWhenServingsIsNotPositive() {
+            assertThatThrownBy(() -> inventoryService.consumeRecipe(recipe, 0, Map.of()))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Servings must be greater than zero");
+        }
+
+        @Test
+        @DisplayName("lanzar excepción si la receta es null")
+        void shouldThrowExceptionWhenRecipeIsNull() {
+            assertThatThrownBy(() -> inventoryService.consumeRecipe(null, 1, Map.of()))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Recipe cannot be null");
+        }
+    }
+
+    @Nested
+    @DisplayName("al medir")
+    class Metrics {
+
+        private RecordingMetrics metrics;
+
+        @BeforeEach
+        void setUp() {
+            metrics = new RecordingMetrics();
+            inventoryService = new InventoryService(new ProductLockRegistry(16, metrics), metrics);
+        }
+
+        @Test
+        @DisplayName("registrar la espera y la retención del lock y los lotes recorridos")
+        void shouldRecordLockTimesAndScannedBatches() {
+            Batch first = Batch.create(product, "LOT-001", LocalDate.now().plusDays(5), Money.of(10.0), Quantity.of(5.0));
+            Batch second = Batch.create(product, "LOT-002", LocalDate.now().plusDays(9), Money.of(10.0), Quantity.of(5.0));
+
+            inventoryService.consumeProduct(product, Quantity.of(7.0), List.of(first, second));
+
+            assertThat(metrics.lockWaits).isEqualTo(1);
+            assertThat(metrics.lockHolds).isEqualTo(1);
+            assertThat(metrics.scanned).containsExactly(2);
+            assertThat(metrics.consumptions).containsExactly(Category.GRAIN);
+            assertThat(metrics.stockOuts).isEmpty();
+        }
+
+        @Test
+        @DisplayName("contar las roturas de stock por categoría")
+        void shouldRecordStockOutsByCategory() {
+            FefoBatchIndex index = new FefoBatchIndex(product);
+
+            assertThatThrownBy(() -> inventoryService.consumeProductFromIndex(product, Quantity.of(1.0), index))
+                    .isInstanceOf(NotEnoughStockException.class);
+
+            assertThat(metrics.consumptions).containsExactly(Category.GRAIN);
+            assertThat(metrics.stockOuts).containsExactly(Category.GRAIN);
+        }
+    }
+
+    static class RecordingMetrics implements InventoryMetrics {
+
+        int lockWaits;
+        int lockHolds;
+        final List<Integer> scanned = new ArrayList<>();
+        final List<Category> consumptions = new ArrayList<>();
+        final List<Category> stockOuts = new ArrayList<>();
+
+        @Override
+        public void lockWaited(long nanos) {
+            lockWaits++;
+        }
+
+        @Override
+        public void lockHeld(long nanos) {
+            lockHolds++;
+        }
+
+        @Override
+        public void batchesScanned(int batches) {
+            scanned.add(batches);
+        }
+
+        @Override
+        public void consumptionRequested(Category category) {
+            consumptions.add(category);
+        }
+
+        @Override
+        public void stockOut(Category category) {
+            stockOuts.add(category);
+        }
+    }
 }
@@ -0,0 +1,170 @@
+package com.gastromind.domain.service;
+
+import com.gastromind.domain.entity.Batch;
+import com.gastromind.domain.entity.Product;
+import com.gastromind.domain.valueobject.Category;
+import com.gastromind.domain.valueobject.ExpiryBucket;
+import com.gastromind.domain.valueobject.InventoryValuation;
+import com.gastromind.domain.valueobject.Money;
+import com.gastromind.domain.valueobject.Quantity;
+import com.gastromind.domain.valueobject.UnitOfMeasure;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("InventoryValuationService debería")
+class InventoryValuationServiceTest {
+
+    private final LocalDate today = LocalDate.now();
+    private InventoryValuationService service;
+    private Product milk;
+    private Product flour;
+
+    @BeforeEach
+    void setUp() {
+        service = new InventoryValuationService();
+        milk = Product.create("Leche", "Entera", Category.DAIRY, UnitOfMeasure.LITER, Set.of());
+        flour = Product.create("Harina", "Trigo", Category.GRAIN, UnitOfMeasure.KILOGRAM, Set.of());
+    }
+
+    @Nested
+    @DisplayName("Al valorar el inventario")
+    class Valuation {
+
+        @Test
+        @DisplayName("Sumar la cantidad actual por el coste unitario de cada lote")
+        void shouldSumCurrentQuantityTimesUnitCost() {
+            Batch consumedMilk = Batch.create(milk, "LOT-001", today.plusDays(2), Money.of(10.0), Quantity.of(10.0));
+            consumedMilk.consume(Quantity.of(4.0));
+            Batch freshMilk = Batch.create(milk, "LOT-002", today.plusDays(20), Money.of(20.0), Quantity.of(10.0));
+            Batch flourBatch = Batch.create(flour, "LOT-003", today.plusDays(60), Money.of(50.0), Quantity.of(25.0));
+
+            InventoryValuation valuation = service.value(List.of(consumedMilk, freshMilk, flourBatch), today);
+
+            assertThat(valuation.total()).isEqualTo(Money.of(76.0));
+            assertThat(valuation.batches()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("Desglosar el valor por categoría, producto y tramo de caducidad")
+        void shouldBreakDownByCategoryProductAndExpiry() {
+            Batch consumedMilk = Batch.create(milk, "LOT-001", today.plusDays(2), Money.of(10.0), Quantity.of(10.0));
+            consumedMilk.consume(Quantity.of(4.0));
+            Batch freshMilk = Batch.create(milk, "LOT-002", today.plusDays(20), Money.of(20.0), Quantity.of(10.0));
+            Batch flourBatch = Batch.create(flour, "LOT-003", today.plusDays(60), Money.of(50.0), Quantity.of(25.0));
+
+            InventoryValuation valuation = service.value(List.of(consumedMilk, freshMilk, flourBatch), today);
+
+            assertThat(valuation.byCategory()).containsEntry(Category.DAIRY, Money.of(26.0))
+                    .containsEntry(Category.GRAIN, Money.of(50.0))
+                    .hasSize(2);
+            assertThat(valuation.byProduct()).containsEntry(milk.getId(), Money.of(26.0))
+                    .containsEntry(flour.getId(), Money.of(50.0));
+            assertThat(valuation.byExpiry()).containsEntry(ExpiryBucket.WITHIN_3_DAYS, Money.of(6.0))
+                    .containsEntry(ExpiryBucket.WITHIN_30_DAYS, Money.of(20.0))
+                    .containsEntry(ExpiryBucket.LATER, Money.of(50.0))
+                    .doesNotContainKey(ExpiryBucket.EXPIRED);
+        }
+
+        @Test
+        @DisplayName("Contar como caducado el stock de lotes cuya fecha ya ha pasado")
+        void shouldPutPastDatesInExpiredBucket() {
+            Batch batch = Batch.create(milk, "LOT-001", today.plusDays(1), Money.of(10.0), Quantity.of(10.0));
+
+            InventoryValuation valuation = service.value(List.of(batch), today.plusDays(3));
+
+            assertThat(valuation.byExpiry()).containsOnlyKeys(ExpiryBucket.EXPIRED);
+        }
+
+        @Test
+        @DisplayName("Ignorar los lotes agotados")
+        void shouldSkipDepletedBatches() {
+            Batch depleted = Batch.create(milk, "LOT-001", today.plusDays(5), Money.of(10.0), Quantity.of(10.0));
+            depleted.consume(Quantity.of(10.0));
+
+            InventoryValuation valuation = service.value(List.of(depleted), today);
+
+            assertThat(valuation.total()).isEqualTo(Money.ofMinor(0, Money.EUR));
+            assertThat(valuation.batches()).isZero();
+            assertThat(valuation.byProduct()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Repartir el redondeo para que cada desglose sume exactamente el total")
+        void shouldMakeBreakdownsAddUpToTotal() {
+            Product salmon = Product.create("Salmón", "Lomo", Category.FISH, UnitOfMeasure.KILOGRAM, Set.of());
+            //Cada lote costó un céntimo y queda la mitad: tres líneas de medio céntimo que suman 0,015€
+            List<Batch> batches = List.of(
+                    Batch.create(milk, "LOT-001", today.plusDays(2), Money.of(0.01), Quantity.of(2.0)),
+                    Batch.create(flour, "LOT-002", today.plusDays(20), Money.of(0.01), Quantity.of(2.0)),
+                    Batch.create(salmon, "LOT-003", today.plusDays(60), Money.of(0.01), Quantity.of(2.0)));
+            batches.forEach(batch -> batch.consume(Quantity.of(1.0)));
+
+            InventoryValuation valuation = service.value(batches, today);
+
+            assertThat(valuation.total()).isEqualTo(Money.of(0.02));
+            assertThat(valuation.byCategory().values().stream().mapToLong(Money::toMinor).sum()).isEqualTo(2);
+            assertThat(valuation.byProduct().values().stream().mapToLong(Money::toMinor).sum()).isEqualTo(2);
+            assertThat(valuation.byExpiry().values().stream().mapToLong(Money::toMinor).sum()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Dar el mismo resultado en paralelo que con un solo hilo")
+        void shouldMatchSequentialResultWhenSplitAcrossThreads() {
+            List<Batch> batches = new ArrayList<>();
+            for (int i = 0; i < 50_000; i++) {
+                Product product = i % 2 == 0 ? milk : flour;
+                batches.add(Batch.create(product, "LOT-" + i, today.plusDays(i % 40), Money.of(3.0), Quantity.of(2.0)));
+            }
+            ForkJoinPool single = new ForkJoinPool(1);
+            ForkJoinPool parallel = new ForkJoinPool(4);
+            try {
+                InventoryValuation sequential = new InventoryValuationService(single).value(batches, today);
+                InventoryValuation split = new InventoryValuationService(parallel).value(batches, today);
+
+                assertThat(split).isEqualTo(sequential);
+                assertThat(split.total()).isEqualTo(Money.of(new BigDecimal("150000")));
+            } finally {
+                single.shutdown();
+                parallel.shutdown();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Al validar")
+    class Validation {
+
+        @Test
+        @DisplayName("Rechazar lotes en monedas distintas")
+        void shouldRejectMixedCurrencies() {
+            Batch euros = Batch.create(milk, "LOT-001", today.plusDays(5), Money.of(10.0), Quantity.of(10.0));
+            Batch dollars = Batch.create(milk, "LOT-002", today.plusDays(5),
+                    Money.ofMinor(1_000, Currency.getInstance("USD")), Quantity.of(10.0));
+
+            assertThatThrownBy(() -> service.value(List.of(euros, dollars), today))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Cannot add different currencies");
+        }
+
+        @Test
+        @DisplayName("Rechazar una lista de lotes nula")
+        void shouldRejectNullBatches() {
+            assertThatThrownBy(() -> service.value(null, today))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Batches list cannot be null");
+        }
+    }
+}
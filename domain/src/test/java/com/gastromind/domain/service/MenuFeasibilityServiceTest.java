@@ -0,0 +1,213 @@
+package com.gastromind.domain.service;
+
+import com.gastromind.domain.entity.Batch;
+import com.gastromind.domain.entity.Product;
+import com.gastromind.domain.entity.Recipe;
+import com.gastromind.domain.testing.MovableClock;
+import com.gastromind.domain.valueobject.Category;
+import com.gastromind.domain.valueobject.Difficulty;
+import com.gastromind.domain.valueobject.Money;
+import com.gastromind.domain.valueobject.Quantity;
+import com.gastromind.domain.valueobject.RecipeIngredient;
+import com.gastromind.domain.valueobject.SubRecipeIngredient;
+import com.gastromind.domain.valueobject.UnitOfMeasure;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("MenuFeasibilityService debería")
+class MenuFeasibilityServiceTest {
+
+    private MenuFeasibilityService feasibility;
+    private InventoryService inventoryService;
+    private Product egg;
+    private Product potato;
+    private FefoBatchIndex eggs;
+    private FefoBatchIndex potatoes;
+    private Recipe omelette;
+    private Recipe friedEggs;
+
+    @BeforeEach
+    void setUp() {
+        feasibility = new MenuFeasibilityService();
+        inventoryService = new InventoryService();
+        inventoryService.addListener(feasibility);
+        egg = Product.create("Huevo", "Camperos", Category.DAIRY, UnitOfMeasure.UNIT, Set.of());
+        potato = Product.create("Patata", "Agria", Category.VEGETABLE, UnitOfMeasure.KILOGRAM, Set.of());
+        eggs = new FefoBatchIndex(egg);
+        potatoes = new FefoBatchIndex(potato);
+
+        //Por ración: 2 huevos y 0,25 kg de patata
+        omelette = Recipe.create("Tortilla", "De patatas", Duration.ofMinutes(30), Difficulty.EASY, 4);
+        omelette.addIngredient(RecipeIngredient.of(egg, Quantity.of(8.0)));
+        omelette.addIngredient(RecipeIngredient.of(potato, Quantity.of(1.0)));
+        //Por ración: 2 huevos y 0,2 kg de patata
+        friedEggs = Recipe.create("Huevos fritos", "Con patatas", Duration.ofMinutes(10), Difficulty.EASY, 1);
+        friedEggs.addIngredient(RecipeIngredient.of(egg, Quantity.of(2.0)));
+        friedEggs.addIngredient(RecipeIngredient.of(potato, Quantity.of(0.2)));
+        feasibility.register(omelette);
+        feasibility.register(friedEggs);
+    }
+
+    @Nested
+    @DisplayName("Al calcular las raciones de cada plato")
+    class PerDish {
+
+        @Test
+        @DisplayName("Limitar cada plato por el ingrediente que antes se acaba")
+        void shouldLimitEachDishByItsScarcestIngredient() {
+            receive(egg, eggs, 20.0);
+            receive(potato, potatoes, 2.0);
+
+            assertThat(feasibility.maxServings(omelette)).isEqualTo(8);
+            assertThat(feasibility.maxServings(friedEggs)).isEqualTo(10);
+        }
+
+        @Test
+        @DisplayName("Actualizar las raciones con cada consumo")
+        void shouldUpdateServingsOnConsumption() {
+            receive(egg, eggs, 20.0);
+            receive(potato, potatoes, 2.0);
+
+            inventoryService.consumeProductFromIndex(egg, Quantity.of(15.0), eggs);
+
+            assertThat(feasibility.maxServings(omelette)).isEqualTo(2);
+            assertThat(feasibility.maxServings(friedEggs)).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Desglosar las sub-recetas en sus productos")
+        void shouldFlattenSubRecipes() {
+            Product oil = Product.create("Aceite", "Oliva", Category.SAUCE, UnitOfMeasure.LITER, Set.of());
+            Recipe mayonnaise = Recipe.create("Mayonesa", "Casera", Duration.ofMinutes(5), Difficulty.EASY, 10);
+            mayonnaise.addIngredient(RecipeIngredient.of(egg, Quantity.of(2.0)));
+            mayonnaise.addIngredient(RecipeIngredient.of(oil, Quantity.of(1.0)));
+            Recipe salad = Recipe.create("Ensaladilla", "Rusa", Duration.ofMinutes(40), Difficulty.EASY, 2);
+            salad.addIngredient(RecipeIngredient.of(potato, Quantity.of(0.5)));
+            salad.addSubRecipe(SubRecipeIngredient.of(mayonnaise, Quantity.of(4.0)));
+            feasibility.register(salad);
+
+            receive(potato, potatoes, 10.0);
+            receive(egg, eggs, 100.0);
+            receive(oil, new FefoBatchIndex(oil), 1.0);
+
+            //Cada ración lleva 2 raciones de mayonesa = 0,2 L de aceite
+            assertThat(feasibility.maxServings(salad)).isEqualTo(5);
+        }
+
+        @Test
+        @DisplayName("Avisar cuando un plato se agota y cuando vuelve a haber")
+        void shouldNotifySoldOutAndBackInStock() {
+            List<String> notifications = new ArrayList<>();
+            feasibility.addListener((recipe, available) -> notifications.add(recipe.getName() + ":" + available));
+            receive(egg, eggs, 4.0);
+            receive(potato, potatoes, 2.0);
+            feasibility.refresh();
+            notifications.clear();
+
+            inventoryService.consumeProductFromIndex(egg, Quantity.of(3.0), eggs);
+            assertThat(feasibility.soldOut()).containsExactlyInAnyOrder(omelette, friedEggs);
+
+            receive(egg, eggs, 1.0);
+            feasibility.refresh();
+
+            assertThat(notifications).containsExactlyInAnyOrder("Tortilla:false", "Huevos fritos:false",
+                    "Tortilla:true", "Huevos fritos:true");
+            assertThat(feasibility.soldOut()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Recalcular los platos fuera del lock del inventario")
+        void shouldRecomputeOutsideInventoryLock() {
+            List<String> notifications = new ArrayList<>();
+            feasibility.addListener((recipe, available) -> notifications.add(recipe.getName() + ":" + available));
+            receive(egg, eggs, 4.0);
+            receive(potato, potatoes, 2.0);
+            feasibility.refresh();
+            notifications.clear();
+
+            inventoryService.consumeProductFromIndex(egg, Quantity.of(3.0), eggs);
+
+            assertThat(notifications).isEmpty();
+            feasibility.refresh();
+            assertThat(notifications).containsExactlyInAnyOrder("Tortilla:false", "Huevos fritos:false");
+        }
+
+        @Test
+        @DisplayName("No contar el stock caducado")
+        void shouldIgnoreExpiredStock() {
+            MovableClock clock = new MovableClock();
+            MenuFeasibilityService withClock = new MenuFeasibilityService(clock);
+            inventoryService.addListener(withClock);
+            withClock.register(friedEggs);
+            inventoryService.receiveBatch(Batch.create(egg, "LOT-SOON", LocalDate.now(clock).plusDays(1),
+                    Money.of(10.0), Quantity.of(4.0)), eggs);
+            inventoryService.receiveBatch(Batch.create(egg, "LOT-LATER", LocalDate.now(clock).plusDays(10),
+                    Money.of(10.0), Quantity.of(2.0)), eggs);
+            receive(potato, potatoes, 2.0);
+
+            assertThat(withClock.maxServings(friedEggs)).isEqualTo(3);
+
+            clock.advanceDays(1);
+            assertThat(withClock.maxServings(friedEggs)).isEqualTo(3);
+
+            clock.advanceDays(1);
+            assertThat(withClock.maxServings(friedEggs)).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("Al repartir el stock entre platos")
+    class Joint {
+
+        @Test
+        @DisplayName("Repartir los ingredientes compartidos sin pasarse del stock")
+        void shouldShareIngredientsBetweenDishes() {
+            receive(egg, eggs, 20.0);
+            receive(potato, potatoes, 2.0);
+
+            Map<UUID, Long> servings = feasibility.jointServings();
+
+            assertThat(servings).containsEntry(omelette.getId(), 4L).containsEntry(friedEggs.getId(), 5L);
+        }
+
+        @Test
+        @DisplayName("Seguir la mezcla de ventas indicada")
+        void shouldFollowSalesMix() {
+            receive(egg, eggs, 20.0);
+            receive(potato, potatoes, 2.0);
+
+            Map<UUID, Long> servings = feasibility.jointServings(Map.of(omelette.getId(), 1.0,
+                    friedEggs.getId(), 4.0));
+
+            assertThat(servings).containsEntry(omelette.getId(), 1L).containsEntry(friedEggs.getId(), 8L);
+        }
+
+        @Test
+        @DisplayName("Rechazar recetas no registradas")
+        void shouldRejectUnknownRecipes() {
+            Recipe other = Recipe.create("Gazpacho", "Andaluz", Duration.ofMinutes(15), Difficulty.EASY, 4);
+
+            assertThatThrownBy(() -> feasibility.jointServings(Map.of(other.getId(), 1.0)))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Recipe is not registered");
+        }
+    }
+
+    private void receive(Product product, FefoBatchIndex index, double quantity) {
+        inventoryService.receiveBatch(Batch.create(product, "LOT-" + product.getName(), LocalDate.now().plusDays(10),
+                Money.of(10.0), Quantity.of(quantity)), index);
+    }
+}
@@ -0,0 +1,153 @@
+package com.gastromind.domain.service;
+
+import com.gastromind.domain.entity.Batch;
+import com.gastromind.domain.entity.Product;
+import com.gastromind.domain.exception.NotEnoughStockException;
+import com.gastromind.domain.valueobject.Category;
+import com.gastromind.domain.valueobject.Money;
+import com.gastromind.domain.valueobject.Quantity;
+import com.gastromind.domain.valueobject.UnitOfMeasure;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("MultiSiteInventory debería")
+class MultiSiteInventoryTest {
+
+    private MultiSiteInventory inventory;
+    private SiteInventory madrid;
+    private SiteInventory barcelona;
+    private Product salmon;
+    private Batch madridBatch;
+
+    @BeforeEach
+    void setUp() {
+        inventory = new MultiSiteInventory();
+        madrid = inventory.addSite("MAD-01");
+        barcelona = inventory.addSite("BCN-01");
+        salmon = Product.create("Salmón", "Lomo de salmón", Category.FISH, UnitOfMeasure.KILOGRAM, Set.of());
+        madridBatch = Batch.create(salmon, "LOT-001", LocalDate.now().plusDays(2), Money.of(60.0), Quantity.of(4.0));
+        madrid.receive(madridBatch);
+    }
+
+    @Nested
+    @DisplayName("Al separar por local")
+    class Sites {
+
+        @Test
+        @DisplayName("Llevar el stock de cada local por separado")
+        void shouldKeepStockPerSite() {
+            barcelona.receive(Batch.create(salmon, "LOT-002", LocalDate.now().plusDays(5), Money.of(30.0), Quantity.of(2.0)));
+
+            madrid.consume(salmon, Quantity.of(1.0));
+
+            assertThat(madrid.currentStock(salmon)).isEqualTo(Quantity.of(3.0));
+            assertThat(barcelona.currentStock(salmon)).isEqualTo(Quantity.of(2.0));
+        }
+
+        @Test
+        @DisplayName("Rechazar un local repetido")
+        void shouldRejectDuplicatedSite() {
+            assertThatThrownBy(() -> inventory.addSite("MAD-01"))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Site already exists");
+        }
+    }
+
+    @Nested
+    @DisplayName("Al traspasar entre locales")
+    class Transfer {
+
+        @Test
+        @DisplayName("Mover la cantidad a un lote nuevo con la misma caducidad y coste unitario")
+        void shouldMoveQuantityToNewBatch() {
+            Batch moved = inventory.transfer("MAD-01", madridBatch.getId(), "BCN-01", Quantity.of(1.5));
+
+            assertThat(madridBatch.getCurrentQuantity()).isEqualTo(Quantity.of(2.5));
+            assertThat(moved.getExpirationDate()).isEqualTo(madridBatch.getExpirationDate());
+            assertThat(moved.getPurchasePrice()).isEqualTo(Money.of(22.5));
+            assertThat(barcelona.findBatch(moved.getId())).contains(moved);
+            assertThat(inventory.stockBySite(salmon)).containsEntry("MAD-01", Quantity.of(2.5))
+                    .containsEntry("BCN-01", Quantity.of(1.5));
+        }
+
+        @Test
+        @DisplayName("No mover nada si el lote no tiene bastante")
+        void shouldRejectTransferAboveBatchStock() {
+            assertThatThrownBy(() -> inventory.transfer("MAD-01", madridBatch.getId(), "BCN-01", Quantity.of(5.0)))
+                    .isInstanceOf(NotEnoughStockException.class);
+            assertThat(madridBatch.getCurrentQuantity()).isEqualTo(Quantity.of(4.0));
+            assertThat(barcelona.currentStock(salmon)).isEqualTo(Quantity.of(0));
+        }
+
+        @Test
+        @DisplayName("No descontar del origen si no se puede crear el lote de destino")
+        void shouldKeepSourceWhenDestinationBatchIsInvalid() {
+            Batch expired = Batch.restore(UUID.randomUUID(), salmon, "LOT-OLD", LocalDate.now().minusDays(5),
+                    LocalDate.now().minusDays(1), Money.of(30.0), Quantity.of(2.0), Quantity.of(2.0).toMicros());
+            madrid.receive(expired);
+
+            assertThatThrownBy(() -> inventory.transfer("MAD-01", expired.getId(), "BCN-01", Quantity.of(1.0)))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Cannot accept expired products");
+            assertThat(expired.getCurrentQuantity()).isEqualTo(Quantity.of(2.0));
+            assertThat(madrid.currentStock(salmon)).isEqualTo(Quantity.of(6.0));
+            assertThat(barcelona.currentStock(salmon)).isEqualTo(Quantity.of(0));
+        }
+
+        @Test
+        @DisplayName("Rechazar un lote que no está en el local de origen")
+        void shouldRejectBatchFromAnotherSite() {
+            assertThatThrownBy(() -> inventory.transfer("BCN-01", madridBatch.getId(), "MAD-01", Quantity.of(1.0)))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Batch is not at the source site");
+        }
+
+        @Test
+        @DisplayName("Rechazar un traspaso al mismo local")
+        void shouldRejectTransferToSameSite() {
+            assertThatThrownBy(() -> inventory.transfer("MAD-01", madridBatch.getId(), "MAD-01", Quantity.of(1.0)))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Cannot transfer to the same site");
+        }
+    }
+
+    @Nested
+    @DisplayName("Al consultar el grupo")
+    class Group {
+
+        @Test
+        @DisplayName("Sumar el stock de todos los locales")
+        void shouldSumStockAcrossSites() {
+            barcelona.receive(Batch.create(salmon, "LOT-002", LocalDate.now().plusDays(5), Money.of(30.0), Quantity.of(2.0)));
+
+            assertThat(inventory.totalStock(salmon)).isEqualTo(Quantity.of(6.0));
+        }
+
+        @Test
+        @DisplayName("Juntar lo que caduca pronto en todos los locales")
+        void shouldMergeExpiringBatchesAcrossSites() {
+            Batch barcelonaBatch = Batch.create(salmon, "LOT-002", LocalDate.now().plusDays(1), Money.of(30.0),
+                    Quantity.of(2.0));
+            barcelona.receive(barcelonaBatch);
+            barcelona.receive(Batch.create(salmon, "LOT-003", LocalDate.now().plusDays(20), Money.of(30.0),
+                    Quantity.of(2.0)));
+
+            Map<String, List<Batch>> bySite = inventory.expiringWithin(3);
+
+            assertThat(bySite).containsEntry("MAD-01", List.of(madridBatch))
+                    .containsEntry("BCN-01", List.of(barcelonaBatch));
+            assertThat(inventory.expiringWithinGroup(3)).containsExactly(barcelonaBatch, madridBatch);
+        }
+    }
+}
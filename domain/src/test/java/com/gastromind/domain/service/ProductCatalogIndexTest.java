@@ -0,0 +1,76 @@
+package com.gastromind.domain.service;
+
+import com.gastromind.domain.entity.Product;
+import com.gastromind.domain.valueobject.Allergen;
+import com.gastromind.domain.valueobject.Category;
+import com.gastromind.domain.valueobject.UnitOfMeasure;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ProductCatalogIndex debería")
+class ProductCatalogIndexTest {
+
+    private ProductCatalogIndex index;
+    private Product milk;
+    private Product oatDrink;
+    private Product prawns;
+    private Product wine;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductCatalogIndex();
+        milk = Product.create("Leche", null, Category.DAIRY, UnitOfMeasure.LITER, Set.of(Allergen.DAIRY));
+        oatDrink = Product.create("Bebida de avena", null, Category.DAIRY, UnitOfMeasure.LITER, Set.of(Allergen.GLUTEN));
+        prawns = Product.create("Gambas", null, Category.SEAFOOD, UnitOfMeasure.KILOGRAM, Set.of(Allergen.CRUSTACEANS));
+        wine = Product.create("Vino blanco", null, Category.ALCOHOL, UnitOfMeasure.LITER, Set.of(Allergen.SULFITES));
+        index.register(milk);
+        index.register(oatDrink);
+        index.register(prawns);
+        index.register(wine);
+    }
+
+    @Test
+    @DisplayName("Buscar productos por categoría")
+    void shouldFindProductsByCategory() {
+        assertThat(index.byCategory(Category.SEAFOOD)).containsExactly(prawns);
+        assertThat(index.byCategory(Category.ALCOHOL)).containsExactly(wine);
+        assertThat(index.byCategory(Category.MEAT)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Buscar productos por alérgeno y por unidad")
+    void shouldFindProductsByAllergenAndUnit() {
+        assertThat(index.withAllergen(Allergen.DAIRY)).containsExactly(milk);
+        assertThat(index.byUnit(UnitOfMeasure.LITER)).containsExactly(milk, oatDrink, wine);
+    }
+
+    @Test
+    @DisplayName("Cruzar varias dimensiones a la vez")
+    void shouldIntersectDimensions() {
+        var dairyWithoutLactose = index.query()
+                .category(Category.DAIRY)
+                .withoutAllergen(Allergen.DAIRY)
+                .list();
+        var liquidsWithSulfitesOrSeafood = index.query()
+                .category(Category.ALCOHOL, Category.SEAFOOD)
+                .unit(UnitOfMeasure.LITER)
+                .list();
+
+        assertThat(dairyWithoutLactose).containsExactly(oatDrink);
+        assertThat(liquidsWithSulfitesOrSeafood).containsExactly(wine);
+    }
+
+    @Test
+    @DisplayName("No duplicar un producto registrado dos veces")
+    void shouldIgnoreDuplicatedRegistrations() {
+        index.register(milk);
+
+        assertThat(index.size()).isEqualTo(4);
+        assertThat(index.find(milk.getId())).contains(milk);
+    }
+}
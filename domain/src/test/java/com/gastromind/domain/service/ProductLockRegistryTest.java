@@ -0,0 +1,66 @@
+package com.gastromind.domain.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("ProductLockRegistry debería")
+class ProductLockRegistryTest {
+
+    @Test
+    @DisplayName("Devolver siempre el mismo lock para el mismo producto")
+    void shouldReturnSameLockForSameProduct() {
+        var registry = new ProductLockRegistry();
+        var productId = UUID.randomUUID();
+
+        assertThat(registry.lockFor(productId)).isSameAs(registry.lockFor(productId));
+    }
+
+    @Test
+    @DisplayName("Redondear el número de stripes a potencia de 2")
+    void shouldRoundStripesToPowerOfTwo() {
+        var registry = new ProductLockRegistry(10);
+
+        assertThat(registry.getStripes()).isEqualTo(16);
+    }
+
+    @Test
+    @DisplayName("No permitir un número de stripes cero o negativo")
+    void shouldThrowExceptionWhenStripesIsNotPositive() {
+        assertThatThrownBy(() -> new ProductLockRegistry(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Stripes must be greater than zero");
+    }
+
+    @Test
+    @DisplayName("Mantener los locks de todos los productos durante la acción y liberarlos al terminar")
+    void shouldHoldAllLocksDuringActionAndReleaseThem() {
+        var registry = new ProductLockRegistry();
+        var productIds = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        List<ReentrantLock> locks = productIds.stream().map(registry::lockFor).toList();
+
+        registry.runLocked(productIds, () ->
+                assertThat(locks).allMatch(ReentrantLock::isHeldByCurrentThread));
+
+        assertThat(locks).noneMatch(ReentrantLock::isLocked);
+    }
+
+    @Test
+    @DisplayName("Liberar los locks aunque la acción falle")
+    void shouldReleaseLocksWhenActionFails() {
+        var registry = new ProductLockRegistry();
+        var productId = UUID.randomUUID();
+
+        assertThatThrownBy(() -> registry.runLocked(productId, () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(registry.lockFor(productId).isLocked()).isFalse();
+    }
+}
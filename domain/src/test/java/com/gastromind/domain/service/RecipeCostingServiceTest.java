@@ -0,0 +1,163 @@
+package com.gastromind.domain.service;
+
+import com.gastromind.domain.entity.Batch;
+import com.gastromind.domain.entity.Product;
+import com.gastromind.domain.entity.Recipe;
+import com.gastromind.domain.valueobject.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("RecipeCostingService debería")
+class RecipeCostingServiceTest {
+
+    private final Map<UUID, FefoBatchIndex> indexes = new HashMap<>();
+    private InventoryService inventoryService;
+    private RecipeCostingService costingService;
+    private Product rice;
+    private Product saffron;
+    private Recipe paella;
+
+    @BeforeEach
+    void setUp() {
+        inventoryService = new InventoryService();
+        costingService = new RecipeCostingService(productId ->
+                indexes.containsKey(productId) ? indexes.get(productId).batches() : List.of());
+        inventoryService.addListener(costingService);
+
+        rice = Product.create("Arroz Bomba", null, Category.GRAIN, UnitOfMeasure.KILOGRAM, Set.of());
+        saffron = Product.create("Azafrán", null, Category.SPICE, UnitOfMeasure.GRAM, Set.of());
+        indexes.put(rice.getId(), new FefoBatchIndex(rice));
+        indexes.put(saffron.getId(), new FefoBatchIndex(saffron));
+
+        paella = Recipe.create("Paella", null, Duration.ofMinutes(45), Difficulty.MEDIUM, 4);
+        paella.addIngredient(RecipeIngredient.of(rice, Quantity.of(12.0)));
+    }
+
+    @Test
+    @DisplayName("Valorar los ingredientes con los lotes que caducan antes y repartir por ración")
+    void shouldCostIngredientsUsingFefoBatches() {
+        //2€/kg caduca antes, 3€/kg después: 10kg x 2 + 2kg x 3 = 26€
+        receive(rice, "LOT-LATER", 20, 30.0, 10.0);
+        receive(rice, "LOT-SOONER", 5, 20.0, 10.0);
+
+        RecipeCost cost = costingService.cost(paella);
+
+        assertThat(cost.totalCost().amount()).isEqualByComparingTo(new BigDecimal("26.00"));
+        assertThat(cost.costPerPortion().amount()).isEqualByComparingTo(new BigDecimal("6.50"));
+        assertThat(cost.complete()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Reutilizar el coste cacheado mientras no entren lotes nuevos")
+    void shouldReuseCachedCostUntilNewBatchArrives() {
+        receive(rice, "LOT-001", 5, 40.0, 20.0);
+        RecipeCost first = costingService.cost(paella);
+
+        inventoryService.consumeProductFromIndex(rice, Quantity.of(1.0), indexes.get(rice.getId()));
+
+        assertThat(costingService.cost(paella)).isSameAs(first);
+
+        receive(rice, "LOT-002", 2, 10.0, 20.0);
+
+        assertThat(costingService.isCached(paella)).isFalse();
+        assertThat(costingService.cost(paella).totalCost().amount()).isEqualByComparingTo(new BigDecimal("6.00"));
+    }
+
+    @Test
+    @DisplayName("No invalidar recetas que no usan el producto recibido")
+    void shouldNotInvalidateUnrelatedRecipes() {
+        receive(rice, "LOT-001", 5, 40.0, 20.0);
+        costingService.cost(paella);
+
+        receive(saffron, "LOT-SAFFRON", 30, 90.0, 10.0);
+
+        assertThat(costingService.isCached(paella)).isTrue();
+    }
+
+    @Test
+    @DisplayName("No cachear un coste calculado con lotes que cambian durante el cálculo")
+    void shouldNotCacheCostComputedWhileBatchArrives() {
+        receive(rice, "LOT-001", 5, 40.0, 20.0);
+        boolean[] received = new boolean[1];
+        RecipeCostingService racing = new RecipeCostingService(productId -> {
+            //Simula una entrada de lote en otro hilo justo después de leer los lotes
+            List<Batch> read = indexes.get(productId).batches();
+            if (!received[0]) {
+                received[0] = true;
+                receive(rice, "LOT-002", 2, 10.0, 20.0);
+            }
+            return read;
+        });
+        inventoryService.addListener(racing);
+
+        racing.cost(paella);
+
+        assertThat(racing.isCached(paella)).isFalse();
+        assertThat(racing.cost(paella).totalCost().amount()).isEqualByComparingTo(new BigDecimal("6.00"));
+    }
+
+    @Test
+    @DisplayName("Marcar el coste como incompleto si un ingrediente no tiene lotes")
+    void shouldMarkCostIncompleteWhenIngredientHasNoBatches() {
+        paella.addIngredient(RecipeIngredient.of(saffron, Quantity.of(1.0)));
+        receive(rice, "LOT-001", 5, 40.0, 20.0);
+
+        RecipeCost cost = costingService.cost(paella);
+
+        assertThat(cost.complete()).isFalse();
+        assertThat(cost.totalCost().amount()).isEqualByComparingTo(new BigDecimal("24.00"));
+    }
+
+    @Test
+    @DisplayName("Valorar los ingredientes que se compran por gramo")
+    void shouldCostIngredientsPricedPerGram() {
+        //5€ por 1000g: 0,005€/g (0€ redondeado al céntimo), y 30g en la receta = 0,15€
+        paella.addIngredient(RecipeIngredient.of(saffron, Quantity.of(30.0)));
+        receive(rice, "LOT-001", 5, 40.0, 20.0);
+        receive(saffron, "LOT-SAFFRON", 30, 5.0, 1000.0);
+
+        RecipeCost cost = costingService.cost(paella);
+
+        assertThat(cost.totalCost().amount()).isEqualByComparingTo(new BigDecimal("24.15"));
+    }
+
+    @Test
+    @DisplayName("Informar de los aciertos y fallos de la caché")
+    void shouldReportCacheHitsAndMisses() {
+        int[] hitsAndMisses = new int[2];
+        RecipeCostingService measured = new RecipeCostingService(productId -> List.of(), new InventoryMetrics() {
+            @Override
+            public void costingCacheHit() {
+                hitsAndMisses[0]++;
+            }
+
+            @Override
+            public void costingCacheMiss() {
+                hitsAndMisses[1]++;
+            }
+        });
+
+        measured.cost(paella);
+        measured.cost(paella);
+        measured.cost(paella);
+
+        assertThat(hitsAndMisses).containsExactly(2, 1);
+    }
+
+    private void receive(Product product, String sku, int daysToExpire, double price, double quantity) {
+        Batch batch = Batch.create(product, sku, LocalDate.now().plusDays(daysToExpire), Money.of(price), Quantity.of(quantity));
+        inventoryService.receiveBatch(batch, indexes.get(product.getId()));
+    }
+}
@@ -0,0 +1,145 @@
+package com.gastromind.domain.service;
+
+import com.gastromind.domain.entity.Batch;
+import com.gastromind.domain.entity.Product;
+import com.gastromind.domain.entity.Recipe;
+import com.gastromind.domain.valueobject.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("RecipeDependencyGraph debería")
+class RecipeDependencyGraphTest {
+
+    private final Map<UUID, FefoBatchIndex> indexes = new HashMap<>();
+    private InventoryService inventoryService;
+    private RecipeDependencyGraph graph;
+    private Product celery;
+    private Product rice;
+    private Recipe stock;
+    private Recipe dish;
+
+    @BeforeEach
+    void setUp() {
+        inventoryService = new InventoryService();
+        RecipeCostingService costingService = new RecipeCostingService(productId ->
+                indexes.containsKey(productId) ? indexes.get(productId).batches() : List.of());
+        graph = new RecipeDependencyGraph(costingService);
+        inventoryService.addListener(graph);
+
+        celery = Product.create("Apio", null, Category.VEGETABLE, UnitOfMeasure.KILOGRAM, Set.of(Allergen.CELERY));
+        rice = Product.create("Arroz", null, Category.GRAIN, UnitOfMeasure.KILOGRAM, Set.of());
+        indexes.put(celery.getId(), new FefoBatchIndex(celery));
+        indexes.put(rice.getId(), new FefoBatchIndex(rice));
+        receive(celery, "LOT-CELERY", 10, 20.0);
+        receive(rice, "LOT-RICE", 30, 30.0);
+
+        //Fondo para 10 raciones: 1kg de apio a 2€/kg
+        stock = Recipe.create("Fondo de verduras", null, Duration.ofHours(2), Difficulty.EASY, 10);
+        stock.addIngredient(RecipeIngredient.of(celery, Quantity.of(1.0)));
+        //Arroz meloso para 4: 1kg de arroz a 3€/kg + 5 raciones de fondo
+        dish = Recipe.create("Arroz meloso", null, Duration.ofMinutes(40), Difficulty.MEDIUM, 4);
+        dish.addIngredient(RecipeIngredient.of(rice, Quantity.of(1.0)));
+        dish.addSubRecipe(SubRecipeIngredient.of(stock, Quantity.of(5.0)));
+    }
+
+    @Test
+    @DisplayName("Sumar el coste de las sub-recetas según las raciones usadas")
+    void shouldRollUpSubRecipeCost() {
+        graph.register(dish);
+
+        assertThat(graph.cost(stock).costPerPortion().amount()).isEqualByComparingTo(new BigDecimal("0.20"));
+        assertThat(graph.cost(dish).totalCost().amount()).isEqualByComparingTo(new BigDecimal("4.00"));
+        assertThat(graph.cost(dish).costPerPortion().amount()).isEqualByComparingTo(new BigDecimal("1.00"));
+    }
+
+    @Test
+    @DisplayName("Sumar las sub-recetas sin redondear su coste por ración")
+    void shouldRollUpSubRecipeCostWithoutRounding() {
+        //Fondo para 3 raciones: 2€ en total, 0,666...€ por ración
+        Recipe thirds = Recipe.create("Fondo en tercios", null, Duration.ofHours(2), Difficulty.EASY, 3);
+        thirds.addIngredient(RecipeIngredient.of(celery, Quantity.of(1.0)));
+        Recipe plate = Recipe.create("Arroz con fondo", null, Duration.ofMinutes(40), Difficulty.MEDIUM, 1);
+        plate.addIngredient(RecipeIngredient.of(rice, Quantity.of(1.0)));
+        plate.addSubRecipe(SubRecipeIngredient.of(thirds, Quantity.of(3.0)));
+
+        graph.register(plate);
+
+        assertThat(graph.cost(thirds).costPerPortion().amount()).isEqualByComparingTo(new BigDecimal("0.67"));
+        //Con el coste por ración redondeado saldría 3 + 3 x 0,67 = 5,01
+        assertThat(graph.cost(plate).totalCost().amount()).isEqualByComparingTo(new BigDecimal("5.00"));
+    }
+
+    @Test
+    @DisplayName("Devolver los alérgenos que la sub-receta añade después de registrar el plato")
+    void shouldReturnAllergensAddedLater() {
+        Product milk = Product.create("Leche", null, Category.DAIRY, UnitOfMeasure.LITER, Set.of(Allergen.DAIRY));
+        graph.register(dish);
+
+        stock.addIngredient(RecipeIngredient.of(milk, Quantity.of(0.5)));
+
+        assertThat(graph.allergens(dish).toSet()).containsExactlyInAnyOrder(Allergen.CELERY, Allergen.DAIRY);
+    }
+
+    @Test
+    @DisplayName("Propagar los alérgenos de las sub-recetas")
+    void shouldPropagateAllergens() {
+        graph.register(dish);
+
+        assertThat(graph.allergens(dish).toSet()).containsExactly(Allergen.CELERY);
+    }
+
+    @Test
+    @DisplayName("Recalcular los platos que usan la sub-receta cuando cambia el precio de un producto")
+    void shouldPropagatePriceChangesThroughSubRecipes() {
+        graph.register(dish);
+
+        //Lote más barato que caduca antes: 1€/kg
+        Batch cheaper = Batch.create(celery, "LOT-CHEAP", LocalDate.now().plusDays(2), Money.of(10.0), Quantity.of(10.0));
+        inventoryService.receiveBatch(cheaper, indexes.get(celery.getId()));
+
+        assertThat(graph.cost(stock).totalCost().amount()).isEqualByComparingTo(new BigDecimal("1.00"));
+        assertThat(graph.cost(dish).totalCost().amount()).isEqualByComparingTo(new BigDecimal("3.50"));
+    }
+
+    @Test
+    @DisplayName("Ordenar las sub-recetas antes que los platos que las usan")
+    void shouldOrderSubRecipesFirst() {
+        graph.register(dish);
+
+        assertThat(graph.topologicalOrder()).containsExactly(stock, dish);
+    }
+
+    @Test
+    @DisplayName("No permitir ciclos entre recetas")
+    void shouldRejectCycles() {
+        assertThatThrownBy(() -> stock.addSubRecipe(SubRecipeIngredient.of(dish, Quantity.of(1.0))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Sub-recipe would create a cycle");
+    }
+
+    @Test
+    @DisplayName("Fallar al consultar una receta no registrada")
+    void shouldThrowExceptionWhenRecipeIsNotRegistered() {
+        assertThatThrownBy(() -> graph.cost(dish))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Recipe is not registered");
+    }
+
+    private void receive(Product product, String sku, int daysToExpire, double price) {
+        Batch batch = Batch.create(product, sku, LocalDate.now().plusDays(daysToExpire), Money.of(price), Quantity.of(10.0));
+        inventoryService.receiveBatch(batch, indexes.get(product.getId()));
+    }
+}
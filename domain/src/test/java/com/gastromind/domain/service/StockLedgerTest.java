@@ -0,0 +1,87 @@
+package com.gastromind.domain.service;
+
+import com.gastromind.domain.entity.Batch;
+import com.gastromind.domain.entity.Product;
+import com.gastromind.domain.valueobject.Category;
+import com.gastromind.domain.valueobject.Money;
+import com.gastromind.domain.valueobject.Quantity;
+import com.gastromind.domain.valueobject.UnitOfMeasure;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("StockLedger debería")
+class StockLedgerTest {
+
+    private InventoryService inventoryService;
+    private StockLedger ledger;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        inventoryService = new InventoryService();
+        ledger = new StockLedger();
+        inventoryService.addListener(ledger);
+        product = Product.create("Aceite de oliva", "Virgen extra", Category.SAUCE, UnitOfMeasure.LITER, Set.of());
+    }
+
+    @Test
+    @DisplayName("Sumar el stock de los lotes recibidos")
+    void shouldAddReceivedBatches() {
+        FefoBatchIndex index = new FefoBatchIndex(product);
+
+        inventoryService.receiveBatch(batch("LOT-001", 5.0), index);
+        inventoryService.receiveBatch(batch("LOT-002", 3.0), index);
+
+        assertThat(ledger.currentStock(product).value()).isEqualTo(8.0);
+    }
+
+    @Test
+    @DisplayName("Restar los consumos hechos desde el índice y desde la lista")
+    void shouldSubtractConsumptions() {
+        FefoBatchIndex index = new FefoBatchIndex(product);
+        Batch first = batch("LOT-001", 5.0);
+        Batch second = batch("LOT-002", 3.0);
+        inventoryService.receiveBatch(first, index);
+        inventoryService.receiveBatch(second, index);
+
+        inventoryService.consumeProductFromIndex(product, Quantity.of(6.0), index);
+        inventoryService.consumeProduct(product, Quantity.of(1.5), new ArrayList<>(List.of(first, second)));
+
+        assertThat(ledger.currentStock(product).value()).isEqualTo(0.5);
+        assertThat(ledger.audit(product, List.of(first, second)).isConsistent()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Devolver cero para un producto sin movimientos")
+    void shouldReturnZeroForUnknownProduct() {
+        assertThat(ledger.currentStock(product).value()).isEqualTo(0.0);
+    }
+
+    @Test
+    @DisplayName("Detectar descuadres en la auditoría y poder rehacer el total")
+    void shouldDetectInconsistencyAndRebuild() {
+        FefoBatchIndex index = new FefoBatchIndex(product);
+        Batch batch = batch("LOT-001", 5.0);
+        inventoryService.receiveBatch(batch, index);
+        //Consumo por fuera del servicio: el ledger no se entera
+        batch.consume(Quantity.of(2.0));
+
+        assertThat(ledger.audit(product, List.of(batch)).isConsistent()).isFalse();
+
+        ledger.rebuild(product, List.of(batch));
+
+        assertThat(ledger.currentStock(product).value()).isEqualTo(3.0);
+    }
+
+    private Batch batch(String sku, double quantity) {
+        return Batch.create(product, sku, LocalDate.now().plusMonths(3), Money.of(20.0), Quantity.of(quantity));
+    }
+}
@@ -0,0 +1,185 @@
+package com.gastromind.domain.service;
+
+import com.gastromind.domain.entity.Batch;
+import com.gastromind.domain.entity.Product;
+import com.gastromind.domain.exception.NotEnoughStockException;
+import com.gastromind.domain.testing.MovableClock;
+import com.gastromind.domain.valueobject.Category;
+import com.gastromind.domain.valueobject.Money;
+import com.gastromind.domain.valueobject.Quantity;
+import com.gastromind.domain.valueobject.Reservation;
+import com.gastromind.domain.valueobject.UnitOfMeasure;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("StockReservations debería")
+class StockReservationsTest {
+
+    private MovableClock clock;
+    private InventoryService inventoryService;
+    private StockReservations reservations;
+    private Product salmon;
+    private FefoBatchIndex batches;
+    private Batch expiringBatch;
+    private Batch freshBatch;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MovableClock();
+        inventoryService = new InventoryService();
+        reservations = StockReservations.create(inventoryService, clock);
+        salmon = Product.create("Salmón", "Lomo de salmón", Category.FISH, UnitOfMeasure.KILOGRAM, Set.of());
+        batches = new FefoBatchIndex(salmon);
+        expiringBatch = Batch.create(salmon, "LOT-001", LocalDate.now().plusDays(2), Money.of(60.0), Quantity.of(4.0));
+        freshBatch = Batch.create(salmon, "LOT-002", LocalDate.now().plusDays(5), Money.of(60.0), Quantity.of(4.0));
+        inventoryService.receiveBatch(freshBatch, batches);
+        inventoryService.receiveBatch(expiringBatch, batches);
+    }
+
+    @Nested
+    @DisplayName("Al reservar")
+    class Hold {
+
+        @Test
+        @DisplayName("Apartar stock de los lotes que caducan antes sin descontarlo")
+        void shouldHoldFefoBatchesWithoutDeducting() {
+            Reservation reservation = reservations.hold(salmon, Quantity.of(5.0), batches);
+
+            assertThat(reservation.holds()).extracting(hold -> hold.batch().getSku())
+                    .containsExactly("LOT-001", "LOT-002");
+            assertThat(reservation.holds().get(1).quantity()).isEqualTo(Quantity.of(1.0));
+            assertThat(expiringBatch.getCurrentQuantity()).isEqualTo(Quantity.of(4.0));
+            assertThat(reservations.available(salmon, batches)).isEqualTo(Quantity.of(3.0));
+        }
+
+        @Test
+        @DisplayName("Rechazar la reserva si lo libre no llega")
+        void shouldRejectHoldWhenNotEnoughFreeStock() {
+            reservations.hold(salmon, Quantity.of(6.0), batches);
+
+            assertThatThrownBy(() -> reservations.hold(salmon, Quantity.of(3.0), batches))
+                    .isInstanceOf(NotEnoughStockException.class);
+            assertThat(reservations.activeReservations()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Reservar todas las líneas de la comanda o ninguna")
+        void shouldHoldAllLinesOrNone() {
+            Product rice = Product.create("Arroz", "Bomba", Category.GRAIN, UnitOfMeasure.KILOGRAM, Set.of());
+            FefoBatchIndex riceBatches = new FefoBatchIndex(rice);
+            inventoryService.receiveBatch(Batch.create(rice, "LOT-010", LocalDate.now().plusDays(90), Money.of(10.0),
+                    Quantity.of(1.0)), riceBatches);
+
+            assertThatThrownBy(() -> reservations.hold(Map.of(salmon, Quantity.of(2.0), rice, Quantity.of(5.0)),
+                    Map.of(salmon.getId(), batches, rice.getId(), riceBatches), Duration.ofMinutes(30)))
+                    .isInstanceOf(NotEnoughStockException.class);
+            assertThat(reservations.heldMicros(salmon.getId())).isZero();
+        }
+
+        @Test
+        @DisplayName("Impedir que el consumo normal se lleve lo reservado")
+        void shouldKeepHeldStockFromRegularConsumption() {
+            reservations.hold(salmon, Quantity.of(5.0), batches);
+
+            assertThatThrownBy(() -> inventoryService.consumeProductFromIndex(salmon, Quantity.of(4.0), batches))
+                    .isInstanceOf(NotEnoughStockException.class);
+
+            inventoryService.consumeProductFromIndex(salmon, Quantity.of(3.0), batches);
+
+            assertThat(expiringBatch.getCurrentQuantity()).isEqualTo(Quantity.of(4.0));
+            assertThat(freshBatch.getCurrentQuantity()).isEqualTo(Quantity.of(1.0));
+        }
+
+        @Test
+        @DisplayName("Dejar el índice FEFO como estaba")
+        void shouldLeaveIndexUntouched() {
+            reservations.hold(salmon, Quantity.of(5.0), batches);
+
+            assertThat(batches.size()).isEqualTo(2);
+            assertThat(batches.peek()).isSameAs(expiringBatch);
+            assertThat(batches.batches()).containsExactly(expiringBatch, freshBatch);
+        }
+    }
+
+    @Test
+    @DisplayName("Rechazar unas segundas reservas sobre el mismo inventario")
+    void shouldRejectSecondReservationsForSameInventory() {
+        assertThatThrownBy(() -> StockReservations.create(inventoryService, clock))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Inventory service already has stock reservations");
+    }
+
+    @Nested
+    @DisplayName("Al cerrar la reserva")
+    class Lifecycle {
+
+        @Test
+        @DisplayName("Consumir al confirmar exactamente los lotes reservados")
+        void shouldConsumeHeldBatchesOnCommit() {
+            List<Quantity> consumed = new ArrayList<>();
+            inventoryService.addListener(new InventoryListener() {
+                @Override
+                public void onBatchConsumed(Batch batch, Quantity quantity) {
+                    consumed.add(quantity);
+                }
+            });
+            Reservation reservation = reservations.hold(salmon, Quantity.of(5.0), batches);
+
+            reservations.commit(reservation.id());
+
+            assertThat(expiringBatch.getCurrentQuantity()).isEqualTo(Quantity.of(0));
+            assertThat(freshBatch.getCurrentQuantity()).isEqualTo(Quantity.of(3.0));
+            assertThat(consumed).containsExactly(Quantity.of(4.0), Quantity.of(1.0));
+            assertThat(reservations.heldMicros(salmon.getId())).isZero();
+        }
+
+        @Test
+        @DisplayName("Devolver el stock al liberar sin tocar los lotes")
+        void shouldReturnStockOnRelease() {
+            Reservation reservation = reservations.hold(salmon, Quantity.of(5.0), batches);
+
+            assertThat(reservations.release(reservation.id())).isTrue();
+            assertThat(reservations.release(reservation.id())).isFalse();
+            assertThat(reservations.available(salmon, batches)).isEqualTo(Quantity.of(8.0));
+            assertThat(batches.peek()).isSameAs(expiringBatch);
+        }
+
+        @Test
+        @DisplayName("Liberar de una vez todas las reservas caducadas")
+        void shouldReleaseExpiredReservationsInBulk() {
+            reservations.hold(salmon, Quantity.of(2.0), batches, Duration.ofMinutes(5));
+            reservations.hold(salmon, Quantity.of(2.0), batches, Duration.ofMinutes(10));
+            reservations.hold(salmon, Quantity.of(2.0), batches, Duration.ofHours(1));
+
+            clock.advance(Duration.ofMinutes(15));
+
+            assertThat(reservations.releaseExpired()).isEqualTo(2);
+            assertThat(reservations.activeReservations()).isEqualTo(1);
+            assertThat(reservations.available(salmon, batches)).isEqualTo(Quantity.of(6.0));
+        }
+
+        @Test
+        @DisplayName("No confirmar una reserva caducada")
+        void shouldRejectCommitOfExpiredReservation() {
+            Reservation reservation = reservations.hold(salmon, Quantity.of(2.0), batches, Duration.ofMinutes(5));
+            clock.advance(Duration.ofMinutes(6));
+
+            assertThatThrownBy(() -> reservations.commit(reservation.id()))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("Reservation has expired");
+            assertThat(reservations.available(salmon, batches)).isEqualTo(Quantity.of(8.0));
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.gastromind.domain.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("TimeOrderedIdGenerator debería")
+class TimeOrderedIdGeneratorTest {
+
+    private static final Instant NOW = Instant.parse("2026-03-01T10:15:30.123Z");
+
+    @Test
+    @DisplayName("Generar UUID de versión 7 con el instante en los bits altos")
+    void shouldGenerateVersionSevenIds() {
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(Clock.fixed(NOW, ZoneOffset.UTC));
+
+        UUID id = generator.next();
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        assertThat(id.getMostSignificantBits() >>> 16).isEqualTo(NOW.toEpochMilli());
+    }
+
+    @Test
+    @DisplayName("Mantener el orden aunque se generen muchos ids en el mismo milisegundo")
+    void shouldKeepOrderWithinTheSameMillisecond() {
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(Clock.fixed(NOW, ZoneOffset.UTC));
+        List<UUID> ids = new ArrayList<>();
+
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(generator.next());
+        }
+
+        //Comparamos los 64 bits altos sin signo: tiempo + contador
+        for (int i = 1; i < ids.size(); i++) {
+            assertThat(Long.compareUnsigned(ids.get(i - 1).getMostSignificantBits(), ids.get(i).getMostSignificantBits()))
+                    .isNegative();
+        }
+    }
+}
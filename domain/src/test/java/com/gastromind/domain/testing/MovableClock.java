@@ -0,0 +1,35 @@
+package com.gastromind.domain.testing;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+
+//Reloj de pruebas que solo avanza cuando se le pide, compartido por los tests de dominio y de aplicación
+public class MovableClock extends Clock {
+
+    private Instant instant = Instant.now();
+
+    public void advance(Duration duration) {
+        instant = instant.plus(duration);
+    }
+
+    public void advanceDays(int days) {
+        advance(Duration.ofDays(days));
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return ZoneId.systemDefault();
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return this;
+    }
+
+    @Override
+    public Instant instant() {
+        return instant;
+    }
+}
@@ -0,0 +1,52 @@
+package com.gastromind.domain.valueobject;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("AllergenSet debería")
+class AllergenSetTest {
+
+    @Test
+    @DisplayName("Codificar y decodificar los alérgenos sin perder ninguno")
+    void shouldRoundTripAllAllergens() {
+        var all = EnumSet.allOf(Allergen.class);
+
+        assertThat(AllergenSet.of(all).toSet()).isEqualTo(all);
+    }
+
+    @Test
+    @DisplayName("Unir conjuntos con un OR de bits")
+    void shouldUnionSets() {
+        var gluten = AllergenSet.of(Allergen.GLUTEN);
+        var nuts = AllergenSet.of(Set.of(Allergen.NUTS));
+
+        var union = gluten.union(nuts);
+
+        assertThat(union.contains(Allergen.GLUTEN)).isTrue();
+        assertThat(union.contains(Allergen.NUTS)).isTrue();
+        assertThat(union.contains(Allergen.DAIRY)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Detectar si comparte algún alérgeno con otro conjunto")
+    void shouldDetectSharedAllergens() {
+        var dish = AllergenSet.of(Allergen.EGGS, Allergen.DAIRY);
+
+        assertThat(dish.containsAny(AllergenSet.of(Allergen.DAIRY, Allergen.NUTS))).isTrue();
+        assertThat(dish.containsAny(AllergenSet.of(Allergen.GLUTEN))).isFalse();
+    }
+
+    @Test
+    @DisplayName("No permitir bits que no corresponden a ningún alérgeno")
+    void shouldRejectUnknownBits() {
+        assertThatThrownBy(() -> new AllergenSet(1 << 20))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Unknown allergen bits in mask");
+    }
+}
@@ -0,0 +1,67 @@
+package com.gastromind.domain.valueobject;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("MinorMoney debería")
+class MinorMoneyTest {
+
+    @Test
+    @DisplayName("Convertir desde y hacia Money sin perder céntimos")
+    void shouldConvertFromAndToMoney() {
+        var money = Money.of(new BigDecimal("10.5555"));
+
+        var minor = MinorMoney.of(money);
+
+        assertThat(minor.minorUnits()).isEqualTo(1056L);
+        assertThat(minor.toMoney()).isEqualTo(money);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "250, 1500000",    // 2.50 x 1.5 = 3.75
+            "1, 500000",       // 0.01 x 0.5 = 0.005 -> 0.00 (al par)
+            "3, 500000",       // 0.03 x 0.5 = 0.015 -> 0.02 (al par)
+            "199, 333333",     // 1.99 x 0.333333
+            "123456789, 987654321"
+    })
+    @DisplayName("Multiplicar por cantidad con el mismo redondeo del banquero que BigDecimal")
+    void shouldMultiplyWithBankersRounding(long unitPriceMinor, long quantityMicros) {
+        var expected = BigDecimal.valueOf(unitPriceMinor, 2)
+                .multiply(BigDecimal.valueOf(quantityMicros, 6))
+                .setScale(2, RoundingMode.HALF_EVEN)
+                .unscaledValue().longValueExact();
+
+        var result = MinorMoney.ofMinor(unitPriceMinor).multiplyMicros(quantityMicros);
+
+        assertThat(result.minorUnits()).isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("Usar el camino lento sin desbordar con importes muy grandes")
+    void shouldNotOverflowWithHugeAmounts() {
+        var result = MinorMoney.ofMinor(Long.MAX_VALUE / 2).multiplyMicros(2_000_000L);
+
+        assertThat(result.minorUnits()).isEqualTo(Long.MAX_VALUE - 1);
+    }
+
+    @Test
+    @DisplayName("No permitir sumar monedas distintas")
+    void shouldFailAddingDifferentCurrencies() {
+        var euros = MinorMoney.ofMinor(100);
+        var dollars = new MinorMoney(100, Currency.getInstance("USD"));
+
+        assertThatThrownBy(() -> euros.add(dollars))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Cannot add different currencies");
+    }
+}
@@ -0,0 +1,75 @@
+package com.gastromind.domain.valueobject;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("MoneyAccumulator debería")
+class MoneyAccumulatorTest {
+
+    @Test
+    @DisplayName("Sumar igual que encadenar Money.add")
+    void shouldSumLikeMoneyAdd() {
+        var accumulator = new MoneyAccumulator();
+        var expected = Money.of(0);
+
+        for (int i = 1; i <= 100; i++) {
+            var line = Money.of(new BigDecimal(i + ".35"));
+            accumulator.add(line);
+            expected = expected.add(line);
+        }
+
+        assertThat(accumulator.toMoney()).isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("Redondear cada línea precio x cantidad al céntimo")
+    void shouldRoundEachLine() {
+        var accumulator = new MoneyAccumulator();
+
+        //0.03 x 0.5 = 0.015 -> 0.02, dos veces
+        accumulator.addLine(3, 500_000).addLine(3, 500_000);
+
+        assertThat(accumulator.minorUnits()).isEqualTo(4L);
+    }
+
+    @Test
+    @DisplayName("Redondear una sola vez el total de las líneas con coste unitario de lote")
+    void shouldRoundPreciseLinesOnlyAtTheTotal() {
+        var accumulator = new MoneyAccumulator();
+
+        //0,5 céntimos x 1 unidad, tres veces: 1,5 -> 2 céntimos (línea a línea serían 0)
+        for (int i = 0; i < 3; i++) {
+            accumulator.addPreciseLine(500_000, 1_000_000);
+        }
+
+        assertThat(accumulator.minorUnits()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("Fusionar acumuladores parciales")
+    void shouldMergeAccumulators() {
+        var left = new MoneyAccumulator().addMinor(150);
+        var right = new MoneyAccumulator().addMinor(250);
+
+        left.merge(right);
+
+        assertThat(left.toMoney().amount()).isEqualTo(new BigDecimal("4.00"));
+    }
+
+    @Test
+    @DisplayName("No permitir mezclar monedas")
+    void shouldFailWithDifferentCurrencies() {
+        var accumulator = new MoneyAccumulator();
+        var dollars = new Money(BigDecimal.TEN, Currency.getInstance("USD"));
+
+        assertThatThrownBy(() -> accumulator.add(dollars))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Cannot add different currencies");
+    }
+}
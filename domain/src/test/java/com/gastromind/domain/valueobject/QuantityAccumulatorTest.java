@@ -0,0 +1,43 @@
+package com.gastromind.domain.valueobject;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("QuantityAccumulator debería")
+class QuantityAccumulatorTest {
+
+    @Test
+    @DisplayName("Acumular sumas y restas sobre la misma instancia")
+    void shouldAccumulateInPlace() {
+        var accumulator = new QuantityAccumulator(Quantity.of(10.0));
+
+        var result = accumulator.add(Quantity.of(0.1)).add(Quantity.of(0.2)).subtract(Quantity.of(0.3));
+
+        assertThat(result).isSameAs(accumulator);
+        assertThat(accumulator.toQuantity().value()).isEqualTo(10.0);
+    }
+
+    @Test
+    @DisplayName("No permitir quedarse en negativo")
+    void shouldThrowExceptionWhenSubtractingMoreThanAccumulated() {
+        var accumulator = new QuantityAccumulator(Quantity.of(1.0));
+
+        assertThatThrownBy(() -> accumulator.subtract(Quantity.of(2.0)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Not enough quantity available");
+        assertThat(accumulator.micros()).isEqualTo(1_000_000L);
+    }
+
+    @Test
+    @DisplayName("Volver a cero al reiniciar")
+    void shouldResetToZero() {
+        var accumulator = new QuantityAccumulator(Quantity.of(5.0));
+
+        accumulator.reset();
+
+        assertThat(accumulator.micros()).isZero();
+    }
+}
@@ -69,4 +69,13 @@ class QuantityTest {
         assertThat(stock.hasEnough(Quantity.of(400.0))).isTrue();
         assertThat(stock.hasEnough(Quantity.of(600.0))).isFalse();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Convertir a micro-unidades y volver sin perder precisión")
+    void shouldConvertToMicrosAndBack() {
+        var quantity = Quantity.of(0.1);
+
+        assertThat(quantity.toMicros()).isEqualTo(100_000L);
+        assertThat(Quantity.ofMicros(quantity.toMicros()).value()).isEqualTo(0.1);
+    }
+}
@@ -0,0 +1,12 @@
+package com.gastromind.infrastructure;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class GastroMindApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(GastroMindApplication.class, args);
+    }
+}
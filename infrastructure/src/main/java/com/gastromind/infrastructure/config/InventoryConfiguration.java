@@ -0,0 +1,74 @@
+package com.gastromind.infrastructure.config;
+
+import com.gastromind.application.inventory.MenuAvailabilityRefresher;
+import com.gastromind.application.inventory.ReservationSweeper;
+import com.gastromind.application.port.BatchRepository;
+import com.gastromind.domain.service.InventoryMetrics;
+import com.gastromind.domain.service.InventoryService;
+import com.gastromind.domain.service.MenuFeasibilityService;
+import com.gastromind.domain.service.ProductLockRegistry;
+import com.gastromind.domain.service.RecipeCostingService;
+import com.gastromind.domain.service.StockReservations;
+import com.gastromind.infrastructure.metrics.MicrometerInventoryMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+public class InventoryConfiguration {
+
+    private static final int LOCK_STRIPES = 64;
+
+    @Bean
+    public InventoryMetrics inventoryMetrics(MeterRegistry meterRegistry) {
+        return new MicrometerInventoryMetrics(meterRegistry);
+    }
+
+    @Bean
+    public ProductLockRegistry productLockRegistry(InventoryMetrics inventoryMetrics) {
+        return new ProductLockRegistry(LOCK_STRIPES, inventoryMetrics);
+    }
+
+    @Bean
+    public InventoryService inventoryService(ProductLockRegistry productLockRegistry, InventoryMetrics inventoryMetrics) {
+        return new InventoryService(productLockRegistry, inventoryMetrics);
+    }
+
+    //Lotes del BatchRepository (ya en orden FEFO) cuando haya uno configurado; sin él, los costes salen incompletos
+    @Bean
+    public RecipeCostingService recipeCostingService(ObjectProvider<BatchRepository> batchRepository,
+                                                     InventoryService inventoryService, InventoryMetrics inventoryMetrics) {
+        RecipeCostingService costingService = new RecipeCostingService(productId -> {
+            BatchRepository repository = batchRepository.getIfAvailable();
+            return repository != null ? repository.findByProductId(productId) : List.of();
+        }, inventoryMetrics);
+        inventoryService.addListener(costingService);
+        return costingService;
+    }
+
+    @Bean
+    public MenuFeasibilityService menuFeasibilityService(InventoryService inventoryService) {
+        MenuFeasibilityService feasibility = new MenuFeasibilityService();
+        inventoryService.addListener(feasibility);
+        return feasibility;
+    }
+
+    //Spring lo cierra al parar (close)
+    @Bean
+    public MenuAvailabilityRefresher menuAvailabilityRefresher(MenuFeasibilityService menuFeasibilityService) {
+        return new MenuAvailabilityRefresher(menuFeasibilityService);
+    }
+
+    @Bean
+    public StockReservations stockReservations(InventoryService inventoryService) {
+        return StockReservations.create(inventoryService);
+    }
+
+    @Bean
+    public ReservationSweeper reservationSweeper(StockReservations stockReservations) {
+        return new ReservationSweeper(stockReservations);
+    }
+}
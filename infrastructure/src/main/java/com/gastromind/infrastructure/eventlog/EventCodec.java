@@ -0,0 +1,136 @@
+package com.gastromind.infrastructure.eventlog;
+
+import com.gastromind.domain.event.BatchConsumed;
+import com.gastromind.domain.event.BatchReceived;
+import com.gastromind.domain.event.InventoryEvent;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Currency;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/*
+Formato binario de los eventos. Cada registro: longitud (int) | CRC32 (int) | contenido.
+Contenido: tipo (byte) | secuencia (long) | lote (2 long) | producto (2 long) | datos del tipo.
+Un consumo ocupa 57 bytes; una entrada, 78 más el SKU. Las fechas van como día epoch (int).
+ */
+final class EventCodec {
+
+    static final byte RECEIVED = 1;
+    static final byte CONSUMED = 2;
+    static final int HEADER_BYTES = 8;
+    static final int MAX_SKU_BYTES = 0xFFFF;
+    static final int MAX_PAYLOAD_BYTES = 1 + 8 + 32 + 4 + 4 + 8 + 3 + 8 + 2 + MAX_SKU_BYTES;
+    static final int MAX_RECORD_BYTES = HEADER_BYTES + MAX_PAYLOAD_BYTES;
+
+    private EventCodec() {
+    }
+
+    //Deja en buffer el registro listo para escribir (flip hecho)
+    static void encode(long sequence, InventoryEvent event, ByteBuffer buffer) {
+        buffer.clear();
+        buffer.position(HEADER_BYTES);
+        switch (event) {
+            case BatchReceived received -> {
+                buffer.put(RECEIVED);
+                buffer.putLong(sequence);
+                putIds(buffer, event);
+                putReceivedData(buffer, received);
+            }
+            case BatchConsumed consumed -> {
+                buffer.put(CONSUMED);
+                buffer.putLong(sequence);
+                putIds(buffer, event);
+                buffer.putLong(consumed.micros());
+            }
+        }
+        int length = buffer.position() - HEADER_BYTES;
+        buffer.putInt(0, length);
+        buffer.putInt(4, crc(buffer, HEADER_BYTES, length));
+        buffer.flip();
+    }
+
+    //Lee el siguiente registro. Devuelve null si está incompleto o no cuadra el CRC (escritura cortada)
+    static Decoded decode(ByteBuffer buffer) {
+        int start = buffer.position();
+        if (buffer.remaining() < HEADER_BYTES) {
+            return null;
+        }
+        int length = buffer.getInt(start);
+        int expectedCrc = buffer.getInt(start + 4);
+        if (length <= 0 || length > MAX_PAYLOAD_BYTES || buffer.remaining() < HEADER_BYTES + length) {
+            return null;
+        }
+        if (crc(buffer, start + HEADER_BYTES, length) != expectedCrc) {
+            return null;
+        }
+        buffer.position(start + HEADER_BYTES);
+        byte type = buffer.get();
+        long sequence = buffer.getLong();
+        UUID batchId = new UUID(buffer.getLong(), buffer.getLong());
+        UUID productId = new UUID(buffer.getLong(), buffer.getLong());
+        InventoryEvent event = switch (type) {
+            case RECEIVED -> getReceivedData(buffer, batchId, productId);
+            case CONSUMED -> new BatchConsumed(batchId, productId, buffer.getLong());
+            default -> throw new IllegalStateException("Unknown event type " + type);
+        };
+        buffer.position(start + HEADER_BYTES + length);
+        return new Decoded(sequence, event);
+    }
+
+    static void putReceived(ByteBuffer buffer, BatchReceived received) {
+        putIds(buffer, received);
+        putReceivedData(buffer, received);
+    }
+
+    static BatchReceived getReceived(ByteBuffer buffer) {
+        UUID batchId = new UUID(buffer.getLong(), buffer.getLong());
+        UUID productId = new UUID(buffer.getLong(), buffer.getLong());
+        return getReceivedData(buffer, batchId, productId);
+    }
+
+    static int crc(ByteBuffer buffer, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(offset, length));
+        return (int) crc.getValue();
+    }
+
+    private static void putIds(ByteBuffer buffer, InventoryEvent event) {
+        buffer.putLong(event.batchId().getMostSignificantBits());
+        buffer.putLong(event.batchId().getLeastSignificantBits());
+        buffer.putLong(event.productId().getMostSignificantBits());
+        buffer.putLong(event.productId().getLeastSignificantBits());
+    }
+
+    private static void putReceivedData(ByteBuffer buffer, BatchReceived received) {
+        byte[] sku = received.sku().getBytes(StandardCharsets.UTF_8);
+        if (sku.length > MAX_SKU_BYTES) {
+            throw new IllegalArgumentException("SKU is too long to be stored");
+        }
+        buffer.putInt(Math.toIntExact(received.entryDate().toEpochDay()));
+        buffer.putInt(Math.toIntExact(received.expirationDate().toEpochDay()));
+        buffer.putLong(received.priceMinor());
+        buffer.put(received.currency().getCurrencyCode().getBytes(StandardCharsets.US_ASCII));
+        buffer.putLong(received.initialMicros());
+        buffer.putShort((short) sku.length);
+        buffer.put(sku);
+    }
+
+    private static BatchReceived getReceivedData(ByteBuffer buffer, UUID batchId, UUID productId) {
+        LocalDate entryDate = LocalDate.ofEpochDay(buffer.getInt());
+        LocalDate expirationDate = LocalDate.ofEpochDay(buffer.getInt());
+        long priceMinor = buffer.getLong();
+        byte[] currency = new byte[3];
+        buffer.get(currency);
+        long initialMicros = buffer.getLong();
+        byte[] sku = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(sku);
+        return new BatchReceived(batchId, productId, new String(sku, StandardCharsets.UTF_8), entryDate, expirationDate,
+                priceMinor, Currency.getInstance(new String(currency, StandardCharsets.US_ASCII)), initialMicros);
+    }
+
+    record Decoded(long sequence, InventoryEvent event) {
+    }
+}
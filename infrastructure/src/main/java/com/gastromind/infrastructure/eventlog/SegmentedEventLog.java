@@ -0,0 +1,341 @@
+package com.gastromind.infrastructure.eventlog;
+
+import com.gastromind.application.port.InventoryEventStore;
+import com.gastromind.domain.event.BatchReceived;
+import com.gastromind.domain.event.InventoryEvent;
+import com.gastromind.domain.event.InventoryState;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/*
+Registro de eventos de inventario en disco, repartido en segmentos de tamaño acotado (<primera secuencia>.log).
+Cada cierto número de eventos se guarda una instantánea del estado (<secuencia>.snap); al arrancar se carga la
+última instantánea válida y solo se reproducen los eventos posteriores, así el arranque no depende del histórico.
+Los segmentos antiguos no se borran: son el histórico completo de movimientos.
+Un registro cortado al final del último segmento (caída a mitad de escritura) se descarta al abrir.
+append escribe al sistema operativo; sync() fuerza el volcado a disco.
+ */
+public class SegmentedEventLog implements InventoryEventStore, AutoCloseable {
+
+    public static final long DEFAULT_SEGMENT_BYTES = 64L * 1024 * 1024;
+    public static final int DEFAULT_SNAPSHOT_EVERY = 100_000;
+
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+    private static final int SNAPSHOT_MAGIC = 0x474D534E;
+    private static final int SNAPSHOTS_KEPT = 2;
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final int snapshotEvery;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ByteBuffer buffer = ByteBuffer.allocate(EventCodec.MAX_RECORD_BYTES);
+    private final InventoryState state = new InventoryState();
+    private FileChannel segment;
+    private long sequence;
+    private int sinceSnapshot;
+
+    private SegmentedEventLog(Path directory, long segmentBytes, int snapshotEvery) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.snapshotEvery = snapshotEvery;
+    }
+
+    public static SegmentedEventLog open(Path directory) {
+        return open(directory, DEFAULT_SEGMENT_BYTES, DEFAULT_SNAPSHOT_EVERY);
+    }
+
+    public static SegmentedEventLog open(Path directory, long segmentBytes, int snapshotEvery) {
+        if (directory == null) {
+            throw new IllegalArgumentException("Directory cannot be null");
+        }
+        if (segmentBytes < EventCodec.MAX_RECORD_BYTES) {
+            throw new IllegalArgumentException("Segment size must fit at least one record");
+        }
+        if (snapshotEvery <= 0) {
+            throw new IllegalArgumentException("Snapshot interval must be greater than zero");
+        }
+        SegmentedEventLog log = new SegmentedEventLog(directory, segmentBytes, snapshotEvery);
+        try {
+            Files.createDirectories(directory);
+            log.loadLatestSnapshot();
+            log.replaySegments();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return log;
+    }
+
+    @Override
+    public long append(InventoryEvent event) {
+        if (event == null) {
+            throw new IllegalArgumentException("Event cannot be null");
+        }
+        lock.lock();
+        try {
+            long next = sequence + 1;
+            //Si el evento no cuadra (p.ej. consumir de un lote inexistente) no llega al disco
+            state.check(next, event);
+            EventCodec.encode(next, event, buffer);
+            write(next);
+            //El estado y la secuencia solo avanzan cuando el registro ya está escrito
+            state.apply(next, event);
+            sequence = next;
+            if (++sinceSnapshot >= snapshotEvery) {
+                writeSnapshot();
+            }
+            return next;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public InventoryState recover() {
+        lock.lock();
+        try {
+            return state.copy();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void snapshot() {
+        lock.lock();
+        try {
+            writeSnapshot();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void sync() {
+        lock.lock();
+        try {
+            if (segment != null) {
+                segment.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long lastSequence() {
+        lock.lock();
+        try {
+            return sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (segment != null) {
+                if (sinceSnapshot > 0) {
+                    writeSnapshot();
+                }
+                segment.force(false);
+                segment.close();
+                segment = null;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //Si la escritura falla se recorta el segmento a como estaba: no quedan registros a medias delante de los siguientes
+    private void write(long next) throws IOException {
+        if (segment == null || segment.size() + buffer.remaining() > segmentBytes) {
+            rollSegment(next);
+        }
+        long previousSize = segment.size();
+        try {
+            while (buffer.hasRemaining()) {
+                segment.write(buffer);
+            }
+        } catch (IOException e) {
+            try {
+                segment.truncate(previousSize);
+                segment.position(previousSize);
+            } catch (IOException truncateFailure) {
+                e.addSuppressed(truncateFailure);
+            }
+            throw e;
+        }
+    }
+
+    /*
+    Se abre el segmento nuevo antes de cerrar el actual: si falla, se sigue escribiendo en el de siempre.
+    Un segmento con el nombre de la siguiente secuencia solo puede tener restos de un intento fallido, así que se vacía.
+     */
+    private void rollSegment(long firstSequence) throws IOException {
+        FileChannel next = FileChannel.open(directory.resolve(fileName(firstSequence, SEGMENT_SUFFIX)),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        if (segment != null) {
+            try {
+                segment.force(false);
+                segment.close();
+            } catch (IOException e) {
+                next.close();
+                throw e;
+            }
+        }
+        segment = next;
+    }
+
+    /*
+    Instantánea: magic | secuencia | nº de lotes | por lote (datos de entrada + cantidad restante) | CRC32.
+    Se escribe en un temporal y se renombra, para que nunca quede a medias con el nombre definitivo.
+     */
+    private void writeSnapshot() throws IOException {
+        Collection<BatchReceived> batches = state.batches();
+        ByteBuffer snapshot = ByteBuffer.allocate(EventCodec.MAX_RECORD_BYTES);
+        snapshot.putInt(SNAPSHOT_MAGIC);
+        snapshot.putLong(sequence);
+        snapshot.putInt(batches.size());
+        for (BatchReceived batch : batches) {
+            snapshot = ensureCapacity(snapshot, EventCodec.MAX_PAYLOAD_BYTES + 8);
+            EventCodec.putReceived(snapshot, batch);
+            snapshot.putLong(state.remainingMicros(batch.batchId()));
+        }
+        snapshot = ensureCapacity(snapshot, 4);
+        snapshot.putInt(EventCodec.crc(snapshot, 0, snapshot.position()));
+        snapshot.flip();
+
+        Path target = directory.resolve(fileName(sequence, SNAPSHOT_SUFFIX));
+        Path temporary = directory.resolve(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (snapshot.hasRemaining()) {
+                channel.write(snapshot);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        sinceSnapshot = 0;
+
+        List<Path> snapshots = files(SNAPSHOT_SUFFIX);
+        for (int i = 0; i < snapshots.size() - SNAPSHOTS_KEPT; i++) {
+            Files.deleteIfExists(snapshots.get(i));
+        }
+    }
+
+    //Empieza por la más reciente; si una instantánea está dañada se prueba con la anterior
+    private void loadLatestSnapshot() throws IOException {
+        List<Path> snapshots = files(SNAPSHOT_SUFFIX);
+        for (int i = snapshots.size() - 1; i >= 0; i--) {
+            ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(snapshots.get(i)));
+            if (content.remaining() < 20 || content.getInt(0) != SNAPSHOT_MAGIC) {
+                continue;
+            }
+            int crcPosition = content.limit() - 4;
+            if (EventCodec.crc(content, 0, crcPosition) != content.getInt(crcPosition)) {
+                continue;
+            }
+            content.position(4);
+            long snapshotSequence = content.getLong();
+            int count = content.getInt();
+            for (int j = 0; j < count; j++) {
+                BatchReceived batch = EventCodec.getReceived(content);
+                state.restore(batch, content.getLong());
+            }
+            state.restoreSequence(snapshotSequence);
+            sequence = snapshotSequence;
+            return;
+        }
+    }
+
+    //Solo se leen los segmentos que pueden tener eventos posteriores a la instantánea
+    private void replaySegments() throws IOException {
+        List<Path> segments = files(SEGMENT_SUFFIX);
+        int first = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            if (firstSequenceOf(segments.get(i)) <= sequence + 1) {
+                first = i;
+            }
+        }
+        for (int i = first; i < segments.size(); i++) {
+            boolean last = i == segments.size() - 1;
+            replaySegment(segments.get(i), last);
+        }
+        if (!segments.isEmpty()) {
+            segment = FileChannel.open(segments.get(segments.size() - 1), StandardOpenOption.WRITE);
+            segment.position(segment.size());
+        }
+    }
+
+    private void replaySegment(Path path, boolean last) throws IOException {
+        ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(path));
+        while (content.hasRemaining()) {
+            EventCodec.Decoded decoded = EventCodec.decode(content);
+            if (decoded == null) {
+                if (!last) {
+                    throw new IllegalStateException("Corrupted event log segment " + path.getFileName());
+                }
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                    channel.truncate(content.position());
+                }
+                return;
+            }
+            if (decoded.sequence() > sequence) {
+                if (decoded.sequence() != sequence + 1) {
+                    throw new IllegalStateException("Missing events before sequence " + decoded.sequence());
+                }
+                state.apply(decoded.sequence(), decoded.event());
+                sequence = decoded.sequence();
+                sinceSnapshot++;
+            }
+        }
+    }
+
+    private ByteBuffer ensureCapacity(ByteBuffer current, int needed) {
+        if (current.remaining() >= needed) {
+            return current;
+        }
+        ByteBuffer bigger = ByteBuffer.allocate(Math.max(current.capacity() * 2, current.position() + needed));
+        current.flip();
+        bigger.put(current);
+        return bigger;
+    }
+
+    private List<Path> files(String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(suffix))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long firstSequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    //Con ceros a la izquierda el orden alfabético coincide con el de secuencia
+    private static String fileName(long sequence, String suffix) {
+        return String.format("%020d%s", sequence, suffix);
+    }
+}
@@ -0,0 +1,106 @@
+package com.gastromind.infrastructure.metrics;
+
+import com.gastromind.domain.service.InventoryMetrics;
+import com.gastromind.domain.valueobject.Category;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+Métricas del inventario en Micrometer. Todos los medidores se crean al arrancar (también uno por categoría),
+así que en el camino caliente solo se actualizan contadores e histogramas, sin buscar en el registro.
+ */
+public class MicrometerInventoryMetrics implements InventoryMetrics {
+
+    private final Timer lockWait;
+    private final Timer lockHold;
+    private final DistributionSummary batchesScanned;
+    private final Map<Category, Counter> consumptions = new EnumMap<>(Category.class);
+    private final Map<Category, Counter> stockOuts = new EnumMap<>(Category.class);
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+
+    public MicrometerInventoryMetrics(MeterRegistry registry) {
+        if (registry == null) {
+            throw new IllegalArgumentException("Registry cannot be null");
+        }
+        lockWait = Timer.builder("gastromind.inventory.lock.wait")
+                .description("Time waiting for product locks")
+                .publishPercentileHistogram()
+                .register(registry);
+        lockHold = Timer.builder("gastromind.inventory.lock.hold")
+                .description("Time holding product locks")
+                .publishPercentileHistogram()
+                .register(registry);
+        batchesScanned = DistributionSummary.builder("gastromind.inventory.fefo.batches.scanned")
+                .description("Batches touched by each FEFO consumption")
+                .publishPercentileHistogram()
+                .register(registry);
+        for (Category category : Category.values()) {
+            consumptions.put(category, Counter.builder("gastromind.inventory.consumptions")
+                    .tag("category", category.name())
+                    .register(registry));
+            stockOuts.put(category, Counter.builder("gastromind.inventory.stockouts")
+                    .tag("category", category.name())
+                    .register(registry));
+        }
+        FunctionCounter.builder("gastromind.costing.cache.requests", cacheHits, LongAdder::doubleValue)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("gastromind.costing.cache.requests", cacheMisses, LongAdder::doubleValue)
+                .tag("result", "miss")
+                .register(registry);
+        Gauge.builder("gastromind.costing.cache.hit.ratio", this, MicrometerInventoryMetrics::cacheHitRatio)
+                .description("Share of recipe cost requests served from the cache")
+                .register(registry);
+    }
+
+    @Override
+    public void lockWaited(long nanos) {
+        lockWait.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void lockHeld(long nanos) {
+        lockHold.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void batchesScanned(int batches) {
+        batchesScanned.record(batches);
+    }
+
+    @Override
+    public void consumptionRequested(Category category) {
+        consumptions.get(category).increment();
+    }
+
+    @Override
+    public void stockOut(Category category) {
+        stockOuts.get(category).increment();
+    }
+
+    @Override
+    public void costingCacheHit() {
+        cacheHits.increment();
+    }
+
+    @Override
+    public void costingCacheMiss() {
+        cacheMisses.increment();
+    }
+
+    double cacheHitRatio() {
+        long hits = cacheHits.sum();
+        long total = hits + cacheMisses.sum();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+}
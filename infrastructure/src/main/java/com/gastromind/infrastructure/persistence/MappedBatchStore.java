@@ -0,0 +1,321 @@
+package com.gastromind.infrastructure.persistence;
+
+import com.gastromind.application.port.BatchRepository;
+import com.gastromind.application.port.ProductRepository;
+import com.gastromind.domain.entity.Batch;
+import com.gastromind.domain.entity.Product;
+import com.gastromind.domain.service.InventoryListener;
+import com.gastromind.domain.valueobject.Money;
+import com.gastromind.domain.valueobject.Quantity;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Currency;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+Lotes guardados en un fichero proyectado en memoria (FileChannel.map), con registros de ancho fijo:
+  0 id (2 long) | 16 producto (2 long) | 32 nº de SKU (int) | 36 entrada (día epoch) | 40 caducidad (día epoch)
+  44 moneda (3 bytes + relleno) | 48 precio en céntimos | 56 cantidad inicial (micros) | 64 cantidad actual (micros)
+Actualizar el stock es escribir 8 bytes en su sitio; leerlo es leerlos del mapa, sin copiar ni deserializar.
+El fichero se proyecta por bloques de registros, que se añaden según crece el almacén.
+En memoria solo se guarda dónde está cada lote y qué lotes tiene cada producto.
+Como InventoryListener guarda las entradas y resta cada consumo del stock guardado con un CAS: cada lectura
+crea una copia nueva del lote, así que escribir el stock de la copia pisaría lo que otra copia ya ha consumido.
+ */
+public class MappedBatchStore implements BatchRepository, InventoryListener, AutoCloseable {
+
+    static final int RECORD_BYTES = 72;
+    static final int HEADER_BYTES = 64;
+    static final int RECORDS_PER_CHUNK = 1 << 16;
+
+    private static final int MAGIC = 0x474D4253;
+    private static final int PRODUCT = 16;
+    private static final int SKU = 32;
+    private static final int ENTRY_DATE = 36;
+    private static final int EXPIRATION_DATE = 40;
+    private static final int CURRENCY = 44;
+    private static final int PRICE = 48;
+    private static final int INITIAL = 56;
+    private static final int CURRENT = 64;
+    private static final long CHUNK_BYTES = (long) RECORDS_PER_CHUNK * RECORD_BYTES;
+    //Acceso atómico a la cantidad actual: los registros están alineados a 8 bytes dentro del mapa
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    private static final Comparator<Batch> FEFO = Comparator.comparing(Batch::getExpirationDate)
+            .thenComparing(Batch::getEntryDate);
+    private static final Queue<Integer> EMPTY = new ConcurrentLinkedQueue<>();
+
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final List<MappedByteBuffer> chunks = new CopyOnWriteArrayList<>();
+    private final SkuTable skus;
+    private final ProductRepository products;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final Map<UUID, Integer> slotsByBatch = new ConcurrentHashMap<>();
+    private final Map<UUID, Queue<Integer>> slotsByProduct = new ConcurrentHashMap<>();
+    private volatile int size;
+
+    private MappedBatchStore(FileChannel channel, MappedByteBuffer header, SkuTable skus, ProductRepository products) {
+        this.channel = channel;
+        this.header = header;
+        this.skus = skus;
+        this.products = products;
+    }
+
+    public static MappedBatchStore open(Path directory, ProductRepository products) {
+        if (directory == null) {
+            throw new IllegalArgumentException("Directory cannot be null");
+        }
+        if (products == null) {
+            throw new IllegalArgumentException("Product repository cannot be null");
+        }
+        try {
+            Files.createDirectories(directory);
+            FileChannel channel = FileChannel.open(directory.resolve("batches.dat"), StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            boolean created = channel.size() == 0;
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            if (created) {
+                header.putInt(0, MAGIC);
+            } else if (header.getInt(0) != MAGIC) {
+                channel.close();
+                throw new IllegalStateException("Not a batch store file");
+            }
+            MappedBatchStore store = new MappedBatchStore(channel, header, SkuTable.open(directory.resolve("skus.dat")),
+                    products);
+            store.loadIndex(header.getInt(4));
+            return store;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    //Alta del lote o, si ya existe, actualización de su stock en el sitio
+    public void save(Batch batch) {
+        if (batch == null) {
+            throw new IllegalArgumentException("Batch cannot be null");
+        }
+        Integer slot = slotsByBatch.get(batch.getId());
+        if (slot != null) {
+            writeCurrent(slot, batch.getCurrentMicros());
+            return;
+        }
+        appendLock.lock();
+        try {
+            slot = slotsByBatch.get(batch.getId());
+            if (slot != null) {
+                writeCurrent(slot, batch.getCurrentMicros());
+                return;
+            }
+            slot = size;
+            write(slot, batch);
+            slotsByProduct.computeIfAbsent(batch.getProduct().getId(), id -> new ConcurrentLinkedQueue<>()).add(slot);
+            slotsByBatch.put(batch.getId(), slot);
+            //El contador se actualiza después del registro: si hay una caída a mitad, el registro no cuenta
+            size = slot + 1;
+            header.putInt(4, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    //Resta del stock guardado sin pasar nunca de cero
+    public void consume(UUID batchId, long micros) {
+        if (micros <= 0) {
+            throw new IllegalArgumentException("Consumed quantity must be greater than zero");
+        }
+        Integer slot = slotsByBatch.get(batchId);
+        if (slot == null) {
+            throw new IllegalArgumentException("Batch is not stored");
+        }
+        MappedByteBuffer chunk = chunks.get(slot / RECORDS_PER_CHUNK);
+        int offset = offsetOf(slot) + CURRENT;
+        long current;
+        do {
+            current = (long) LONGS.getAcquire(chunk, offset);
+            if (current < micros) {
+                throw new IllegalStateException("Consumed more than the batch had");
+            }
+        } while (!LONGS.compareAndSet(chunk, offset, current, current - micros));
+    }
+
+    //Lotes del producto en orden FEFO, incluidos los agotados
+    @Override
+    public List<Batch> findByProductId(UUID productId) {
+        Queue<Integer> slots = slotsByProduct.get(productId);
+        if (slots == null) {
+            return List.of();
+        }
+        Product product = products.findById(productId)
+                .orElseThrow(() -> new IllegalStateException("Unknown product " + productId));
+        List<Batch> batches = new ArrayList<>();
+        for (int slot : slots) {
+            batches.add(read(slot, product));
+        }
+        batches.sort(FEFO);
+        return batches;
+    }
+
+    public Optional<Batch> findById(UUID batchId) {
+        Integer slot = slotsByBatch.get(batchId);
+        if (slot == null) {
+            return Optional.empty();
+        }
+        UUID productId = uuidAt(slot, PRODUCT);
+        return Optional.of(read(slot, products.findById(productId)
+                .orElseThrow(() -> new IllegalStateException("Unknown product " + productId))));
+    }
+
+    //Lecturas directas del mapa, sin crear lotes
+    public long currentMicros(UUID batchId) {
+        Integer slot = slotsByBatch.get(batchId);
+        if (slot == null) {
+            throw new IllegalArgumentException("Batch is not stored");
+        }
+        return readCurrent(slot);
+    }
+
+    public long stockMicros(UUID productId) {
+        long total = 0;
+        for (int slot : slotsByProduct.getOrDefault(productId, EMPTY)) {
+            total += readCurrent(slot);
+        }
+        return total;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void onBatchReceived(Batch batch) {
+        save(batch);
+    }
+
+    @Override
+    public void onBatchConsumed(Batch batch, Quantity consumed) {
+        if (slotsByBatch.containsKey(batch.getId())) {
+            consume(batch.getId(), consumed.toMicros());
+        } else {
+            save(batch);
+        }
+    }
+
+    public void flush() {
+        try {
+            header.force();
+            for (MappedByteBuffer chunk : chunks) {
+                chunk.force();
+            }
+            skus.force();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+        try {
+            skus.close();
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void loadIndex(int records) throws IOException {
+        if (records > 0) {
+            chunkFor(records - 1);
+        }
+        for (int slot = 0; slot < records; slot++) {
+            UUID batchId = uuidAt(slot, 0);
+            slotsByBatch.put(batchId, slot);
+            slotsByProduct.computeIfAbsent(uuidAt(slot, PRODUCT), id -> new ConcurrentLinkedQueue<>()).add(slot);
+        }
+        size = records;
+    }
+
+    private void write(int slot, Batch batch) throws IOException {
+        MappedByteBuffer chunk = chunkFor(slot);
+        int offset = offsetOf(slot);
+        String currency = batch.getPurchasePrice().currency().getCurrencyCode();
+        chunk.putLong(offset, batch.getId().getMostSignificantBits());
+        chunk.putLong(offset + 8, batch.getId().getLeastSignificantBits());
+        chunk.putLong(offset + PRODUCT, batch.getProduct().getId().getMostSignificantBits());
+        chunk.putLong(offset + PRODUCT + 8, batch.getProduct().getId().getLeastSignificantBits());
+        chunk.putInt(offset + SKU, skus.idOf(batch.getSku()));
+        chunk.putInt(offset + ENTRY_DATE, Math.toIntExact(batch.getEntryDate().toEpochDay()));
+        chunk.putInt(offset + EXPIRATION_DATE, Math.toIntExact(batch.getExpirationDate().toEpochDay()));
+        chunk.put(offset + CURRENCY, currency.getBytes(StandardCharsets.US_ASCII));
+        chunk.putLong(offset + PRICE, batch.getPurchasePrice().toMinor());
+        chunk.putLong(offset + INITIAL, batch.getInitialQuantity().toMicros());
+        writeCurrent(slot, batch.getCurrentMicros());
+    }
+
+    private Batch read(int slot, Product product) {
+        MappedByteBuffer chunk = chunks.get(slot / RECORDS_PER_CHUNK);
+        int offset = offsetOf(slot);
+        byte[] currency = new byte[3];
+        chunk.get(offset + CURRENCY, currency);
+        return Batch.restore(
+                uuidAt(slot, 0),
+                product,
+                skus.skuOf(chunk.getInt(offset + SKU)),
+                LocalDate.ofEpochDay(chunk.getInt(offset + ENTRY_DATE)),
+                LocalDate.ofEpochDay(chunk.getInt(offset + EXPIRATION_DATE)),
+                Money.ofMinor(chunk.getLong(offset + PRICE), Currency.getInstance(new String(currency, StandardCharsets.US_ASCII))),
+                Quantity.ofMicros(chunk.getLong(offset + INITIAL)),
+                readCurrent(slot)
+        );
+    }
+
+    private long readCurrent(int slot) {
+        return (long) LONGS.getAcquire(chunks.get(slot / RECORDS_PER_CHUNK), offsetOf(slot) + CURRENT);
+    }
+
+    private void writeCurrent(int slot, long micros) {
+        LONGS.setRelease(chunks.get(slot / RECORDS_PER_CHUNK), offsetOf(slot) + CURRENT, micros);
+    }
+
+    private UUID uuidAt(int slot, int field) {
+        MappedByteBuffer chunk = chunks.get(slot / RECORDS_PER_CHUNK);
+        int offset = offsetOf(slot) + field;
+        return new UUID(chunk.getLong(offset), chunk.getLong(offset + 8));
+    }
+
+    //Proyecta los bloques que falten hasta el del registro; el fichero crece al proyectar más allá del final
+    private MappedByteBuffer chunkFor(int slot) throws IOException {
+        int index = slot / RECORDS_PER_CHUNK;
+        while (chunks.size() <= index) {
+            chunks.add(channel.map(FileChannel.MapMode.READ_WRITE, HEADER_BYTES + chunks.size() * CHUNK_BYTES, CHUNK_BYTES));
+        }
+        return chunks.get(index);
+    }
+
+    private static int offsetOf(int slot) {
+        return (slot % RECORDS_PER_CHUNK) * RECORD_BYTES;
+    }
+}
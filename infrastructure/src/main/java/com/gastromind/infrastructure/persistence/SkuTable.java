@@ -0,0 +1,98 @@
+package com.gastromind.infrastructure.persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+//Diccionario de SKUs: los registros de lote guardan solo el número de su SKU y así tienen ancho fijo
+final class SkuTable implements AutoCloseable {
+
+    private static final int MAX_SKU_BYTES = 0xFFFF;
+
+    /*
+    Se escribe bajo el appendLock de MappedBatchStore, pero skuOf se lee sin lock desde las consultas.
+    El SKU se guarda en el array antes de publicar el nuevo tamaño (volatile): quien lee el tamaño ve el SKU.
+     */
+    private volatile String[] skus = new String[64];
+    private volatile int size;
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final FileChannel channel;
+
+    private SkuTable(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    static SkuTable open(Path file) throws IOException {
+        SkuTable table = new SkuTable(FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE));
+        ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(file));
+        int validEnd = 0;
+        while (content.remaining() >= 2) {
+            int length = Short.toUnsignedInt(content.getShort());
+            if (content.remaining() < length) {
+                break;
+            }
+            byte[] sku = new byte[length];
+            content.get(sku);
+            table.remember(new String(sku, StandardCharsets.UTF_8));
+            validEnd = content.position();
+        }
+        //Si la última escritura quedó a medias se descarta
+        table.channel.truncate(validEnd);
+        table.channel.position(table.channel.size());
+        return table;
+    }
+
+    int idOf(String sku) throws IOException {
+        Integer id = ids.get(sku);
+        if (id != null) {
+            return id;
+        }
+        byte[] bytes = sku.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_SKU_BYTES) {
+            throw new IllegalArgumentException("SKU is too long to be stored");
+        }
+        ByteBuffer record = ByteBuffer.allocate(2 + bytes.length);
+        record.putShort((short) bytes.length).put(bytes).flip();
+        while (record.hasRemaining()) {
+            channel.write(record);
+        }
+        return remember(sku);
+    }
+
+    String skuOf(int id) {
+        if (id < 0 || id >= size) {
+            throw new IllegalArgumentException("Unknown SKU id: " + id);
+        }
+        return skus[id];
+    }
+
+    void force() throws IOException {
+        channel.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private int remember(String sku) {
+        int id = size;
+        String[] current = skus;
+        if (id == current.length) {
+            current = Arrays.copyOf(current, id * 2);
+            skus = current;
+        }
+        current[id] = sku;
+        ids.put(sku, id);
+        size = id + 1;
+        return id;
+    }
+}
@@ -0,0 +1,119 @@
+package com.gastromind.infrastructure.config;
+
+import com.gastromind.application.inventory.MenuAvailabilityRefresher;
+import com.gastromind.application.port.BatchRepository;
+import com.gastromind.domain.entity.Batch;
+import com.gastromind.domain.entity.Product;
+import com.gastromind.domain.entity.Recipe;
+import com.gastromind.domain.exception.NotEnoughStockException;
+import com.gastromind.domain.service.FefoBatchIndex;
+import com.gastromind.domain.service.InventoryMetrics;
+import com.gastromind.domain.service.InventoryService;
+import com.gastromind.domain.service.MenuFeasibilityService;
+import com.gastromind.domain.service.RecipeCostingService;
+import com.gastromind.domain.service.StockReservations;
+import com.gastromind.domain.valueobject.Category;
+import com.gastromind.domain.valueobject.Difficulty;
+import com.gastromind.domain.valueobject.Money;
+import com.gastromind.domain.valueobject.Quantity;
+import com.gastromind.domain.valueobject.RecipeIngredient;
+import com.gastromind.domain.valueobject.UnitOfMeasure;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("InventoryConfiguration debería")
+class InventoryConfigurationTest {
+
+    private final InventoryConfiguration configuration = new InventoryConfiguration();
+    private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+    private SimpleMeterRegistry registry;
+    private InventoryService inventoryService;
+    private InventoryMetrics metrics;
+    private Product rice;
+    private Recipe paella;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = configuration.inventoryMetrics(registry);
+        inventoryService = configuration.inventoryService(configuration.productLockRegistry(metrics), metrics);
+        rice = Product.create("Arroz Bomba", null, Category.GRAIN, UnitOfMeasure.KILOGRAM, Set.of());
+        paella = Recipe.create("Paella", null, Duration.ofMinutes(45), Difficulty.MEDIUM, 4);
+        paella.addIngredient(RecipeIngredient.of(rice, Quantity.of(1.0)));
+    }
+
+    @Test
+    @DisplayName("Publicar los aciertos y fallos de la caché del servicio de costes")
+    void shouldPublishCostingCacheMetrics() {
+        Batch batch = Batch.create(rice, "LOT-001", LocalDate.now().plusDays(30), Money.of(20.0), Quantity.of(10.0));
+        beanFactory.registerSingleton("batchRepository", (BatchRepository) productId -> List.of(batch));
+        RecipeCostingService costingService = configuration.recipeCostingService(
+                beanFactory.getBeanProvider(BatchRepository.class), inventoryService, metrics);
+
+        assertThat(costingService.cost(paella).totalCost().amount()).isEqualByComparingTo(new BigDecimal("2.00"));
+        costingService.cost(paella);
+
+        assertThat(registry.get("gastromind.costing.cache.requests").tag("result", "miss").functionCounter().count())
+                .isEqualTo(1.0);
+        assertThat(registry.get("gastromind.costing.cache.hit.ratio").gauge().value()).isEqualTo(0.5);
+    }
+
+    @Test
+    @DisplayName("Invalidar la caché de costes con las entradas del inventario")
+    void shouldListenToInventory() {
+        RecipeCostingService costingService = configuration.recipeCostingService(
+                beanFactory.getBeanProvider(BatchRepository.class), inventoryService, metrics);
+        costingService.cost(paella);
+
+        inventoryService.receiveBatch(Batch.create(rice, "LOT-001", LocalDate.now().plusDays(30), Money.of(20.0),
+                Quantity.of(10.0)), new FefoBatchIndex(rice));
+
+        assertThat(costingService.isCached(paella)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Avisar de los platos agotados en cuanto se consume el stock")
+    void shouldPushSoldOutNotifications() throws InterruptedException {
+        MenuFeasibilityService feasibility = configuration.menuFeasibilityService(inventoryService);
+        FefoBatchIndex index = new FefoBatchIndex(rice);
+        inventoryService.receiveBatch(Batch.create(rice, "LOT-001", LocalDate.now().plusDays(30), Money.of(20.0),
+                Quantity.of(1.0)), index);
+        feasibility.register(paella);
+        CountDownLatch soldOut = new CountDownLatch(1);
+        feasibility.addListener((recipe, available) -> soldOut.countDown());
+
+        try (MenuAvailabilityRefresher ignored = configuration.menuAvailabilityRefresher(feasibility)) {
+            inventoryService.consumeProductFromIndex(rice, Quantity.of(1.0), index);
+
+            assertThat(soldOut.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("Hacer que el inventario respete las reservas")
+    void shouldRegisterReservationsWithInventory() {
+        FefoBatchIndex index = new FefoBatchIndex(rice);
+        inventoryService.receiveBatch(Batch.create(rice, "LOT-001", LocalDate.now().plusDays(30), Money.of(20.0),
+                Quantity.of(1.0)), index);
+        StockReservations reservations = configuration.stockReservations(inventoryService);
+
+        reservations.hold(rice, Quantity.of(1.0), index);
+
+        assertThatThrownBy(() -> inventoryService.consumeProductFromIndex(rice, Quantity.of(0.5), index))
+                .isInstanceOf(NotEnoughStockException.class);
+    }
+}
@@ -0,0 +1,140 @@
+package com.gastromind.infrastructure.eventlog;
+
+import com.gastromind.domain.entity.Batch;
+import com.gastromind.domain.entity.Product;
+import com.gastromind.domain.event.BatchConsumed;
+import com.gastromind.domain.event.BatchReceived;
+import com.gastromind.domain.event.InventoryState;
+import com.gastromind.domain.valueobject.Category;
+import com.gastromind.domain.valueobject.Money;
+import com.gastromind.domain.valueobject.Quantity;
+import com.gastromind.domain.valueobject.UnitOfMeasure;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("SegmentedEventLog debería")
+class SegmentedEventLogTest {
+
+    @TempDir
+    Path directory;
+
+    private Product product;
+    private Batch batch;
+
+    @BeforeEach
+    void setUp() {
+        product = Product.create("Tomate", "Pera", Category.VEGETABLE, UnitOfMeasure.KILOGRAM, Set.of());
+        batch = Batch.create(product, "LOT-001", LocalDate.now().plusDays(10), Money.of(12.0), Quantity.of(8.0));
+    }
+
+    @Test
+    @DisplayName("Recuperar el estado al volver a abrir el registro")
+    void shouldRecoverStateAfterReopening() {
+        try (SegmentedEventLog log = SegmentedEventLog.open(directory)) {
+            log.append(BatchReceived.of(batch));
+            log.append(consumed(3.0));
+        }
+
+        try (SegmentedEventLog log = SegmentedEventLog.open(directory)) {
+            InventoryState state = log.recover();
+
+            assertThat(log.lastSequence()).isEqualTo(2);
+            assertThat(state.toBatches(id -> product))
+                    .singleElement()
+                    .satisfies(restored -> {
+                        assertThat(restored.getId()).isEqualTo(batch.getId());
+                        assertThat(restored.getCurrentQuantity().value()).isEqualTo(5.0);
+                    });
+        }
+    }
+
+    @Test
+    @DisplayName("Repartir los eventos en segmentos y reproducir solo los posteriores a la instantánea")
+    void shouldReplayOnlyTheTailAfterTheSnapshot() throws IOException {
+        SegmentedEventLog log = SegmentedEventLog.open(directory, EventCodec.MAX_RECORD_BYTES, 500);
+        log.append(BatchReceived.of(batch));
+        for (int i = 0; i < 1200; i++) {
+            log.append(consumed(0.005));
+        }
+        log.sync();
+
+        assertThat(files(".log")).hasSizeGreaterThan(1);
+        assertThat(files(".snap")).hasSize(2);
+
+        //Sin cerrar el primero: simula una caída después de la última instantánea
+        try (SegmentedEventLog reopened = SegmentedEventLog.open(directory, EventCodec.MAX_RECORD_BYTES, 500)) {
+            assertThat(reopened.lastSequence()).isEqualTo(1201);
+            assertThat(reopened.recover().remainingMicros(batch.getId())).isEqualTo(Quantity.of(2.0).toMicros());
+        }
+        log.close();
+    }
+
+    @Test
+    @DisplayName("Descartar un registro cortado al final del último segmento")
+    void shouldDiscardTornRecordAtTheEnd() throws IOException {
+        try (SegmentedEventLog log = SegmentedEventLog.open(directory)) {
+            log.append(BatchReceived.of(batch));
+            log.append(consumed(1.0));
+        }
+        Path segment = files(".log").get(0);
+        Files.write(segment, new byte[]{0, 0, 0, 57, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        try (SegmentedEventLog reopened = SegmentedEventLog.open(directory)) {
+            reopened.append(consumed(1.0));
+        }
+
+        try (SegmentedEventLog recovered = SegmentedEventLog.open(directory)) {
+            assertThat(recovered.lastSequence()).isEqualTo(3);
+            assertThat(recovered.recover().remainingMicros(batch.getId())).isEqualTo(Quantity.of(6.0).toMicros());
+        }
+    }
+
+    @Test
+    @DisplayName("No avanzar el estado si falla la escritura y seguir escribiendo después")
+    void shouldKeepStateInStepWithDiskWhenWriteFails() throws IOException {
+        //Un SKU del tamaño máximo llena el segmento: el segundo append tiene que abrir 00000000000000000002.log
+        batch = Batch.create(product, "L".repeat(EventCodec.MAX_SKU_BYTES), LocalDate.now().plusDays(10), Money.of(12.0), Quantity.of(8.0));
+        Path blocker = directory.resolve(String.format("%020d.log", 2));
+        try (SegmentedEventLog log = SegmentedEventLog.open(directory, EventCodec.MAX_RECORD_BYTES, 1_000)) {
+            log.append(BatchReceived.of(batch));
+            Files.createDirectory(blocker);
+
+            assertThatThrownBy(() -> log.append(consumed(1.0))).isInstanceOf(UncheckedIOException.class);
+            assertThat(log.lastSequence()).isEqualTo(1);
+            assertThat(log.recover().remainingMicros(batch.getId())).isEqualTo(Quantity.of(8.0).toMicros());
+
+            Files.delete(blocker);
+            assertThat(log.append(consumed(1.0))).isEqualTo(2);
+        }
+
+        try (SegmentedEventLog recovered = SegmentedEventLog.open(directory)) {
+            assertThat(recovered.lastSequence()).isEqualTo(2);
+            assertThat(recovered.recover().remainingMicros(batch.getId())).isEqualTo(Quantity.of(7.0).toMicros());
+        }
+    }
+
+    private BatchConsumed consumed(double quantity) {
+        return new BatchConsumed(batch.getId(), product.getId(), Quantity.of(quantity).toMicros());
+    }
+
+    private List<Path> files(String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.toString().endsWith(suffix)).sorted().toList();
+        }
+    }
+}
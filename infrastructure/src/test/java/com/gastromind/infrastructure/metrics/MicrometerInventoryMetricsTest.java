@@ -0,0 +1,79 @@
+package com.gastromind.infrastructure.metrics;
+
+import com.gastromind.domain.entity.Batch;
+import com.gastromind.domain.entity.Product;
+import com.gastromind.domain.exception.NotEnoughStockException;
+import com.gastromind.domain.service.InventoryService;
+import com.gastromind.domain.service.ProductLockRegistry;
+import com.gastromind.domain.valueobject.Category;
+import com.gastromind.domain.valueobject.Money;
+import com.gastromind.domain.valueobject.Quantity;
+import com.gastromind.domain.valueobject.UnitOfMeasure;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("MicrometerInventoryMetrics debería")
+class MicrometerInventoryMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private MicrometerInventoryMetrics metrics;
+    private InventoryService inventoryService;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new MicrometerInventoryMetrics(registry);
+        inventoryService = new InventoryService(new ProductLockRegistry(16, metrics), metrics);
+        product = Product.create("Gambas", null, Category.SEAFOOD, UnitOfMeasure.KILOGRAM, Set.of());
+    }
+
+    @Test
+    @DisplayName("Publicar los tiempos de lock y los lotes recorridos por consumo")
+    void shouldPublishLockTimesAndScannedBatches() {
+        Batch first = Batch.create(product, "LOT-001", LocalDate.now().plusDays(2), Money.of(30.0), Quantity.of(1.0));
+        Batch second = Batch.create(product, "LOT-002", LocalDate.now().plusDays(4), Money.of(30.0), Quantity.of(1.0));
+
+        inventoryService.consumeProduct(product, Quantity.of(1.5), List.of(first, second));
+
+        assertThat(registry.get("gastromind.inventory.lock.wait").timer().count()).isEqualTo(1);
+        assertThat(registry.get("gastromind.inventory.lock.hold").timer().count()).isEqualTo(1);
+        assertThat(registry.get("gastromind.inventory.fefo.batches.scanned").summary().totalAmount()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("Contar consumos y roturas de stock por categoría")
+    void shouldCountStockOutsByCategory() {
+        assertThatThrownBy(() -> inventoryService.consumeProduct(product, Quantity.of(1.0), List.of()))
+                .isInstanceOf(NotEnoughStockException.class);
+
+        assertThat(registry.get("gastromind.inventory.consumptions").tag("category", "SEAFOOD").counter().count())
+                .isEqualTo(1.0);
+        assertThat(registry.get("gastromind.inventory.stockouts").tag("category", "SEAFOOD").counter().count())
+                .isEqualTo(1.0);
+        assertThat(registry.get("gastromind.inventory.stockouts").tag("category", "MEAT").counter().count())
+                .isZero();
+    }
+
+    @Test
+    @DisplayName("Calcular la tasa de aciertos de la caché de costes")
+    void shouldComputeCacheHitRatio() {
+        metrics.costingCacheMiss();
+        metrics.costingCacheHit();
+        metrics.costingCacheHit();
+        metrics.costingCacheHit();
+
+        assertThat(registry.get("gastromind.costing.cache.hit.ratio").gauge().value()).isEqualTo(0.75);
+        assertThat(registry.get("gastromind.costing.cache.requests").tag("result", "hit").functionCounter().count())
+                .isEqualTo(3.0);
+    }
+}
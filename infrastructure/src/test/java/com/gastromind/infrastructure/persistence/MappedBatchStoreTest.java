@@ -0,0 +1,171 @@
+package com.gastromind.infrastructure.persistence;
+
+import com.gastromind.domain.entity.Batch;
+import com.gastromind.domain.entity.Product;
+import com.gastromind.domain.service.FefoBatchIndex;
+import com.gastromind.domain.service.InventoryService;
+import com.gastromind.domain.valueobject.Category;
+import com.gastromind.domain.valueobject.Money;
+import com.gastromind.domain.valueobject.Quantity;
+import com.gastromind.domain.valueobject.UnitOfMeasure;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("MappedBatchStore debería")
+class MappedBatchStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        product = Product.create("Merluza", "Del Cantábrico", Category.FISH, UnitOfMeasure.KILOGRAM, Set.of());
+    }
+
+    @Test
+    @DisplayName("Guardar los lotes y devolverlos en orden FEFO con todos sus datos")
+    void shouldStoreAndReadBatches() {
+        Batch later = batch("LOT-002", 5, 4.0);
+        Batch sooner = batch("LOT-001", 2, 3.0);
+
+        try (MappedBatchStore store = open()) {
+            store.save(later);
+            store.save(sooner);
+
+            List<Batch> batches = store.findByProductId(product.getId());
+
+            assertThat(batches).extracting(Batch::getId).containsExactly(sooner.getId(), later.getId());
+            Batch first = batches.get(0);
+            assertThat(first.getSku()).isEqualTo("LOT-001");
+            assertThat(first.getExpirationDate()).isEqualTo(sooner.getExpirationDate());
+            assertThat(first.getPurchasePrice()).isEqualTo(Money.of(15.0));
+            assertThat(first.getInitialQuantity().value()).isEqualTo(3.0);
+        }
+    }
+
+    @Test
+    @DisplayName("Actualizar el stock en su sitio al consumir desde el inventario")
+    void shouldUpdateStockInPlace() {
+        try (MappedBatchStore store = open()) {
+            InventoryService inventoryService = new InventoryService();
+            inventoryService.addListener(store);
+            FefoBatchIndex index = new FefoBatchIndex(product);
+            Batch first = batch("LOT-001", 2, 3.0);
+            inventoryService.receiveBatch(first, index);
+            inventoryService.receiveBatch(batch("LOT-002", 5, 4.0), index);
+
+            inventoryService.consumeProductFromIndex(product, Quantity.of(4.0), index);
+
+            assertThat(store.size()).isEqualTo(2);
+            assertThat(store.currentMicros(first.getId())).isZero();
+            assertThat(store.stockMicros(product.getId())).isEqualTo(Quantity.of(3.0).toMicros());
+        }
+    }
+
+    @Test
+    @DisplayName("Conservar los lotes y su stock al volver a abrir el fichero")
+    void shouldKeepBatchesAfterReopening() {
+        Batch batch = batch("LOT-001", 3, 6.0);
+        try (MappedBatchStore store = open()) {
+            store.save(batch);
+            batch.consume(Quantity.of(2.5));
+            store.save(batch);
+        }
+
+        try (MappedBatchStore store = open()) {
+            assertThat(store.findById(batch.getId()))
+                    .hasValueSatisfying(restored -> assertThat(restored.getCurrentQuantity().value()).isEqualTo(3.5));
+        }
+    }
+
+    @Test
+    @DisplayName("Leer lotes mientras otro hilo da de alta SKUs nuevos")
+    void shouldReadWhileNewSkusAreAppended() throws Exception {
+        try (MappedBatchStore store = open()) {
+            AtomicBoolean writing = new AtomicBoolean(true);
+            CompletableFuture<Void> reader = CompletableFuture.runAsync(() -> {
+                while (writing.get()) {
+                    store.findByProductId(product.getId())
+                            .forEach(batch -> assertThat(batch.getSku()).startsWith("LOT-"));
+                }
+            });
+
+            for (int i = 0; i < 500; i++) {
+                store.save(batch("LOT-" + i, 3, 1.0));
+            }
+            writing.set(false);
+            reader.get(10, TimeUnit.SECONDS);
+
+            assertThat(store.findByProductId(product.getId())).hasSize(500);
+        }
+    }
+
+    @Test
+    @DisplayName("Restar los consumos de copias distintas del mismo lote sin perder ninguno")
+    void shouldNotLoseConsumptionFromStaleCopies() {
+        Batch batch = batch("LOT-001", 3, 10.0);
+        try (MappedBatchStore store = open()) {
+            store.save(batch);
+            Batch first = store.findById(batch.getId()).orElseThrow();
+            Batch second = store.findById(batch.getId()).orElseThrow();
+
+            store.onBatchConsumed(first, Quantity.of(6.0));
+
+            assertThatThrownBy(() -> store.onBatchConsumed(second, Quantity.of(6.0)))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("Consumed more than the batch had");
+            assertThat(store.currentMicros(batch.getId())).isEqualTo(Quantity.of(4.0).toMicros());
+        }
+    }
+
+    @Test
+    @DisplayName("Aplicar consumos concurrentes sobre el mismo lote sin bajar de cero")
+    void shouldApplyConcurrentConsumption() {
+        Batch batch = batch("LOT-001", 3, 10.0);
+        try (MappedBatchStore store = open()) {
+            store.save(batch);
+            AtomicInteger accepted = new AtomicInteger();
+
+            IntStream.range(0, 8).parallel().forEach(thread -> {
+                for (int i = 0; i < 100; i++) {
+                    Batch copy = store.findById(batch.getId()).orElseThrow();
+                    try {
+                        store.onBatchConsumed(copy, Quantity.of(0.1));
+                        accepted.incrementAndGet();
+                    } catch (IllegalStateException e) {
+                        //Agotado
+                    }
+                }
+            });
+
+            assertThat(accepted.get()).isEqualTo(100);
+            assertThat(store.currentMicros(batch.getId())).isZero();
+        }
+    }
+
+    private MappedBatchStore open() {
+        return MappedBatchStore.open(directory, id -> id.equals(product.getId()) ? Optional.of(product) : Optional.empty());
+    }
+
+    private Batch batch(String sku, int daysToExpire, double quantity) {
+        return Batch.create(product, sku, LocalDate.now().plusDays(daysToExpire), Money.of(5.0 * quantity), Quantity.of(quantity));
+    }
+}